@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.javalbert.orm.ClassRowRegistration;
+import com.github.javalbert.orm.JdbcMapper;
+
+/**
+ * Inserts 1000 rows of DataTypeHolder per row, with JDBC batches, and with multi-row INSERT statements
+ */
+public class BulkInsertBenchmark {
+	public static final int ROW_COUNT = 1000;
+	
+	@State(Scope.Thread)
+	public static class BulkInsertState {
+		public Connection connection;
+		public JdbcMapper jdbcMapper = new JdbcMapper();
+		public JdbcMapper multiRowJdbcMapper = new JdbcMapper();
+		public List<DataTypeHolder> rows = new ArrayList<>();
+		
+		@Setup(Level.Trial)
+		public void doSetup() {
+			try {
+				H2.createTables();
+				H2.deleteRecords();
+				
+				connection = H2.getConnection();
+				
+				// IDs are assigned up front, since entities with an auto-increment ID
+				// are not inserted with multi-row INSERT statements
+				ClassRowRegistration registration = new ClassRowRegistration(DataTypeHolder.class)
+						.table("DataTypeHolder")
+						.columnInField("id", "id", null, ClassRowRegistration.FLAG_ID)
+						.columnInField("intVal", "int_val", null, 0)
+						.columnInField("booleanVal", "boolean_val", null, 0)
+						.columnInField("bigintVal", "bigint_val", null, 0)
+						.columnInField("decimalVal", "decimal_val", null, 0)
+						.columnInField("doubleVal", "double_val", null, 0)
+						.columnInField("realVal", "real_val", null, 0)
+						.columnInField("dateVal", "date_val", null, 0)
+						.columnInField("timestampVal", "timestamp_val", null, ClassRowRegistration.FLAG_TIMESTAMP)
+						.columnInField("varcharVal", "varchar_val", null, 0);
+				jdbcMapper.register(registration);
+				multiRowJdbcMapper.register(registration);
+				multiRowJdbcMapper.setMultiRowInsert(true);
+				
+				for (int i = 0; i < ROW_COUNT; i++) {
+					DataTypeHolder row = new DataTypeHolder();
+					row.setId(i + 1);
+					row.setIntVal(i);
+					row.setBooleanVal(true);
+					row.setBigintVal(Long.MAX_VALUE);
+					row.setDecimalVal(BigDecimal.TEN);
+					row.setDoubleVal(Double.MAX_VALUE);
+					row.setRealVal(Float.MAX_VALUE);
+					row.setDateVal(Date.valueOf(LocalDate.of(2017, 3, 5)));
+					row.setTimestampVal(Timestamp.valueOf(LocalDateTime.of(2017, 3, 5, 20, 45)));
+					row.setVarcharVal("Wing Street");
+					rows.add(row);
+				}
+			} catch (ClassNotFoundException | SQLException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		@Setup(Level.Invocation)
+		public void doSetupInvocation() {
+			H2.deleteRecords();
+		}
+		
+		@TearDown(Level.Trial)
+		public void doTearDown() {
+			H2.deleteRecords();
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public void testSqlbOrmSave(BulkInsertState state) throws SQLException {
+		for (DataTypeHolder row : state.rows) {
+			state.jdbcMapper.save(state.connection, row);
+		}
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public int[] testSqlbOrmSaveAllBatch(BulkInsertState state) throws SQLException {
+		return state.jdbcMapper.saveAll(state.connection, state.rows);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public int[] testSqlbOrmSaveAllMultiRow(BulkInsertState state) throws SQLException {
+		return state.multiRowJdbcMapper.saveAll(state.connection, state.rows);
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.javalbert.sqlbuilder.dsl.BooleanExpression;
+import com.github.javalbert.sqlbuilder.dsl.DSL;
+import com.github.javalbert.sqlbuilder.dsl.DSLRenderer;
+import com.github.javalbert.sqlbuilder.dsl.DSLTransformer;
+import com.github.javalbert.sqlbuilder.dsl.SelectStatement;
+import com.github.javalbert.sqlbuilder.dsl.Table;
+import com.github.javalbert.sqlbuilder.dsl.TableAlias;
+import com.github.javalbert.sqlbuilder.dsl.TableColumn;
+import com.github.javalbert.sqlbuilder.vendor.ANSI;
+import com.github.javalbert.sqlbuilder.vendor.MySQL;
+
+/**
+ * Prints the DSL equivalent of the statement of {@link SqlRenderingBenchmark} by transforming it
+ * with {@link DSLTransformer} then printing it, and by rendering it directly with {@link DSLRenderer}.
+ * Run with <code>-prof gc</code> to compare allocations.
+ */
+public class DSLRenderingBenchmark {
+	public static SelectStatement createSelect(int depth) {
+		TableAlias tableAlias = new TableAlias("t" + depth);
+		
+		TableColumn[] columns = new TableColumn[SqlRenderingBenchmark.COLUMNS];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = tableAlias.of(new TableColumn("column_" + i));
+		}
+		
+		BooleanExpression where = null;
+		for (int i = 0; i < SqlRenderingBenchmark.PREDICATES; i++) {
+			BooleanExpression predicate = columns[i % columns.length].eq(DSL.param("p" + i));
+			where = where == null ? predicate : where.or(predicate);
+		}
+		if (depth > 0) {
+			where = where.and(tableAlias.of(new TableColumn("id")).in(createSelect(depth - 1)));
+		}
+		
+		return DSL.select(columns)
+				.from(new Table("table_" + depth).as(tableAlias))
+				.where(where)
+				.orderBy(columns[0].asc(), columns[1].desc());
+	}
+	
+	@State(Scope.Thread)
+	public static class DSLRenderingState {
+		public final ANSI ansi = new ANSI();
+		public final DSLRenderer ansiRenderer = new DSLRenderer(ansi);
+		public final MySQL mySQL = new MySQL();
+		public final DSLRenderer mySQLRenderer = new DSLRenderer(mySQL);
+		public final SelectStatement select = createSelect(SqlRenderingBenchmark.DEPTH);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public String testRenderAnsi(DSLRenderingState state) {
+		return state.ansiRenderer.render(state.select);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public String testRenderMySQL(DSLRenderingState state) {
+		return state.mySQLRenderer.render(state.select);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public String testTransformAndPrintAnsi(DSLRenderingState state) {
+		return state.ansi.print(DSLTransformer.INSTANCE.buildSelect(state.select));
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public String testTransformAndPrintMySQL(DSLRenderingState state) {
+		return state.mySQL.print(DSLTransformer.INSTANCE.buildSelect(state.select));
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import com.github.javalbert.orm.Column;
+import com.github.javalbert.orm.Entity;
+import com.github.javalbert.orm.Id;
+import com.github.javalbert.orm.IsTimestamp;
+import com.github.javalbert.orm.Table;
+
+/**
+ * Parent of many {@link Employee} objects in {@link NToOneResolverBenchmark}
+ */
+@Entity
+@Table(name = "Department")
+public class Department {
+	@Id
+	@Column("department_id")
+	private int departmentId;
+	@Column("name")
+	private String name;
+	@Column("location")
+	private String location;
+	@Column("budget")
+	private BigDecimal budget;
+	@IsTimestamp
+	@Column("created_at")
+	private Date createdAt;
+	
+	public int getDepartmentId() {
+		return departmentId;
+	}
+	public void setDepartmentId(int departmentId) {
+		this.departmentId = departmentId;
+	}
+	public String getName() {
+		return name;
+	}
+	public void setName(String name) {
+		this.name = name;
+	}
+	public String getLocation() {
+		return location;
+	}
+	public void setLocation(String location) {
+		this.location = location;
+	}
+	public BigDecimal getBudget() {
+		return budget;
+	}
+	public void setBudget(BigDecimal budget) {
+		this.budget = budget;
+	}
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+}
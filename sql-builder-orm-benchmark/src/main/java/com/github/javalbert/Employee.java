@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import com.github.javalbert.orm.Column;
+import com.github.javalbert.orm.Entity;
+import com.github.javalbert.orm.Id;
+import com.github.javalbert.orm.Related;
+import com.github.javalbert.orm.Table;
+
+/**
+ * Belongs to a {@link Department} in {@link NToOneResolverBenchmark}, and is paged through
+ * in {@link KeysetPaginationBenchmark}
+ */
+@Entity
+@Table(name = "Employee")
+public class Employee {
+	@Id
+	@Column("employee_id")
+	private int employeeId;
+	@Column("department_id")
+	private int departmentId;
+	@Column("name")
+	private String name;
+	
+	@Related("department")
+	private Department department;
+	
+	public int getEmployeeId() {
+		return employeeId;
+	}
+	public void setEmployeeId(int employeeId) {
+		this.employeeId = employeeId;
+	}
+	public int getDepartmentId() {
+		return departmentId;
+	}
+	public void setDepartmentId(int departmentId) {
+		this.departmentId = departmentId;
+	}
+	public String getName() {
+		return name;
+	}
+	public void setName(String name) {
+		this.name = name;
+	}
+	public Department getDepartment() {
+		return department;
+	}
+	public void setDepartment(Department department) {
+		this.department = department;
+	}
+}
@@ -35,6 +35,18 @@ public final class H2 {
 				+ "date_val DATE,"
 				+ "timestamp_val TIMESTAMP,"
 				+ "varchar_val VARCHAR(255)"
+				+ ")",
+				"CREATE TABLE IF NOT EXISTS Department ("
+				+ "department_id INT PRIMARY KEY,"
+				+ "name VARCHAR(100),"
+				+ "location VARCHAR(100),"
+				+ "budget DECIMAL(13, 2),"
+				+ "created_at TIMESTAMP"
+				+ ")",
+				"CREATE TABLE IF NOT EXISTS Employee ("
+				+ "employee_id INT PRIMARY KEY,"
+				+ "department_id INT,"
+				+ "name VARCHAR(100)"
 				+ ")");
 	}
 	
@@ -42,7 +54,9 @@ public final class H2 {
 		try {
 			executeStatements(
 					"DELETE FROM DataTypeHolder",
-					"ALTER TABLE DataTypeHolder ALTER COLUMN id RESTART WITH 1");
+					"ALTER TABLE DataTypeHolder ALTER COLUMN id RESTART WITH 1",
+					"DELETE FROM Employee",
+					"DELETE FROM Department");
 		} catch (Exception ignored) {}
 	}
 	
@@ -73,7 +87,9 @@ public final class H2 {
 	
 	public static void dropTables() throws ClassNotFoundException, SQLException {
 		executeStatements(
-				"DROP TABLE IF EXISTS DataTypeHolder");
+				"DROP TABLE IF EXISTS DataTypeHolder",
+				"DROP TABLE IF EXISTS Employee",
+				"DROP TABLE IF EXISTS Department");
 	}
 	
 	private H2() {}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.javalbert.orm.JdbcMapper;
+import com.github.javalbert.orm.KeysetPage;
+import com.github.javalbert.orm.KeysetPager;
+import com.github.javalbert.sqlbuilder.OrderBy;
+import com.github.javalbert.sqlbuilder.Select;
+
+/**
+ * Gets page 1000 of 20 Employees ordered by ID, skipping the 19980 Employees of the previous pages
+ * with OFFSET, or seeking past the last Employee of page 999 with a {@link KeysetPager}
+ */
+public class KeysetPaginationBenchmark {
+	public static final int EMPLOYEE_COUNT = 100_000;
+	public static final int PAGE = 1000;
+	public static final int PAGE_SIZE = 20;
+	
+	@State(Scope.Thread)
+	public static class KeysetPaginationState {
+		public Connection connection;
+		public JdbcMapper jdbcMapper = new JdbcMapper();
+		public Select offsetPageSelect;
+		public KeysetPager<Employee> pager;
+		/**
+		 * Continuation token of page 999
+		 */
+		public String pageToken;
+		
+		@Setup(Level.Trial)
+		public void doSetup() {
+			try {
+				H2.createTables();
+				H2.deleteRecords();
+				
+				connection = H2.getConnection();
+				// Otherwise H2 returns the cached result of the OFFSET query, which has no parameters
+				try (Statement stmt = connection.createStatement()) {
+					stmt.execute("SET OPTIMIZE_REUSE_RESULTS 0");
+				}
+				
+				jdbcMapper.register(Employee.class);
+				
+				List<Employee> employees = new ArrayList<>();
+				for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+					Employee employee = new Employee();
+					employee.setEmployeeId(i + 1);
+					employee.setDepartmentId(i % 10 + 1);
+					employee.setName("Employee " + (i + 1));
+					employees.add(employee);
+				}
+				jdbcMapper.saveAll(connection, employees);
+				
+				offsetPageSelect = jdbcMapper.selectFrom(Employee.class)
+						.orderBy(new OrderBy().column("employee_id"))
+						.offset((PAGE - 1) * PAGE_SIZE)
+						.fetch(PAGE_SIZE)
+						.immutable();
+				
+				pager = new KeysetPager<>(
+						jdbcMapper,
+						Employee.class,
+						jdbcMapper.selectFrom(Employee.class).orderBy(new OrderBy().column("employee_id")),
+						PAGE_SIZE);
+				for (int page = 1; page < PAGE; page++) {
+					pageToken = pager.getPage(connection, pageToken).getContinuationToken();
+				}
+			} catch (ClassNotFoundException | SQLException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		@TearDown(Level.Trial)
+		public void doTearDown() {
+			H2.deleteRecords();
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public List<Employee> testKeysetPage(KeysetPaginationState state) throws SQLException {
+		KeysetPage<Employee> page = state.pager.getPage(state.connection, state.pageToken);
+		return page.getItems();
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public List<Employee> testOffsetPage(KeysetPaginationState state) throws SQLException {
+		return state.jdbcMapper.createQuery(state.offsetPageSelect)
+				.toList(state.connection, Employee.class);
+	}
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.javalbert.orm.BatchResolver;
+import com.github.javalbert.orm.CartesianProductResolver;
+import com.github.javalbert.orm.GraphEntity;
+import com.github.javalbert.orm.JdbcMapper;
+import com.github.javalbert.orm.NPlusOneResolver;
+import com.github.javalbert.orm.ObjectGraphResolver;
+
+/**
+ * Gets 1000 Employees with their Department out of only 10 Departments, so nearly every
+ * Department row read by a resolver is of a Department that was already read
+ */
+public class NToOneResolverBenchmark {
+	public static final int BATCH_SIZE = 100;
+	public static final int DEPARTMENT_COUNT = 10;
+	public static final int EMPLOYEE_COUNT = 1000;
+	
+	@State(Scope.Thread)
+	public static class NToOneResolverState {
+		public BatchResolver batchResolver;
+		public CartesianProductResolver cartesianProductResolver;
+		public Connection connection;
+		public GraphEntity<Employee> employeeEntity = new GraphEntity<>(Employee.class, "e");
+		public JdbcMapper jdbcMapper = new JdbcMapper();
+		public NPlusOneResolver nPlusOneResolver;
+		
+		@Setup(Level.Trial)
+		public void doSetup() {
+			try {
+				H2.createTables();
+				H2.deleteRecords();
+				
+				connection = H2.getConnection();
+				
+				jdbcMapper.register(Department.class);
+				jdbcMapper.register(Employee.class);
+				
+				List<Department> departments = new ArrayList<>();
+				for (int i = 0; i < DEPARTMENT_COUNT; i++) {
+					Department department = new Department();
+					department.setDepartmentId(i + 1);
+					department.setName("Department " + (i + 1));
+					department.setLocation("Wing Street");
+					department.setBudget(new BigDecimal("1000000.00"));
+					department.setCreatedAt(Timestamp.valueOf(LocalDateTime.of(2017, 3, 5, 20, 45)));
+					departments.add(department);
+				}
+				jdbcMapper.saveAll(connection, departments);
+				
+				List<Employee> employees = new ArrayList<>();
+				for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+					Employee employee = new Employee();
+					employee.setEmployeeId(i + 1);
+					employee.setDepartmentId(i % DEPARTMENT_COUNT + 1);
+					employee.setName("Employee " + (i + 1));
+					employees.add(employee);
+				}
+				jdbcMapper.saveAll(connection, employees);
+				
+				// Each batch of 100 Employees gets all 10 Departments again
+				employeeEntity.isRelatedToOne(new GraphEntity<>(Department.class, "d"))
+						.inField("department")
+						.joinedBy("department_id")
+						.batchSize(BATCH_SIZE)
+						.build();
+				
+				batchResolver = new BatchResolver(jdbcMapper);
+				cartesianProductResolver = new CartesianProductResolver(jdbcMapper);
+				nPlusOneResolver = new NPlusOneResolver(jdbcMapper);
+			} catch (ClassNotFoundException | SQLException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		@TearDown(Level.Trial)
+		public void doTearDown() {
+			H2.deleteRecords();
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	private static List<Employee> getEmployees(NToOneResolverState state, ObjectGraphResolver resolver) 
+			throws SQLException {
+		List<Employee> employees = new ArrayList<>(EMPLOYEE_COUNT);
+		state.jdbcMapper.createQuery(state.jdbcMapper.selectFrom(Employee.class))
+				.toCollection(state.connection, state.employeeEntity, employees, resolver);
+		return employees;
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public List<Employee> testBatchResolver(NToOneResolverState state) throws SQLException {
+		return getEmployees(state, state.batchResolver);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public List<Employee> testCartesianProductResolver(NToOneResolverState state) throws SQLException {
+		return getEmployees(state, state.cartesianProductResolver);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public List<Employee> testNPlusOneResolver(NToOneResolverState state) throws SQLException {
+		return getEmployees(state, state.nPlusOneResolver);
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.javalbert.orm.JdbcMapper;
+import com.github.javalbert.orm.JdbcStatement;
+
+/**
+ * Maps every row of DataTypeHolder into entities with and without typed column readers
+ */
+public class RowMappingBenchmark {
+	public static final int ROW_COUNT = 1000;
+	
+	@State(Scope.Thread)
+	public static class RowMappingState {
+		public Connection connection;
+		public JdbcMapper jdbcMapper = new JdbcMapper();
+		public JdbcStatement selectAll;
+		@Param({"true", "false"})
+		public boolean typedColumnReaders;
+		
+		@Setup(Level.Trial)
+		public void doSetup() {
+			try {
+				H2.createTables();
+				H2.deleteRecords();
+				
+				connection = H2.getConnection();
+				
+				jdbcMapper.register(DataTypeHolder.class);
+				jdbcMapper.setTypedColumnReaders(typedColumnReaders);
+				
+				for (int i = 0; i < ROW_COUNT; i++) {
+					DataTypeHolder row = new DataTypeHolder();
+					row.setIntVal(i);
+					row.setBooleanVal(true);
+					row.setBigintVal(Long.MAX_VALUE);
+					row.setDecimalVal(BigDecimal.TEN);
+					row.setDoubleVal(Double.MAX_VALUE);
+					row.setRealVal(Float.MAX_VALUE);
+					row.setDateVal(Date.valueOf(LocalDate.of(2017, 3, 5)));
+					row.setTimestampVal(Timestamp.valueOf(LocalDateTime.of(2017, 3, 5, 20, 45)));
+					row.setVarcharVal("Wing Street");
+					jdbcMapper.save(connection, row);
+				}
+				
+				selectAll = jdbcMapper.createQuery(jdbcMapper.selectFrom(DataTypeHolder.class))
+						.cachePreparedStatement(true);
+			} catch (ClassNotFoundException | SQLException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		@TearDown(Level.Trial)
+		public void doTearDown() {
+			selectAll.closePreparedStatement();
+			H2.deleteRecords();
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public List<DataTypeHolder> testSqlbOrmToList(RowMappingState state) throws SQLException {
+		return state.selectAll.toList(state.connection, DataTypeHolder.class);
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.javalbert.sqlbuilder.parser.ParseToken;
+import com.github.javalbert.sqlbuilder.parser.ParseTree;
+import com.github.javalbert.sqlbuilder.parser.SqlLexer;
+import com.github.javalbert.sqlbuilder.parser.SqlParser;
+
+/**
+ * Tokenizes a generated SELECT with an IN list of {@value #IN_VALUES} string and number literals,
+ * with the regular expression {@link SqlParser#REGEX_SPLIT} and with {@link SqlLexer}
+ */
+@SuppressWarnings("deprecation")
+public class SqlParsingBenchmark {
+	public static final int IN_VALUES = 5000;
+	
+	public static String createSql() {
+		StringBuilder sql = new StringBuilder("SELECT e.id, e.name, e.status FROM Employee e WHERE e.status IN (");
+		for (int i = 0; i < IN_VALUES; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append("'Status ''").append(i).append("'''");
+		}
+		sql.append(") AND e.id IN (");
+		for (int i = 0; i < IN_VALUES; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append(i);
+		}
+		return sql.append(") ORDER BY e.name").toString();
+	}
+	
+	@State(Scope.Thread)
+	public static class SqlParsingState {
+		public final String sql = createSql();
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public int testLex(SqlParsingState state) {
+		return new SqlLexer(state.sql).size();
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public ParseToken testParseTreeLexer(SqlParsingState state) {
+		return new ParseTree(new SqlLexer(state.sql)).parseTokens();
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public ParseToken testParseTreeRegex(SqlParsingState state) {
+		return new ParseTree(new SqlParser().tokenize(state.sql)).parseTokens();
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public int testTokenizeRegex(SqlParsingState state) {
+		return new SqlParser().tokenize(state.sql).size();
+	}
+}
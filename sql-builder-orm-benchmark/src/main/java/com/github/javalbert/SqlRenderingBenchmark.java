@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.javalbert.sqlbuilder.From;
+import com.github.javalbert.sqlbuilder.OrderBy;
+import com.github.javalbert.sqlbuilder.Predicate;
+import com.github.javalbert.sqlbuilder.Select;
+import com.github.javalbert.sqlbuilder.SelectList;
+import com.github.javalbert.sqlbuilder.Where;
+import com.github.javalbert.sqlbuilder.vendor.ANSI;
+import com.github.javalbert.sqlbuilder.vendor.MySQL;
+
+/**
+ * Renders a large generated SELECT statement: 50 columns, a WHERE of 100 predicates
+ * and an IN subquery nested {@value #DEPTH} levels deep, each level as large as the outer query
+ */
+public class SqlRenderingBenchmark {
+	public static final int COLUMNS = 50;
+	public static final int DEPTH = 6;
+	public static final int PREDICATES = 100;
+	
+	public static Select createSelect(int depth) {
+		String tableAlias = "t" + depth;
+		
+		SelectList list = new SelectList();
+		for (int i = 0; i < COLUMNS; i++) {
+			list.tableAlias(tableAlias).column("column_" + i);
+		}
+		
+		Where where = new Where();
+		for (int i = 0; i < PREDICATES; i++) {
+			if (i > 0) {
+				where.or();
+			}
+			where.predicate(new Predicate().tableAlias(tableAlias).column("column_" + (i % COLUMNS)).eq().param("p" + i));
+		}
+		if (depth > 0) {
+			where.and().predicate(new Predicate().tableAlias(tableAlias).column("id").in().subquery(createSelect(depth - 1)));
+		}
+		
+		return new Select()
+				.list(list)
+				.from(new From().tableName("table_" + depth).as(tableAlias))
+				.where(where)
+				.orderBy(new OrderBy().tableAlias(tableAlias).column("column_0").tableAlias(tableAlias).column("column_1").desc());
+	}
+	
+	@State(Scope.Thread)
+	public static class SqlRenderingState {
+		public final ANSI ansi = new ANSI();
+		public final StringBuilder builder = new StringBuilder();
+		public final MySQL mySQL = new MySQL();
+		public final Select select = createSelect(DEPTH);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public String testPrintAnsi(SqlRenderingState state) {
+		return state.ansi.print(state.select);
+	}
+	
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public String testPrintMySQL(SqlRenderingState state) {
+		return state.mySQL.print(state.select);
+	}
+	
+	/**
+	 * Reuses a builder that has already grown to the length of the SQL
+	 */
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	@Benchmark
+	public int testPrintToReusedBuilder(SqlRenderingState state) {
+		state.builder.setLength(0);
+		state.ansi.printTo(state.select, state.builder);
+		return state.builder.length();
+	}
+}
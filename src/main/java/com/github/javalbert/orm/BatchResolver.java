@@ -21,10 +21,17 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,8 +49,10 @@ import com.github.javalbert.sqlbuilder.Where;
 import com.github.javalbert.utils.collections.CollectionFactory;
 import com.github.javalbert.utils.collections.CollectionUtils;
 import com.github.javalbert.utils.collections.MapFactory;
+import com.github.javalbert.utils.jdbc.ConnectionSupplier;
 import com.github.javalbert.utils.jdbc.JdbcUtils;
 import com.github.javalbert.utils.jdbc.ResultSetHelper;
+import com.github.javalbert.utils.jdbc.UncheckedSQLException;
 import com.github.javalbert.utils.reflection.MemberAccess;
 import com.github.javalbert.utils.string.Strings;
 
@@ -59,10 +68,67 @@ public class BatchResolver extends ObjectGraphResolver {
 		}
 	}
 	
+	private static void join(CompletableFuture<?> future) throws SQLException {
+		try {
+			future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			
+			if (cause instanceof UncheckedSQLException) {
+				throw ((UncheckedSQLException)cause).getCause();
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			} else if (cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw e;
+		}
+	}
+	
 	/* END Class members */
 	
+	private final ConnectionSupplier connectionSupplier;
+	private final Executor executor;
+	
+	/**
+	 * 
+	 * @return true if relationships are resolved concurrently
+	 */
+	public boolean isParallel() { return executor != null; }
+	
 	public BatchResolver(JdbcMapper jdbcMapper) {
 		super(jdbcMapper);
+		connectionSupplier = null;
+		executor = null;
+	}
+	
+	/**
+	 * Resolves sibling relationships, and the batches of each relationship, concurrently
+	 * on <b>executor</b>. Each batch is queried on its own connection from
+	 * <b>connectionSupplier</b>, which is closed once the batch is read, so the connection
+	 * passed to this resolver is only used for the root objects.
+	 * <br><br>
+	 * Threads of <b>executor</b> never wait on one another, so a bounded pool such as
+	 * <code>Executors.newFixedThreadPool(int)</code> also bounds the number of open connections.
+	 * The caller owns <b>executor</b> and is responsible for shutting it down.
+	 * @param jdbcMapper
+	 * @param connectionSupplier
+	 * @param executor
+	 */
+	public BatchResolver(JdbcMapper jdbcMapper, ConnectionSupplier connectionSupplier, Executor executor) {
+		super(jdbcMapper);
+		this.connectionSupplier = Objects.requireNonNull(connectionSupplier, "connectionSupplier cannot be null");
+		this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+	}
+	
+	/**
+	 * See {@link #BatchResolver(JdbcMapper, ConnectionSupplier, Executor)}
+	 * @param jdbcMapper
+	 * @param dataSource
+	 * @param executor
+	 */
+	public BatchResolver(JdbcMapper jdbcMapper, DataSource dataSource, Executor executor) {
+		this(jdbcMapper, Objects.requireNonNull(dataSource, "dataSource cannot be null")::getConnection, executor);
 	}
 	
 	@Override
@@ -71,7 +137,10 @@ public class BatchResolver extends ObjectGraphResolver {
 			GraphEntity<T> graphEntity, 
 			Collection<T> collection) throws SQLException {
 		EntityQuery query = new EntityQuery(connection);
-		query.resolveRelationships(graphEntity, collection);
+		measure(graphEntity, collection, () -> {
+			query.resolveRelationships(graphEntity, collection);
+			return null;
+		});
 	}
 	
 	@Override
@@ -100,7 +169,7 @@ public class BatchResolver extends ObjectGraphResolver {
 			Collection<T> collection, 
 			ObjectCache objectCache) throws SQLException {
 		EntityQuery query = new EntityQuery(connection, objectCache);
-		return query.toCollection(graphEntity, statement, collection);
+		return measure(graphEntity, collection, () -> query.toCollection(graphEntity, statement, collection));
 	}
 	
 	/* BEGIN Inner classes */
@@ -114,8 +183,11 @@ public class BatchResolver extends ObjectGraphResolver {
 		private final List<FieldColumnMapping> fieldColumnMappings;
 		@SuppressWarnings("rawtypes")
 		private final GraphEntity graphEntity;
-		private int lastPrimaryKeyIndex;
 		private final ObjectCache objectCache;
+		/**
+		 * null if a primary key column is not selected
+		 */
+		private final int[] primaryKeyColumns;
 		
 		public EntityColumns(GraphEntity<?> graphEntity, ObjectCache objectCache) {
 			this(graphEntity, objectCache, null);
@@ -133,55 +205,35 @@ public class BatchResolver extends ObjectGraphResolver {
 			this.graphEntity = graphEntity;
 			this.objectCache = objectCache;
 			
-			initLastPrimaryKeyIndex(fieldColumnMappings);
+			primaryKeyColumns = classRowMapping.getPrimaryKeyColumns(fieldColumnMappings, 1);
 		}
 		
 		public Object createFromResultSet(ResultSetHelper rs) throws SQLException {
-			Object object = newEntityInstance();
-			
-			for (int i = 0; i < fieldColumnMappings.size(); i++) {
-				fieldColumnMappings.get(i).setFromResultSet(object, rs, i + 1);
+			if (primaryKeyColumns == null) {
+				Object object = classRowMapping.newInstanceFromResultSet(rs, fieldColumnMappings, 1);
 				
-				if (i == lastPrimaryKeyIndex) {
-					Object existing = objectCache.get(classRowMapping, object);
-					
-					if (existing != null) {
-						return existing;
-					}
-				}
+				return objectCache.addIfAbsent(classRowMapping, object);
 			}
 			
-			objectCache.add(classRowMapping, object);
-			return object;
-		}
-		
-		private void initLastPrimaryKeyIndex(List<FieldColumnMapping> fieldColumnMappings) {
-			int lastPrimaryKeyIndex = 0;
+			// Probe the cache before creating the entity so that rows of
+			// entities already read are not read any further
+			Serializable id = classRowMapping.getIdFromResultSet(rs, primaryKeyColumns);
+			Object existing = objectCache.get(classRowMapping, id);
 			
-			for (int i = 0; i < fieldColumnMappings.size(); i++) {
-				FieldColumnMapping fieldColumnMapping = fieldColumnMappings.get(i);
-				
-				if (!fieldColumnMapping.isPrimaryKey()) {
-					continue;
-				}
-				lastPrimaryKeyIndex = i;
-			}
-			this.lastPrimaryKeyIndex = lastPrimaryKeyIndex;
-		}
-		
-		private Object newEntityInstance() {
-			try {
-				return graphEntity.getEntityClass().newInstance();
-			} catch (InstantiationException | IllegalAccessException e) {
-				return null;
+			if (existing != null) {
+				return existing;
 			}
+			
+			Object object = classRowMapping.newInstanceFromResultSet(rs, fieldColumnMappings, 1);
+			
+			return objectCache.addIfAbsent(object, id);
 		}
 	}
 	
 	private class EntityQuery {
 		private final Connection connection;
 		@SuppressWarnings("rawtypes")
-		private final Map<GraphEntity, EntityColumns> entityColumnsMap = new HashMap<>();
+		private final Map<GraphEntity, EntityColumns> entityColumnsMap = new ConcurrentHashMap<>();
 		private final ObjectCache objectCache;
 		
 		public EntityQuery(Connection connection) {
@@ -190,7 +242,9 @@ public class BatchResolver extends ObjectGraphResolver {
 		
 		public EntityQuery(Connection connection, ObjectCache objectCache) {
 			this.connection = connection;
-			this.objectCache = objectCache != null ? objectCache : new ObjectCache();
+			ObjectCache cache = objectCache != null ? objectCache : jdbcMapper.createObjectCache();
+			// Only lock the cache when its relationships are resolved on other threads
+			this.objectCache = isParallel() ? ObjectCache.synchronizedCache(cache) : cache;
 		}
 		
 		public <T> void resolveRelationships(GraphEntity<T> graphEntity, Collection<T> collection) 
@@ -228,21 +282,25 @@ public class BatchResolver extends ObjectGraphResolver {
 		private EntityColumns createRelatedEntityColumns(Relationship relationship) {
 			final GraphEntity<?> relatedEntity = relationship.getRelatedEntity();
 			
-			if (entityColumnsMap.containsKey(relatedEntity)) {
+			EntityColumns entityColumns = new EntityColumns(relatedEntity, objectCache);
+			
+			if (entityColumnsMap.putIfAbsent(relatedEntity, entityColumns) != null) {
 				logger.error(relatedEntity + " already handled and would have resulted in a circular "
 						+ "dependency and a StackOverflowError. Create a new GraphEntity "
 						+ "object with the same class but different alias.");
 				return null;
 			}
-
-			EntityColumns entityColumns = new EntityColumns(relatedEntity, objectCache);
-			entityColumnsMap.put(relatedEntity, entityColumns);
 			return entityColumns;
 		}
 		
 		@SuppressWarnings("unchecked")
 		private <T> void resolveRelationships(Connection connection, GraphEntity<T> graphEntity, Collection<T> collection) 
 				throws SQLException {
+			if (isParallel()) {
+				join(resolveRelationshipsAsync(graphEntity, collection));
+				return;
+			}
+			
 			for (Relationship relationship : graphEntity.getRelationships()) {
 				EntityColumns entityColumns = createRelatedEntityColumns(relationship);
 				
@@ -256,6 +314,30 @@ public class BatchResolver extends ObjectGraphResolver {
 				resolveRelationships(connection, relationship.getRelatedEntity(), relatedObjects);
 			}
 		}
+		
+		/**
+		 * Completes once the relationships of <b>graphEntity</b> and of its related entities
+		 * are resolved. Relationships of a related entity are resolved as soon as all batches
+		 * of the relationship to it are read, without waiting on its sibling relationships.
+		 */
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		private <T> CompletableFuture<Void> resolveRelationshipsAsync(GraphEntity<T> graphEntity, Collection<T> collection) {
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			
+			for (Relationship relationship : graphEntity.getRelationships()) {
+				EntityColumns entityColumns = createRelatedEntityColumns(relationship);
+				
+				if (entityColumns == null) {
+					continue;
+				}
+				
+				RelationshipResolver resolver = new RelationshipResolver(relationship, objectCache);
+				futures.add(resolver.getRelatedObjectsAsync(collection)
+						.thenCompose(relatedObjects -> resolveRelationshipsAsync(
+								relationship.getRelatedEntity(), (Collection)relatedObjects)));
+			}
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		}
 	}
 	
 	private class NToOneConditionStrategy implements JoinConditionStrategy {
@@ -704,8 +786,9 @@ public class BatchResolver extends ObjectGraphResolver {
 
 			this.relationship = relationship;
 			
-			statement = jdbcMapper.createQuery(relatedObjectsSelect.getSelect())
-					.cachePreparedStatement(true);
+			// Initialize the select before any batch can be read concurrently
+			Select select = relatedObjectsSelect.getSelect();
+			statement = isParallel() ? null : jdbcMapper.createQuery(select).cachePreparedStatement(true);
 		}
 		
 		@SuppressWarnings("rawtypes")
@@ -746,6 +829,40 @@ public class BatchResolver extends ObjectGraphResolver {
 			return relatedObjects;
 		}
 		
+		/**
+		 * Reads each batch on a connection of its own. Related objects are in the
+		 * same order as if the batches were read one after another.
+		 * @param owners
+		 * @return
+		 */
+		public CompletableFuture<List<Object>> getRelatedObjectsAsync(Collection<?> owners) {
+			// An owner in two batches would have its collection or map written by two threads
+			Set<Object> distinctOwners = Collections.newSetFromMap(new IdentityHashMap<>());
+			List<Object> ownerList = new ArrayList<>(owners.size());
+			for (Object owner : owners) {
+				if (distinctOwners.add(owner)) {
+					ownerList.add(owner);
+				}
+			}
+			
+			BatchFactory batchFactory = new BatchFactory(relationship, ownerList);
+			List<CompletableFuture<List<Object>>> futures = new ArrayList<>(batchFactory.getBatchCount());
+			
+			for (int i = 0; i < batchFactory.getBatchCount(); i++) {
+				Batch batch = batchFactory.createBatch(i);
+				futures.add(CompletableFuture.supplyAsync(() -> queryBatch(batch), executor));
+			}
+			
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+					.thenApply(v -> {
+						List<Object> relatedObjects = new ArrayList<>();
+						for (CompletableFuture<List<Object>> future : futures) {
+							relatedObjects.addAll(future.join());
+						}
+						return relatedObjects;
+					});
+		}
+		
 		/* BEGIN Private methods */
 		
 		@SuppressWarnings("rawtypes")
@@ -759,7 +876,7 @@ public class BatchResolver extends ObjectGraphResolver {
 			for (int i = 0; i < batchFactory.getBatchCount(); i++) {
 				Batch batch = batchFactory.createBatch(i);
 				batch.setParametersTo(statement);
-				queryBatchOfCollections(connection, batch, objects, factory);
+				queryBatchOfCollections(connection, statement, batch, objects, factory);
 			}
 			return objects;
 		}
@@ -775,46 +892,75 @@ public class BatchResolver extends ObjectGraphResolver {
 			for (int i = 0; i < batchFactory.getBatchCount(); i++) {
 				Batch batch = batchFactory.createBatch(i);
 				batch.setParametersTo(statement);
-				queryBatchOfMaps(connection, batch, mapValues, factory);
+				queryBatchOfMaps(connection, statement, batch, mapValues, factory);
 			}
 			return mapValues;
 		}
 		
 		private Object getRelatedObject(ResultSetHelper rs) throws SQLException {
-			Object relatedObject = newRelatedObject();
-			
 			List<FieldColumnMapping> fieldColumnMappings = relatedObjectsSelect.getFieldColumnMappings();
-			for (int i = 0; i < fieldColumnMappings.size(); i++) {
-				FieldColumnMapping fieldColumnMapping = fieldColumnMappings.get(i);
-				Object value = fieldColumnMapping.getFromResultSet(rs, i + 1);
-				fieldColumnMapping.set(relatedObject, value);
-				
-				if (i != relatedObjectsSelect.getPrimaryKeyColumnIndex()) {
-					continue;
-				}
-				Serializable id = (Serializable)value;
-				
-				Object existingObject = objectCache.get(relatedClassMapping, id);
-				if (existingObject == null) {
-					objectCache.add(relatedObject, id);
-					continue;
-				}
+			int primaryKeyColumnIndex = relatedObjectsSelect.getPrimaryKeyColumnIndex();
+			
+			// Probe the cache before creating the related object, since many owners
+			// may share the same one such as in N-to-one relationships
+			Serializable id = (Serializable)fieldColumnMappings.get(primaryKeyColumnIndex)
+					.getFromResultSet(rs, primaryKeyColumnIndex + 1);
+			
+			Object existingObject = objectCache.get(relatedClassMapping, id);
+			if (existingObject != null) {
 				return existingObject;
 			}
 			
-			return relatedObject;
+			Object relatedObject = relatedClassMapping.newInstanceFromResultSet(rs, fieldColumnMappings, 1);
+			return objectCache.addIfAbsent(relatedObject, id);
 		}
-		
-		private Object newRelatedObject() {
+
+		private List<Object> queryBatch(Batch batch) {
+			JdbcStatement statement = jdbcMapper.createQuery(relatedObjectsSelect.getSelect())
+					.cachePreparedStatement(true);
+			batch.setParametersTo(statement);
+			
+			List<Object> relatedObjects = new ArrayList<>();
+			Connection connection = null;
+			
 			try {
-				return relatedClassMapping.getClazz()
-						.newInstance();
-			} catch (InstantiationException | IllegalAccessException e) {}
-			return null;
+				connection = connectionSupplier.getConnection();
+				
+				switch (relationship.getFieldType()) {
+					case Relationship.FIELD_DEQUE:
+						queryBatchOfCollections(connection, statement, batch, relatedObjects, CollectionUtils.FACTORY_DEQUE);
+						break;
+					case Relationship.FIELD_LINKED_MAP:
+						queryBatchOfMaps(connection, statement, batch, relatedObjects, CollectionUtils.FACTORY_LINKED_MAP);
+						break;
+					case Relationship.FIELD_LINKED_SET:
+						queryBatchOfCollections(connection, statement, batch, relatedObjects, CollectionUtils.FACTORY_LINKED_SET);
+						break;
+					case Relationship.FIELD_LIST:
+						queryBatchOfCollections(connection, statement, batch, relatedObjects, CollectionUtils.FACTORY_LIST);
+						break;
+					case Relationship.FIELD_MAP:
+						queryBatchOfMaps(connection, statement, batch, relatedObjects, CollectionUtils.FACTORY_MAP);
+						break;
+					case Relationship.FIELD_SET:
+						queryBatchOfCollections(connection, statement, batch, relatedObjects, CollectionUtils.FACTORY_SET);
+						break;
+					case Relationship.FIELD_UNIQUE:
+						queryBatchOfUniques(connection, statement, batch, relatedObjects);
+						break;
+				}
+			} catch (SQLException e) {
+				throw new UncheckedSQLException(e);
+			} finally {
+				statement.closePreparedStatement();
+				JdbcUtils.closeQuietly(connection);
+			}
+			return relatedObjects;
 		}
-
+		
 		private void queryBatchOfCollections(
 				Connection connection, 
+				JdbcStatement statement, 
 				Batch batch, 
 				List<Object> objects, 
 				CollectionFactory factory) throws SQLException {
@@ -845,6 +991,7 @@ public class BatchResolver extends ObjectGraphResolver {
 		
 		private void queryBatchOfMaps(
 				Connection connection, 
+				JdbcStatement statement, 
 				Batch batch, 
 				List<Object> mapValues, 
 				MapFactory factory) throws SQLException {
@@ -875,6 +1022,7 @@ public class BatchResolver extends ObjectGraphResolver {
 		
 		private void queryBatchOfUniques(
 				Connection connection, 
+				JdbcStatement statement, 
 				Batch batch, 
 				List<Object> uniqueResults) throws SQLException {
 			ResultSetHelper rs = null;
@@ -912,7 +1060,7 @@ public class BatchResolver extends ObjectGraphResolver {
 			for (int i = 0; i < batchFactory.getBatchCount(); i++) {
 				Batch batch = batchFactory.createBatch(i);
 				batch.setParametersTo(statement);
-				queryBatchOfUniques(connection, batch, uniqueResults);
+				queryBatchOfUniques(connection, statement, batch, uniqueResults);
 			}
 			return uniqueResults;
 		}
@@ -21,7 +21,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -105,19 +104,20 @@ public class CartesianProductResolver extends ObjectGraphResolver {
 			Collection<T> collection, 
 			ObjectCache objectCache) throws SQLException {
 		CartesianProductQuery query = new CartesianProductQuery(statement, graphEntity);
-		
-		PreparedStatement stmt = null;
-		ResultSetHelper rs = null;
-		try {
-			stmt = statement.createPreparedStatement(connection);
-			rs = new ResultSetHelper(stmt.executeQuery());
-			return query.toCollection(collection, rs, objectCache);
-		} catch (SQLException e) {
-			throw e;
-		} finally {
-			JdbcUtils.closeQuietly(rs);
-			JdbcUtils.closeQuietly(stmt);
-		}
+		return measure(graphEntity, collection, () -> {
+			PreparedStatement stmt = null;
+			ResultSetHelper rs = null;
+			try {
+				stmt = statement.createPreparedStatement(connection);
+				rs = new ResultSetHelper(stmt.executeQuery());
+				return query.toCollection(collection, rs, objectCache);
+			} catch (SQLException e) {
+				throw e;
+			} finally {
+				JdbcUtils.closeQuietly(rs);
+				JdbcUtils.closeQuietly(stmt);
+			}
+		});
 	}
 	
 	/* BEGIN Inner classes */
@@ -395,7 +395,7 @@ public class CartesianProductResolver extends ObjectGraphResolver {
 		private final CartesianProductQuery query;
 		
 		public CartesianProductResult(CartesianProductQuery query, ObjectCache objectCache) {
-			this.objectCache = objectCache != null ? objectCache : new ObjectCache();
+			this.objectCache = objectCache != null ? objectCache : jdbcMapper.createObjectCache();
 			this.query = query;
 		}
 
@@ -428,50 +428,39 @@ public class CartesianProductResolver extends ObjectGraphResolver {
 			collection.add(object);
 		}
 		
-		private Object createInstance(ClassColumns classColumns) {
-			try {
-				return classColumns.getClassRowMapping()
-						.getClazz()
-						.newInstance();
-			} catch (InstantiationException | IllegalAccessException e) {
-				return null;
-			}
+		private Object createInstance(ClassColumns classColumns, ResultSetHelper rs) throws SQLException {
+			return classColumns.getClassRowMapping().newInstanceFromResultSet(
+					rs,
+					classColumns.getFieldColumnMappings(),
+					classColumns.getStartIndex());
 		}
 		
 		private CreateObjectResult createObject(ClassColumns classColumns, ResultSetHelper rs) throws SQLException {
 			ClassRowMapping classRowMapping = classColumns.getClassRowMapping();
-			List<FieldColumnMapping> fieldColumnMappings = classColumns.getFieldColumnMappings();
-			Iterator<FieldColumnMapping> fieldColumnMappingIterator = fieldColumnMappings.iterator();
-			Object instance = createInstance(classColumns);
-			int nullColumns = 0;
-			int retrievedColumns = 0;
-			
-			for (int column = classColumns.getStartIndex(); column < classColumns.getEndIndex(); column++) {
-				FieldColumnMapping fieldColumnMapping = fieldColumnMappingIterator.next();
-				final Object value = fieldColumnMapping.getFromResultSet(rs, column);
-				
-				if (value == null) {
-					nullColumns++;
-				}
-				retrievedColumns++;
-				
-				fieldColumnMapping.set(instance, value);
+			int[] primaryKeyColumns = classColumns.getPrimaryKeyColumns();
+			
+			if (primaryKeyColumns == null) {
+				Object instance = createInstance(classColumns, rs);
 				
-				// Having the primary key as the first fields in the entity class is recommended
-				// as a quick way to extract the primary key from the object
-				if (column == classColumns.getLastPrimaryKeyColumn()) {
-					if (retrievedColumns == nullColumns) {
-						return CreateObjectResult.NO_CREATE;
-					}
-					
-					Object existing = objectCache.get(classRowMapping, instance);
-					if (existing != null) {
-						return new CreateObjectResult(existing, false);
-					}
-				}
+				Object existing = objectCache.addIfAbsent(classRowMapping, instance);
+				return new CreateObjectResult(existing, existing == instance);
 			}
-
-			objectCache.add(classRowMapping, instance);
+			
+			// The columns of an object repeat in every row of the cartesian product
+			// it's part of, so probe the cache before creating the object
+			Serializable id = classRowMapping.getIdFromResultSet(rs, primaryKeyColumns);
+			if (id == null) {
+				return CreateObjectResult.NO_CREATE;
+			}
+			
+			Object existing = objectCache.get(classRowMapping, id);
+			if (existing != null) {
+				return new CreateObjectResult(existing, false);
+			}
+			
+			Object instance = createInstance(classColumns, rs);
+			
+			objectCache.add(instance, id);
 			return new CreateObjectResult(instance, true);
 		}
 		
@@ -490,14 +479,17 @@ public class CartesianProductResolver extends ObjectGraphResolver {
 		 */
 		private final int endIndex;
 		private final List<FieldColumnMapping> fieldColumnMappings;
-		private int lastPrimaryKeyColumn;
+		/**
+		 * null if a primary key column is not selected
+		 */
+		private final int[] primaryKeyColumns;
 		private final Relationship relationship;
 		private final int startIndex;
 		
 		public ClassRowMapping getClassRowMapping() { return classRowMapping; }
 		public int getEndIndex() { return endIndex; }
 		public List<FieldColumnMapping> getFieldColumnMappings() { return fieldColumnMappings; }
-		public int getLastPrimaryKeyColumn() { return lastPrimaryKeyColumn; }
+		public int[] getPrimaryKeyColumns() { return primaryKeyColumns; }
 		public Relationship getRelationship() { return relationship; }
 		public int getStartIndex() { return startIndex; }
 
@@ -513,24 +505,7 @@ public class CartesianProductResolver extends ObjectGraphResolver {
 			this.relationship = relationship;
 			this.startIndex = startIndex;
 			
-			findPrimaryKeyMappings();
-		}
-		
-		private void findPrimaryKeyMappings() {
-			List<FieldColumnMapping> fieldColumnMappings = classRowMapping.getFieldColumnMappingList();
-			
-			for (int i = 0; i < fieldColumnMappings.size(); i++) {
-				FieldColumnMapping fieldColumnMapping = fieldColumnMappings.get(i);
-				
-				if (!fieldColumnMapping.isPrimaryKey()) {
-					continue;
-				}
-				int column = startIndex + i;
-				
-				if (column > lastPrimaryKeyColumn) {
-					lastPrimaryKeyColumn = column;
-				}
-			}
+			primaryKeyColumns = classRowMapping.getPrimaryKeyColumns(fieldColumnMappings, startIndex);
 		}
 	}
 	
@@ -617,7 +592,7 @@ public class CartesianProductResolver extends ObjectGraphResolver {
 		
 		@SuppressWarnings({ "rawtypes", "unchecked" })
 		private Collection getIdList(ClassRowMapping classRowMapping, Collection<?> collection) {
-			objectCache = new ObjectCache();
+			objectCache = jdbcMapper.createObjectCache();
 			
 			List ids = new ArrayList<>();
 			for (Object object : collection) {
@@ -21,9 +21,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.github.javalbert.sqlbuilder.ColumnList;
 import com.github.javalbert.sqlbuilder.ColumnValues;
+import com.github.javalbert.sqlbuilder.Condition;
 import com.github.javalbert.sqlbuilder.Delete;
 import com.github.javalbert.sqlbuilder.Expression;
 import com.github.javalbert.sqlbuilder.From;
@@ -42,6 +45,42 @@ import com.github.javalbert.utils.reflection.MemberAccess;
 import com.github.javalbert.utils.string.Strings;
 
 public class ClassRowMapping {
+	/**
+	 * Maximum number of multi-row INSERT statements cached per class
+	 */
+	public static final int MAX_MULTI_ROW_INSERTS = 16;
+	/**
+	 * Name of the collection parameter of the IN list of {@link ClassRowMapping#getSelectByIds(int)}
+	 * for a scalar primary key
+	 */
+	public static final String PARAM_IDS = "ids";
+	/**
+	 * Number of IDs selected by {@link ClassRowMapping#getSelectByIds(int)}, to which the number of IDs
+	 * is padded so that only a few different statements are prepared
+	 */
+	private static final int[] SELECT_BY_IDS_COUNTS = { 1, 8, 32, 128, 512 };
+	
+	/**
+	 * 
+	 * @param idCount
+	 * @return smallest number of IDs selected by {@link ClassRowMapping#getSelectByIds(int)}
+	 * that is not less than <b>idCount</b>
+	 * @throws IllegalArgumentException if <b>idCount</b> is greater than the largest number
+	 */
+	public static int getPaddedIdCount(int idCount) {
+		for (int paddedIdCount : SELECT_BY_IDS_COUNTS) {
+			if (idCount <= paddedIdCount) {
+				return paddedIdCount;
+			}
+		}
+		throw new IllegalArgumentException("idCount (" + idCount + ") is greater than "
+				+ SELECT_BY_IDS_COUNTS[SELECT_BY_IDS_COUNTS.length - 1]);
+	}
+	
+	private static String idParamName(String column, int row) {
+		return column + Insert.ROW_PARAM_SEPARATOR + row;
+	}
+	
 	private static void appendColumnEqualsParam(
 			Where where,
 			FieldColumnMapping fieldColumnMapping,
@@ -67,14 +106,28 @@ public class ClassRowMapping {
 	private From from;
 	@SuppressWarnings("rawtypes")
 	private Class idClass;
+	private Instantiator idClassInstantiator;
 	private List<FieldColumnMapping> idClassMappings;
 	private Insert insert;
+	private Instantiator instantiator;
 	private final Map<String, FieldColumnMapping> mapKeyMappings = new HashMap<>();
+	/**
+	 * Multi-row INSERT statements by row count, see {@link ClassRowMapping#getMultiRowInsert(int)}
+	 */
+	private final ConcurrentMap<Integer, Insert> multiRowInserts = new ConcurrentHashMap<>();
 	private final List<FieldColumnMapping> primaryKeyMappings = new ArrayList<>();
 	private final Map<String, MemberAccess> relatedMemberAccessMap;
 	private String schema;
 	private Select select;
 	private Select selectById;
+	/**
+	 * SELECT statement by a list of scalar IDs
+	 */
+	private Select selectByIds;
+	/**
+	 * SELECT statements by a number of composite IDs
+	 */
+	private final ConcurrentMap<Integer, Select> selectByIdsMap = new ConcurrentHashMap<>();
 	private SelectList selectList;
 	private String table;
 	private String tableIdentifier;
@@ -92,6 +145,7 @@ public class ClassRowMapping {
 	public Map<String, FieldColumnMapping> getFieldColumnMappings() { return fieldColumnMappings; }
 	public From getFrom() { return from; }
 	public Insert getInsert() { return insert; }
+	public Instantiator getInstantiator() { return instantiator; }
 	public List<FieldColumnMapping> getPrimaryKeyMappings() { return Collections.unmodifiableList(primaryKeyMappings); }
 	public String getSchema() { return schema; }
 	public Select getSelect() { return select; }
@@ -108,7 +162,7 @@ public class ClassRowMapping {
 		this(clazz, ANSI.INSTANCE);
 	}
 	public ClassRowMapping(@SuppressWarnings("rawtypes") Class clazz, Vendor vendor) {
-		this(clazz, vendor, new AnnotatedClassMapper(clazz, vendor));
+		this(clazz, vendor, new AnnotatedClassMapper(clazz, vendor), null);
 	}
 	
 	// Custom registration
@@ -116,14 +170,16 @@ public class ClassRowMapping {
 		this(registration, ANSI.INSTANCE);
 	}
 	public ClassRowMapping(ClassRowRegistration registration, Vendor vendor) {
-		this(registration.getRegisteringClass(), vendor, new RegisterClassMapper(registration));
+		this(registration.getRegisteringClass(), vendor, new RegisterClassMapper(registration),
+				registration.getInstantiator());
 	}
 	
 	// The real constructor
 	private ClassRowMapping(
 			@SuppressWarnings("rawtypes") Class clazz,
 			Vendor vendor,
-			ClassRowMapper classRowMapper) {
+			ClassRowMapper classRowMapper,
+			Instantiator instantiator) {
 		this.clazz = clazz;
 		this.vendor = vendor;
 
@@ -141,6 +197,9 @@ public class ClassRowMapping {
 		this.table = classRowMapper.getTable();
 		this.tableIdentifier = classRowMapper.getTableIdentifier();
 		
+		this.instantiator = instantiator != null ? instantiator : ConstructorInstantiator.create(clazz);
+		idClassInstantiator = idClass != null ? ConstructorInstantiator.create(idClass) : null;
+		
 		initPrimaryKeyData();
 		initMapKeys();
 		
@@ -150,6 +209,35 @@ public class ClassRowMapping {
 		initUpdateById();
 	}
 
+	/**
+	 * Reads the ID of a row without creating the entity, so that a row of an entity
+	 * that is already in an {@link ObjectCache} is not read any further
+	 * @param rs
+	 * @param primaryKeyColumns column of each primary key in the order of {@link #getPrimaryKeyMappings()}
+	 * @return null if every primary key column is NULL
+	 * @throws SQLException
+	 * @see #getPrimaryKeyColumns(List, int)
+	 */
+	public Serializable getIdFromResultSet(ResultSetHelper rs, int[] primaryKeyColumns) throws SQLException {
+		if (isScalarPrimaryKey()) {
+			return (Serializable)primaryKeyMappings.get(0).getFromResultSet(rs, primaryKeyColumns[0]);
+		} else if (!isCompositePrimaryKey()) {
+			throw createInvalidPrimaryKeyStateException();
+		}
+		
+		Object[] keys = new Object[primaryKeyMappings.size()];
+		boolean nullId = true;
+		
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = primaryKeyMappings.get(i).getFromResultSet(rs, primaryKeyColumns[i]);
+			
+			if (keys[i] != null) {
+				nullId = false;
+			}
+		}
+		return nullId ? null : newId(keys);
+	}
+	
 	public Object getMapKeyValue(Object object) {
 		return getMapKeyValue(object, null);
 	}
@@ -180,6 +268,71 @@ public class ClassRowMapping {
 		}
 	}
 	
+	/**
+	 * 
+	 * @param fieldColumnMappings mappings in the order of the columns of a row
+	 * @param firstColumn result set column of the first of <b>fieldColumnMappings</b>
+	 * @return the result set column of each primary key in the order of {@link #getPrimaryKeyMappings()},
+	 * or null if the entity has no primary key or <b>fieldColumnMappings</b> is missing one
+	 */
+	public int[] getPrimaryKeyColumns(List<FieldColumnMapping> fieldColumnMappings, int firstColumn) {
+		if (!isScalarPrimaryKey() && !isCompositePrimaryKey()) {
+			return null;
+		}
+		
+		int[] primaryKeyColumns = new int[primaryKeyMappings.size()];
+		for (int i = 0; i < primaryKeyColumns.length; i++) {
+			int index = fieldColumnMappings.indexOf(primaryKeyMappings.get(i));
+			
+			if (index == -1) {
+				return null;
+			}
+			primaryKeyColumns[i] = firstColumn + index;
+		}
+		return primaryKeyColumns;
+	}
+	
+	/**
+	 * 
+	 * @param rowCount
+	 * @return immutable INSERT statement for <b>rowCount</b> rows if it's cached or there is room to cache it,
+	 * otherwise a mutable one so that it's not cached by {@link SqlCache} either
+	 * @see Insert#multiRow(int)
+	 */
+	public Insert getMultiRowInsert(int rowCount) {
+		Insert multiRowInsert = multiRowInserts.get(rowCount);
+		if (multiRowInsert != null) {
+			return multiRowInsert;
+		}
+		
+		multiRowInsert = insert.multiRow(rowCount);
+		if (multiRowInserts.size() < MAX_MULTI_ROW_INSERTS) {
+			multiRowInsert = multiRowInsert.immutable();
+			Insert existing = multiRowInserts.putIfAbsent(rowCount, multiRowInsert);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		return multiRowInsert;
+	}
+	
+	/**
+	 * 
+	 * @return maximum number of IDs per {@link ClassRowMapping#getSelectByIds(int)}
+	 * within the vendor's parameter limit
+	 */
+	public int getMaxSelectByIdsCount() {
+		int idColumnCount = isCompositePrimaryKey() ? idClassMappings.size() : 1;
+		
+		int maxIdCount = SELECT_BY_IDS_COUNTS[0];
+		for (int idCount : SELECT_BY_IDS_COUNTS) {
+			if (idCount * idColumnCount <= vendor.getMaxParameters()) {
+				maxIdCount = idCount;
+			}
+		}
+		return maxIdCount;
+	}
+	
 	public MemberAccess getOwnerMemberAccess(Relationship relationship) {
 		return relatedMemberAccessMap.get(relationship.getInverseOwnerField());
 	}
@@ -188,6 +341,41 @@ public class ClassRowMapping {
 		return relatedMemberAccessMap.get(relationship.getFieldName());
 	}
 	
+	/**
+	 * For a scalar primary key, the statement selects by an IN list parameter named {@link ClassRowMapping#PARAM_IDS}.
+	 * For a composite primary key, it selects by <b>idCount</b> groups of ID column predicates
+	 * combined with OR e.g. <code>(a = :a__0 AND b = :b__0) OR (a = :a__1 AND b = :b__1)</code>
+	 * @param idCount number of IDs from {@link ClassRowMapping#getPaddedIdCount(int)}
+	 * @return
+	 * @see ClassRowMapping#setIdsParameters(JdbcStatement, List, int)
+	 */
+	public Select getSelectByIds(int idCount) {
+		if (isScalarPrimaryKey()) {
+			return selectByIds;
+		} else if (!isCompositePrimaryKey()) {
+			throw createInvalidPrimaryKeyStateException();
+		}
+		
+		Select selectByCompositeIds = selectByIdsMap.get(idCount);
+		if (selectByCompositeIds == null) {
+			selectByCompositeIds = createSelectByCompositeIds(idCount);
+			Select existing = selectByIdsMap.putIfAbsent(idCount, selectByCompositeIds);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		return selectByCompositeIds;
+	}
+	
+	/**
+	 * 
+	 * @param object
+	 * @return the version of <b>object</b>, or null if the entity has no version control
+	 */
+	public Object getVersion(Object object) {
+		return hasVersionControl() ? versionColumnMapping.get(object) : null;
+	}
+	
 	public boolean hasVersionControl() {
 		return versionColumnMapping != null;
 	}
@@ -211,6 +399,50 @@ public class ClassRowMapping {
 		return primaryKeyMappings.size() == 1;
 	}
 	
+	/**
+	 * Creates an instance from the columns of a row, passing the values of the
+	 * {@link Instantiator#getParameterColumns()} to the {@link Instantiator}
+	 * @param rs
+	 * @param columnMappings mapping of each column of the instance, in the order of the columns
+	 * @param firstColumn index of the column of the first of <b>columnMappings</b>
+	 * @return
+	 * @throws SQLException
+	 */
+	public Object newInstanceFromResultSet(
+			ResultSetHelper rs,
+			List<FieldColumnMapping> columnMappings,
+			int firstColumn) throws SQLException {
+		List<String> parameterColumns = instantiator.getParameterColumns();
+		
+		if (parameterColumns.isEmpty()) {
+			Object instance = instantiator.newInstance();
+			for (int i = 0; i < columnMappings.size(); i++) {
+				columnMappings.get(i).setFromResultSet(instance, rs, firstColumn + i);
+			}
+			return instance;
+		}
+		
+		Object[] args = new Object[parameterColumns.size()];
+		boolean[] arguments = new boolean[columnMappings.size()];
+		for (int i = 0; i < arguments.length; i++) {
+			FieldColumnMapping columnMapping = columnMappings.get(i);
+			int parameterIndex = parameterColumns.indexOf(columnMapping.getColumn());
+			
+			if (parameterIndex != -1) {
+				args[parameterIndex] = columnMapping.getFromResultSet(rs, firstColumn + i);
+				arguments[i] = true;
+			}
+		}
+		
+		Object instance = instantiator.newInstance(args);
+		for (int i = 0; i < arguments.length; i++) {
+			if (!arguments[i]) {
+				columnMappings.get(i).setFromResultSet(instance, rs, firstColumn + i);
+			}
+		}
+		return instance;
+	}
+	
 	/**
 	 * ResultSet cursor will be moved to next
 	 * @param object
@@ -244,6 +476,45 @@ public class ClassRowMapping {
 		}
 	}
 
+	/**
+	 * Sets the parameters of {@link ClassRowMapping#getSelectByIds(int)}, padding <b>ids</b>
+	 * to <b>idCount</b> IDs by repeating the last ID
+	 * @param statement
+	 * @param ids scalar IDs, or instances of the ID class for a composite primary key
+	 * @param idCount
+	 */
+	public void setIdsParameters(JdbcStatement statement, List<? extends Serializable> ids, int idCount) {
+		if (ids.isEmpty() || ids.size() > idCount) {
+			throw new IllegalArgumentException("number of ids (" + ids.size() + ") must be between 1 and " + idCount);
+		}
+		
+		List<Serializable> paddedIds = new ArrayList<>(idCount);
+		paddedIds.addAll(ids);
+		Serializable lastId = ids.get(ids.size() - 1);
+		while (paddedIds.size() < idCount) {
+			paddedIds.add(lastId);
+		}
+		
+		if (isScalarPrimaryKey()) {
+			statement.setParameterList(PARAM_IDS, primaryKeyMappings.get(0), paddedIds);
+			return;
+		}
+		
+		for (int i = 0; i < idCount; i++) {
+			Serializable id = paddedIds.get(i);
+			if (id.getClass() != idClass) {
+				throw createInvalidPrimaryKeyStateException();
+			}
+			
+			for (FieldColumnMapping idClassMapping : idClassMappings) {
+				statement.setParameter(
+						idParamName(idClassMapping.getColumn(), i),
+						idClassMapping,
+						idClassMapping.get(id));
+			}
+		}
+	}
+
 	public void setVersion(Object object) {
 		if (hasVersionControl()) {
 			versionColumnMapping.set(object, 0);
@@ -260,19 +531,35 @@ public class ClassRowMapping {
 	/* BEGIN Private methods */
  
 	private Serializable createId(Object object) {
-		Serializable id = null;
-		try {
-			id = (Serializable)idClass.newInstance();
-		} catch (InstantiationException | IllegalAccessException e) {}
+		Object[] keys = new Object[primaryKeyMappings.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = primaryKeyMappings.get(i).get(object);
+		}
+		return newId(keys);
+	}
+	
+	private Select createSelectByCompositeIds(int idCount) {
+		Where where = new Where();
 		
-		for (int i = 0; i < primaryKeyMappings.size(); i++) {
-			FieldColumnMapping primaryKeyMapping = primaryKeyMappings.get(i);
-			Object key = primaryKeyMapping.get(object);
+		for (int i = 0; i < idCount; i++) {
+			Condition idCondition = new Condition();
+			
+			for (int j = 0; j < idClassMappings.size(); j++) {
+				String column = idClassMappings.get(j).getColumn();
+				if (j > 0) {
+					idCondition.and();
+				}
+				idCondition.predicate(new Predicate().column(column).eq().param(idParamName(column, i)));
+			}
 			
-			FieldColumnMapping idClassMapping = idClassMappings.get(i);
-			idClassMapping.set(id, key);
+			if (i > 0) {
+				where.or();
+			}
+			where.group(idCondition);
 		}
-		return id;
+		
+		return select.mutable().where(where)
+				.immutable();
 	}
 	
 	private RuntimeException createInvalidPrimaryKeyStateException() {
@@ -413,6 +700,12 @@ public class ClassRowMapping {
 				.immutable();
 		selectById = select.mutable().where(createWhereById())
 				.immutable();
+		
+		if (isScalarPrimaryKey()) {
+			selectByIds = select.mutable().where(new Where().predicate(new Predicate()
+					.column(primaryKeyMappings.get(0).getColumn()).in().param(PARAM_IDS)))
+					.immutable();
+		}
 	}
 	
 	private void initUpdateById() {
@@ -435,6 +728,35 @@ public class ClassRowMapping {
 		versionColumnMapping = fieldColumnMapping;
 	}
 	
+	/**
+	 * 
+	 * @param keys values of the primary keys in the order of {@link #getPrimaryKeyMappings()}
+	 * @return an instance of the ID class, created with the keys of its
+	 * {@link Instantiator#getParameterColumns()} as arguments
+	 */
+	private Serializable newId(Object[] keys) {
+		List<String> parameterColumns = idClassInstantiator.getParameterColumns();
+		
+		Object[] args = new Object[parameterColumns.size()];
+		boolean[] arguments = new boolean[keys.length];
+		for (int i = 0; i < keys.length && args.length > 0; i++) {
+			int parameterIndex = parameterColumns.indexOf(idClassMappings.get(i).getColumn());
+			
+			if (parameterIndex != -1) {
+				args[parameterIndex] = keys[i];
+				arguments[i] = true;
+			}
+		}
+		
+		Serializable id = (Serializable)idClassInstantiator.newInstance(args);
+		for (int i = 0; i < keys.length; i++) {
+			if (!arguments[i]) {
+				idClassMappings.get(i).set(id, keys[i]);
+			}
+		}
+		return id;
+	}
+	
 	private void setInsertColumnsAndValues(Insert insert) {
 		ColumnList columns = new ColumnList();
 		ColumnValues values = new ColumnValues();
@@ -120,6 +120,7 @@ public class ClassRowRegistration {
 	private final Map<String, ColumnClassMember> columnMemberMap = new HashMap<>();
 	private Class<?> idClass;
 	private final Map<String, IdClassColumn> idClassColumnMap = new HashMap<>();
+	private Instantiator instantiator;
 	private final Class<?> registeringClass;
 	private final Map<String, RelatedEntityClassMember> relatedEntityMemberMap = new HashMap<>();
 	
@@ -152,6 +153,10 @@ public class ClassRowRegistration {
 		return Collections.unmodifiableMap(idClassColumnMap);
 	}
 	
+	public Instantiator getInstantiator() {
+		return instantiator;
+	}
+	
 	@SuppressWarnings("rawtypes")
 	public Class getRegisteringClass() {
 		return registeringClass;
@@ -227,6 +232,17 @@ public class ClassRowRegistration {
 		return this;
 	}
 	
+	/**
+	 * 
+	 * @param instantiator creates instances of the registering class instead of
+	 * {@link ConstructorInstantiator}
+	 * @return
+	 */
+	public ClassRowRegistration instantiator(Instantiator instantiator) {
+		this.instantiator = instantiator;
+		return this;
+	}
+	
 	/**
 	 * 
 	 * @param field name of the field that stores the related entity
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.sql.SQLException;
+
+import com.github.javalbert.utils.jdbc.ResultSetHelper;
+
+/**
+ * Reads a column of the current row and sets it to a field or property of an entity
+ * @see FieldColumnMapping#createColumnReader()
+ */
+@FunctionalInterface
+public interface ColumnReader {
+	void read(Object instance, ResultSetHelper rs, int column) throws SQLException;
+}
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.github.javalbert.utils.string.Strings;
+
+/**
+ * Creates instances by calling a constructor through a {@link MethodHandle} that is looked up once.<br>
+ * <br>
+ * If every parameter of a constructor is annotated with {@link Column}, that constructor is used
+ * and the values of those columns are passed as arguments, which allows mapping immutable
+ * value classes. Otherwise the no-arg constructor is used, and is bound to a {@link Supplier}
+ * by {@link LambdaMetafactory} if the class and constructor are public.
+ */
+public class ConstructorInstantiator implements Instantiator {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	
+	public static ConstructorInstantiator create(Class<?> clazz) {
+		Constructor<?> columnsConstructor = null;
+		Constructor<?> defaultConstructor = null;
+		
+		for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+			if (constructor.getParameterCount() == 0) {
+				defaultConstructor = constructor;
+			} else if (isColumnsConstructor(constructor)) {
+				if (columnsConstructor != null) {
+					throw new IllegalStateException("class (" + clazz + ") has two constructors with only @Column parameters");
+				}
+				columnsConstructor = constructor;
+			}
+		}
+		
+		if (columnsConstructor != null) {
+			return new ConstructorInstantiator(clazz, columnsConstructor);
+		} else if (defaultConstructor != null) {
+			return new ConstructorInstantiator(clazz, defaultConstructor);
+		}
+		return new ConstructorInstantiator(clazz, null);
+	}
+	
+	private static Object[] createDefaultArguments(Class<?>[] parameterTypes) {
+		Object[] defaultArgs = new Object[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			Class<?> parameterType = parameterTypes[i];
+			
+			if (parameterType == boolean.class) {
+				defaultArgs[i] = false;
+			} else if (parameterType == byte.class) {
+				defaultArgs[i] = (byte)0;
+			} else if (parameterType == char.class) {
+				defaultArgs[i] = (char)0;
+			} else if (parameterType == double.class) {
+				defaultArgs[i] = 0.0;
+			} else if (parameterType == float.class) {
+				defaultArgs[i] = 0.0f;
+			} else if (parameterType == int.class) {
+				defaultArgs[i] = 0;
+			} else if (parameterType == long.class) {
+				defaultArgs[i] = 0L;
+			} else if (parameterType == short.class) {
+				defaultArgs[i] = (short)0;
+			}
+		}
+		return defaultArgs;
+	}
+	
+	private static boolean isColumnsConstructor(Constructor<?> constructor) {
+		for (Annotation[] annotations : constructor.getParameterAnnotations()) {
+			if (getColumn(annotations) == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static String getColumn(Annotation[] annotations) {
+		for (Annotation annotation : annotations) {
+			if (annotation.annotationType() == Column.class) {
+				return ((Column)annotation).value();
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * 
+	 * @param clazz
+	 * @param constructor
+	 * @return true if a class spun by {@link LambdaMetafactory} in this class's package
+	 * can call <b>constructor</b> directly
+	 */
+	private static boolean isLinkable(Class<?> clazz, Constructor<?> constructor) {
+		if (!Modifier.isPublic(constructor.getModifiers())) {
+			return false;
+		}
+		
+		for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+			if (!Modifier.isPublic(c.getModifiers())) {
+				return false;
+			}
+		}
+		
+		try {
+			return Class.forName(clazz.getName(), false, ConstructorInstantiator.class.getClassLoader()) == clazz;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+	
+	private final Class<?> clazz;
+	/**
+	 * Values for primitive parameters whose argument is null
+	 */
+	private final Object[] defaultArgs;
+	private final MethodHandle handle;
+	private final List<String> parameterColumns;
+	private final Supplier<Object> supplier;
+	
+	public Class<?> getClazz() { return clazz; }
+	@Override
+	public List<String> getParameterColumns() { return parameterColumns; }
+	
+	private ConstructorInstantiator(Class<?> clazz, Constructor<?> constructor) {
+		this.clazz = clazz;
+		
+		if (constructor == null) {
+			defaultArgs = new Object[0];
+			handle = null;
+			parameterColumns = Collections.emptyList();
+			supplier = null;
+			return;
+		}
+		
+		List<String> parameterColumns = new ArrayList<>();
+		for (Annotation[] annotations : constructor.getParameterAnnotations()) {
+			String column = getColumn(annotations);
+			if (Strings.isNullOrEmpty(column)) {
+				throw new IllegalStateException("@Column of constructor parameter in class (" + clazz + ") has no column name");
+			}
+			parameterColumns.add(column);
+		}
+		this.parameterColumns = Collections.unmodifiableList(parameterColumns);
+		
+		defaultArgs = createDefaultArguments(constructor.getParameterTypes());
+		handle = unreflect(constructor);
+		supplier = parameterColumns.isEmpty() && isLinkable(clazz, constructor) 
+				? createSupplier(constructor) : null;
+	}
+	
+	@Override
+	public Object newInstance() {
+		if (supplier != null) {
+			return supplier.get();
+		} else if (handle == null) {
+			throw new IllegalStateException(clazz + " does not have default constructor");
+		} else if (!parameterColumns.isEmpty()) {
+			throw new IllegalStateException(clazz + " can only be created with arguments of the columns " + parameterColumns);
+		}
+		
+		try {
+			return (Object)handle.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("could not create instance of " + clazz, e);
+		}
+	}
+	
+	@Override
+	public Object newInstance(Object[] args) {
+		if (args.length != defaultArgs.length) {
+			throw new IllegalArgumentException("expected " + defaultArgs.length + " arguments but got " + args.length);
+		} else if (args.length == 0) {
+			return newInstance();
+		}
+		
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null) {
+				args[i] = defaultArgs[i];
+			}
+		}
+		
+		try {
+			return (Object)handle.invokeExact(args);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("could not create instance of " + clazz, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConstructorInstantiator [clazz=" + clazz + ", parameterColumns=" + parameterColumns + "]";
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Supplier<Object> createSupplier(Constructor<?> constructor) {
+		try {
+			CallSite site = LambdaMetafactory.metafactory(
+					LOOKUP,
+					"get",
+					MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class),
+					LOOKUP.unreflectConstructor(constructor),
+					MethodType.methodType(clazz));
+			return (Supplier<Object>)site.getTarget().invokeExact();
+		} catch (Throwable e) {
+			// Fall back to invoking the method handle
+			return null;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param constructor
+	 * @return a handle of type <code>()Object</code> for a no-arg constructor,
+	 * otherwise <code>(Object[])Object</code> which spreads the array into the arguments
+	 */
+	private MethodHandle unreflect(Constructor<?> constructor) {
+		try {
+			constructor.setAccessible(true);
+			MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+			int parameterCount = constructor.getParameterCount();
+			
+			handle = handle.asType(MethodType.genericMethodType(parameterCount));
+			return parameterCount > 0 ? handle.asSpreader(Object[].class, parameterCount) : handle;
+		} catch (IllegalAccessException | SecurityException e) {
+			throw new IllegalStateException("constructor of class (" + clazz + ") is not accessible", e);
+		}
+	}
+}
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe, bounded second-level cache of the entities of one class, enabled with
+ * {@link JdbcMapper#enableEntityCache(Class, int, long, TimeUnit)}.<br>
+ * <br>
+ * Entities are cached as snapshots of their column values, so every hit returns a new instance.
+ * Entries expire a fixed time after they were written. Once the cache holds <code>maxSize</code>
+ * entries, a new entry replaces the least recently used one unless that entry was used more often,
+ * as estimated by a frequency sketch (TinyLFU admission).<br>
+ * <br>
+ * For entities with version control, writes through the {@link JdbcMapper} leave the new version behind,
+ * and reads of an older version e.g. by a transaction that started before the write are not cached.
+ */
+public class EntityCache {
+	private final LinkedHashMap<Serializable, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final AtomicLong evictionCount = new AtomicLong();
+	private final long expireAfterWriteNanos;
+	private final FrequencySketch frequencySketch;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong invalidationCount = new AtomicLong();
+	private final int maxSize;
+	private final AtomicLong missCount = new AtomicLong();
+	private final LongSupplier ticker;
+	
+	/**
+	 * 
+	 * @return number of entries removed because the cache was full or they expired
+	 */
+	public long getEvictionCount() { return evictionCount.get(); }
+	public long getExpireAfterWrite(TimeUnit unit) { return unit.convert(expireAfterWriteNanos, TimeUnit.NANOSECONDS); }
+	public long getHitCount() { return hitCount.get(); }
+	/**
+	 * 
+	 * @return number of entries removed because their entity was written or by {@link EntityCache#invalidate(Serializable)}
+	 */
+	public long getInvalidationCount() { return invalidationCount.get(); }
+	public int getMaxSize() { return maxSize; }
+	public long getMissCount() { return missCount.get(); }
+	
+	public EntityCache(int maxSize, long expireAfterWrite, TimeUnit unit) {
+		this(maxSize, unit.toNanos(expireAfterWrite), System::nanoTime);
+	}
+	
+	EntityCache(int maxSize, long expireAfterWriteNanos, LongSupplier ticker) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		if (expireAfterWriteNanos < 1) {
+			throw new IllegalArgumentException("expireAfterWrite must be greater than 0");
+		}
+		this.expireAfterWriteNanos = expireAfterWriteNanos;
+		this.frequencySketch = new FrequencySketch(maxSize);
+		this.maxSize = maxSize;
+		this.ticker = ticker;
+	}
+	
+	public synchronized void clear() {
+		entries.clear();
+	}
+	
+	public synchronized void invalidate(Serializable id) {
+		invalidate(id, null);
+	}
+	
+	/**
+	 * 
+	 * @return number of entries including the versions left behind by writes
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * 
+	 * @param classRowMapping
+	 * @param id
+	 * @return a new instance of the cached entity, or null if it's not cached
+	 */
+	Object get(ClassRowMapping classRowMapping, Serializable id) {
+		Object[] values = id != null ? getValues(id) : null;
+		return values != null ? newInstance(classRowMapping, values) : null;
+	}
+	
+	/**
+	 * Removes the entry of an entity that was written
+	 * @param id
+	 * @param version the version of the entity after the write, below which reads are not cached,
+	 * or null if it's unknown
+	 */
+	synchronized void invalidate(Serializable id, Object version) {
+		Entry entry = entries.remove(id);
+		// Versions are only left behind while there's room, so they never evict entities
+		if (version != null && (entry != null || entries.size() < maxSize)) {
+			entries.put(id, new Entry(null, version, ticker.getAsLong()));
+		}
+		if (entry != null && entry.values != null) {
+			invalidationCount.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Caches a snapshot of an entity read from the database
+	 * @param classRowMapping
+	 * @param object
+	 */
+	void put(ClassRowMapping classRowMapping, Object object) {
+		Serializable id = classRowMapping.getOrCreateId(object);
+		List<FieldColumnMapping> columnMappings = classRowMapping.getFieldColumnMappingList();
+		Object[] values = new Object[columnMappings.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = copyValue(columnMappings.get(i).get(object));
+		}
+		if (id != null) {
+			put(id, values, classRowMapping.getVersion(object));
+		}
+	}
+	
+	private static Object copyValue(Object value) {
+		// Date and its java.sql subclasses are the only mutable column values
+		return value instanceof Date ? ((Date)value).clone() : value;
+	}
+	
+	private static boolean isOlder(Object version, Object otherVersion) {
+		return version != null
+				&& otherVersion != null
+				&& ((Number)version).longValue() < ((Number)otherVersion).longValue();
+	}
+	
+	private static Object newInstance(ClassRowMapping classRowMapping, Object[] values) {
+		List<FieldColumnMapping> columnMappings = classRowMapping.getFieldColumnMappingList();
+		Instantiator instantiator = classRowMapping.getInstantiator();
+		List<String> parameterColumns = instantiator.getParameterColumns();
+		
+		Object[] args = new Object[parameterColumns.size()];
+		boolean[] arguments = new boolean[values.length];
+		for (int i = 0; i < values.length; i++) {
+			int parameterIndex = parameterColumns.indexOf(columnMappings.get(i).getColumn());
+			if (parameterIndex != -1) {
+				args[parameterIndex] = copyValue(values[i]);
+				arguments[i] = true;
+			}
+		}
+		
+		Object instance = instantiator.newInstance(args);
+		for (int i = 0; i < values.length; i++) {
+			if (!arguments[i]) {
+				columnMappings.get(i).set(instance, copyValue(values[i]));
+			}
+		}
+		return instance;
+	}
+	
+	private synchronized Object[] getValues(Serializable id) {
+		frequencySketch.increment(id.hashCode());
+		
+		Entry entry = entries.get(id);
+		if (entry != null && entry.isExpired(ticker.getAsLong(), expireAfterWriteNanos)) {
+			entries.remove(id);
+			if (entry.values != null) {
+				evictionCount.incrementAndGet();
+			}
+			entry = null;
+		}
+		
+		if (entry == null || entry.values == null) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		hitCount.incrementAndGet();
+		return entry.values;
+	}
+	
+	private synchronized void put(Serializable id, Object[] values, Object version) {
+		long now = ticker.getAsLong();
+		Entry entry = entries.get(id);
+		
+		if (entry != null) {
+			if (!entry.isExpired(now, expireAfterWriteNanos) && isOlder(version, entry.version)) {
+				return;
+			}
+		} else if (entries.size() >= maxSize && !admit(id)) {
+			return;
+		}
+		entries.put(id, new Entry(values, version, now));
+	}
+	
+	/**
+	 * Evicts the least recently used entry to make room for the entry of <b>id</b>,
+	 * unless the evicted entry is estimated to be used more often
+	 */
+	private boolean admit(Serializable id) {
+		Iterator<java.util.Map.Entry<Serializable, Entry>> iterator = entries.entrySet().iterator();
+		java.util.Map.Entry<Serializable, Entry> victim = iterator.next();
+		
+		if (!victim.getValue().isExpired(ticker.getAsLong(), expireAfterWriteNanos)
+				&& frequencySketch.frequency(id.hashCode()) < frequencySketch.frequency(victim.getKey().hashCode())) {
+			return false;
+		}
+		iterator.remove();
+		evictionCount.incrementAndGet();
+		return true;
+	}
+	
+	private static class Entry {
+		/**
+		 * Null if the entry only holds the version of an entity that was written
+		 */
+		final Object[] values;
+		final Object version;
+		final long writeTime;
+		
+		Entry(Object[] values, Object version, long writeTime) {
+			this.values = values;
+			this.version = version;
+			this.writeTime = writeTime;
+		}
+		
+		boolean isExpired(long now, long expireAfterWriteNanos) {
+			return now - writeTime >= expireAfterWriteNanos;
+		}
+	}
+	
+	/**
+	 * Count-min sketch of 4-bit frequencies, halved every <code>10 * maxSize</code>
+	 * increments so that old popularity fades
+	 */
+	private static class FrequencySketch {
+		private static final int MAX_FREQUENCY = 15;
+		private static final int[] SEEDS = { 0x97CB3127, 0xB7E15163, 0xC2B2AE35, 0x27D4EB2F };
+		
+		private int additions;
+		private final int mask;
+		private final int sampleSize;
+		private final byte[] table;
+		
+		FrequencySketch(int maxSize) {
+			int length = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 26))) << 2;
+			mask = length - 1;
+			sampleSize = (int)Math.min(10L * maxSize, Integer.MAX_VALUE);
+			table = new byte[length];
+		}
+		
+		int frequency(int hash) {
+			int frequency = MAX_FREQUENCY;
+			for (int seed : SEEDS) {
+				frequency = Math.min(frequency, table[index(hash, seed)]);
+			}
+			return frequency;
+		}
+		
+		void increment(int hash) {
+			for (int seed : SEEDS) {
+				int index = index(hash, seed);
+				if (table[index] < MAX_FREQUENCY) {
+					table[index]++;
+				}
+			}
+			
+			if (++additions == sampleSize) {
+				for (int i = 0; i < table.length; i++) {
+					table[i] >>= 1;
+				}
+				additions /= 2;
+			}
+		}
+		
+		private int index(int hash, int seed) {
+			int h = (hash + seed) * 0x9E3779B9;
+			h ^= h >>> 16;
+			return h & mask;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timings and counts of one execution reported to an {@link ExecutionListener}. The phases of a statement are:
+ * <ol>
+ * <li><b>print</b>: generating the JDBC SQL, which is 0 when it was reused from a previous execution
+ * <li><b>bind</b>: setting the parameters, summed over every row of a batch
+ * <li><b>execute</b>: <code>executeQuery()</code>, <code>executeUpdate()</code> or <code>executeBatch()</code>
+ * <li><b>map</b>: reading the rows of a query until its <code>ResultSet</code> is closed, including
+ * the time spent in consumers e.g. of {@link JdbcStatement#forEach(java.sql.Connection, Class, java.util.function.Consumer)}
+ * </ol>
+ * An object graph resolution only has a total, which includes the queries it executed.
+ */
+public final class ExecutionEvent {
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionEvent.class);
+	
+	public static final int TYPE_BATCH = 1;
+	public static final int TYPE_GRAPH = 2;
+	public static final int TYPE_QUERY = 3;
+	public static final int TYPE_UPDATE = 4;
+	
+	private long bindNanos;
+	private Throwable error;
+	private long executeNanos;
+	private long executedAt;
+	private boolean executed;
+	private boolean finished;
+	private final ExecutionListener listener;
+	private long mapNanos;
+	private int parameterCount;
+	private long printNanos;
+	private Class<?> resultClass;
+	private long rowCount;
+	private final String sql;
+	private long startedAt;
+	private long totalNanos;
+	private final int type;
+	
+	public long getBindNanos() { return bindNanos; }
+	void setBindNanos(long bindNanos) { this.bindNanos = bindNanos; }
+	/**
+	 * 
+	 * @return the exception thrown when executing the statement or resolving the object graph, or null
+	 */
+	public Throwable getError() { return error; }
+	void setError(Throwable error) { this.error = error; }
+	public long getExecuteNanos() { return executeNanos; }
+	public long getMapNanos() { return mapNanos; }
+	/**
+	 * 
+	 * @return number of JDBC parameters bound i.e. placeholders in {@link ExecutionEvent#getSql()}
+	 */
+	public int getParameterCount() { return parameterCount; }
+	void setParameterCount(int parameterCount) { this.parameterCount = parameterCount; }
+	public long getPrintNanos() { return printNanos; }
+	void setPrintNanos(long printNanos) { this.printNanos = printNanos; }
+	/**
+	 * 
+	 * @return entity class of a resolved object graph, otherwise null
+	 */
+	public Class<?> getResultClass() { return resultClass; }
+	void setResultClass(Class<?> resultClass) { this.resultClass = resultClass; }
+	/**
+	 * 
+	 * @return rows read by a query, rows updated by an update or batch (as reported by the driver),
+	 * or root entities of an object graph
+	 */
+	public long getRowCount() { return rowCount; }
+	void setRowCount(long rowCount) { this.rowCount = rowCount; }
+	/**
+	 * 
+	 * @return the JDBC SQL with <code>?</code> placeholders, the same for every execution of
+	 * a statement with the same parameter list sizes, or null for an object graph resolution
+	 */
+	public String getSql() { return sql; }
+	public long getTotalNanos() { return totalNanos; }
+	public int getType() { return type; }
+	
+	ExecutionEvent(ExecutionListener listener, int type, String sql) {
+		this.listener = listener;
+		this.type = type;
+		this.sql = sql;
+	}
+	
+	@Override
+	public String toString() {
+		return "ExecutionEvent [type=" + type + ", sql=" + sql + ", resultClass=" + resultClass
+				+ ", parameterCount=" + parameterCount + ", rowCount=" + rowCount
+				+ ", printNanos=" + printNanos + ", bindNanos=" + bindNanos + ", executeNanos=" + executeNanos
+				+ ", mapNanos=" + mapNanos + ", totalNanos=" + totalNanos + ", error=" + error + "]";
+	}
+	
+	void addRow() {
+		rowCount++;
+	}
+	
+	/**
+	 * Notifies the listener that the execution is done
+	 */
+	void finish() {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		
+		long now = System.nanoTime();
+		if (type == TYPE_GRAPH) {
+			totalNanos = now - startedAt;
+		} else {
+			if (type == TYPE_QUERY && executed) {
+				mapNanos = now - executedAt;
+			}
+			totalNanos = printNanos + bindNanos + executeNanos + mapNanos;
+		}
+		
+		try {
+			listener.afterExecution(this);
+		} catch (RuntimeException e) {
+			logger.warn("ExecutionListener.afterExecution(ExecutionEvent) threw an exception", e);
+		}
+	}
+	
+	/**
+	 * Notifies the listener that the execution is starting
+	 */
+	void start() {
+		try {
+			listener.beforeExecution(this);
+		} catch (RuntimeException e) {
+			logger.warn("ExecutionListener.beforeExecution(ExecutionEvent) threw an exception", e);
+		}
+		startedAt = System.nanoTime();
+	}
+	
+	/**
+	 * Ends the execute phase and starts the map phase of a query
+	 */
+	void executed() {
+		executed = true;
+		executedAt = System.nanoTime();
+		executeNanos = executedAt - startedAt;
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Receives an {@link ExecutionEvent} for every execution of a <code>PreparedStatement</code> created by
+ * {@link JdbcStatement} (including the statements of {@link JdbcMapper}'s CRUD methods and of
+ * {@link ObjectGraphResolver}s), and for every object graph resolved by an {@link ObjectGraphResolver}.
+ * Register with {@link JdbcMapper#setExecutionListener(ExecutionListener)}.<br>
+ * <br>
+ * Callbacks run on the executing thread, so implementations must be thread-safe and fast.
+ * Exceptions thrown by a listener are logged and otherwise ignored.
+ */
+public interface ExecutionListener {
+	/**
+	 * 
+	 * @param listeners
+	 * @return a listener that notifies each of <b>listeners</b> in order e.g. a {@link LatencyRecorder}
+	 * and {@link QueryDiagnostics}
+	 */
+	static ExecutionListener of(ExecutionListener... listeners) {
+		List<ExecutionListener> list = Arrays.asList(listeners.clone());
+		list.forEach(listener -> Objects.requireNonNull(listener, "listeners cannot have null"));
+		return new ExecutionListener() {
+			@Override
+			public void beforeExecution(ExecutionEvent event) {
+				for (ExecutionListener listener : list) {
+					listener.beforeExecution(event);
+				}
+			}
+			
+			@Override
+			public void afterExecution(ExecutionEvent event) {
+				for (ExecutionListener listener : list) {
+					listener.afterExecution(event);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Called right before a statement is executed, after its SQL was printed and its parameters bound,
+	 * or before an object graph is resolved
+	 * @param event
+	 */
+	default void beforeExecution(ExecutionEvent event) {}
+	
+	/**
+	 * Called after an update or batch is executed, after the <code>ResultSet</code> of a query is closed
+	 * (or its statement is closed or executed again), or after an object graph is resolved
+	 * @param event
+	 */
+	void afterExecution(ExecutionEvent event);
+}
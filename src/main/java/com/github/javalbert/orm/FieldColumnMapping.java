@@ -118,6 +118,35 @@ public abstract class FieldColumnMapping implements MemberAccess {
 		this.version = version;
 	}
 
+	/**
+	 * Creates a {@link ColumnReader} bound to the typed <code>ResultSet</code> getter and setter of
+	 * this mapping's JDBC type, so the JDBC type is resolved once instead of for every row.
+	 * Falls back to {@link FieldColumnMapping#setFromResultSet(Object, ResultSetHelper, int)}
+	 * for unknown JDBC types.
+	 * @return
+	 */
+	public ColumnReader createColumnReader() {
+		switch (jdbcType) {
+			case JDBC_TYPE_BIG_DECIMAL: return (instance, rs, column) -> setBigDecimal(instance, rs.getBigDecimal(column));
+			case JDBC_TYPE_BOOLEAN: return (instance, rs, column) -> setBoxedBoolean(instance, rs.getBoolean2(column));
+			case JDBC_TYPE_DATE: return (instance, rs, column) -> setDate(instance, rs.getDate2(column));
+			case JDBC_TYPE_DOUBLE: return (instance, rs, column) -> setBoxedDouble(instance, rs.getDouble2(column));
+			case JDBC_TYPE_FLOAT: return (instance, rs, column) -> setBoxedFloat(instance, rs.getFloat2(column));
+			case JDBC_TYPE_INTEGER: return (instance, rs, column) -> setBoxedInt(instance, rs.getInt2(column));
+			case JDBC_TYPE_LOCAL_DATE: return (instance, rs, column) -> setLocalDate(instance, rs.getLocalDate(column));
+			case JDBC_TYPE_LOCAL_DATE_TIME: return (instance, rs, column) -> setLocalDateTime(instance, rs.getLocalDateTime(column));
+			case JDBC_TYPE_LONG: return (instance, rs, column) -> setBoxedLong(instance, rs.getLong2(column));
+			case JDBC_TYPE_PRIMITIVE_BOOLEAN: return (instance, rs, column) -> setBoolean(instance, rs.getBoolean(column));
+			case JDBC_TYPE_PRIMITIVE_DOUBLE: return (instance, rs, column) -> setDouble(instance, rs.getDouble(column));
+			case JDBC_TYPE_PRIMITIVE_FLOAT: return (instance, rs, column) -> setFloat(instance, rs.getFloat(column));
+			case JDBC_TYPE_PRIMITIVE_INT: return (instance, rs, column) -> setInt(instance, rs.getInt(column));
+			case JDBC_TYPE_PRIMITIVE_LONG: return (instance, rs, column) -> setLong(instance, rs.getLong(column));
+			case JDBC_TYPE_STRING: return (instance, rs, column) -> setString(instance, rs.getString(column));
+			case JDBC_TYPE_TIMESTAMP: return (instance, rs, column) -> setDate(instance, rs.getTimestamp2(column));
+		}
+		return this::setFromResultSet;
+	}
+	
 	public Object getFromResultSet(ResultSetHelper rs, int column) throws SQLException {
 		return getFromResultSet(jdbcType, rs, column);
 	}
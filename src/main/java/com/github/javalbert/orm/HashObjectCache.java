@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link ObjectCache} of a <code>HashMap</code> of objects by ID per class. Not thread-safe,
+ * see {@link ObjectCache#synchronizedCache(ObjectCache)}.
+ */
+public class HashObjectCache extends ObjectCache {
+	@SuppressWarnings("rawtypes")
+	private final Map<Class, Map<Serializable, Object>> classObjectsMap = new HashMap<>();
+	
+	/**
+	 * 
+	 * @return the maps of objects by ID per class, which are not synchronized
+	 * by {@link ObjectCache#synchronizedCache(ObjectCache)}
+	 */
+	@SuppressWarnings("rawtypes")
+	public Map<Class, Map<Serializable, Object>> getClassObjectsMap() { return classObjectsMap; }
+	
+	@Override
+	public void add(Object object, Serializable id) {
+		assertObjectNotNull(object);
+		getClassObjects(object.getClass()).put(id, object);
+	}
+	
+	@Override
+	public Object addIfAbsent(Object object, Serializable id) {
+		assertObjectNotNull(object);
+		
+		Map<Serializable, Object> classObjects = getClassObjects(object.getClass());
+		Object existing = classObjects.get(id);
+		
+		if (existing != null) {
+			return existing;
+		}
+		classObjects.put(id, object);
+		return object;
+	}
+	
+	@Override
+	public long estimateMemoryUsage() {
+		long bytes = estimateHashMapMemoryUsage(0);
+		
+		for (Map<Serializable, Object> classObjects : classObjectsMap.values()) {
+			bytes += HASH_MAP_NODE_BYTES + estimateHashMapMemoryUsage(classObjects.size());
+		}
+		return bytes;
+	}
+	
+	@Override
+	public Object get(Class<?> clazz, Serializable id) {
+		Map<Serializable, Object> classObjects = classObjectsMap.get(clazz);
+		return classObjects != null ? classObjects.get(id) : null;
+	}
+	
+	@Override
+	public int size() {
+		int size = 0;
+		for (Map<Serializable, Object> classObjects : classObjectsMap.values()) {
+			size += classObjects.size();
+		}
+		return size;
+	}
+	
+	private Map<Serializable, Object> getClassObjects(Class<?> clazz) {
+		Map<Serializable, Object> classObjects = classObjectsMap.get(clazz);
+		
+		if (classObjects == null) {
+			classObjects = new HashMap<>();
+			classObjectsMap.put(clazz, classObjects);
+		}
+		return classObjects;
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates instances of an entity class for {@link ClassRowMapping}
+ * @see ConstructorInstantiator
+ */
+public interface Instantiator {
+	/**
+	 * 
+	 * @return the columns whose values are passed to {@link Instantiator#newInstance(Object[])},
+	 * in the order of the arguments, or an empty list if instances are created without arguments
+	 */
+	default List<String> getParameterColumns() {
+		return Collections.emptyList();
+	}
+	
+	Object newInstance();
+	
+	/**
+	 * 
+	 * @param args values of the columns returned by {@link Instantiator#getParameterColumns()}
+	 * @return
+	 */
+	default Object newInstance(Object[] args) {
+		if (args.length == 0) {
+			return newInstance();
+		}
+		throw new UnsupportedOperationException("instantiator does not accept arguments");
+	}
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.github.javalbert.utils.jdbc.PreparedStatementImpl;
+import com.github.javalbert.utils.jdbc.ResultSetHelper;
+
+/**
+ * Reports each execution of a statement to an {@link ExecutionListener}.
+ * Only created by {@link JdbcStatement} when the mapper has a listener.
+ */
+class InstrumentedPreparedStatement extends PreparedStatementImpl {
+	private long bindNanos;
+	private final ExecutionListener listener;
+	private int parameterCount;
+	private long printNanos;
+	/**
+	 * Query whose rows are being read
+	 */
+	private ExecutionEvent query;
+	private final String sql;
+	
+	InstrumentedPreparedStatement(
+			PreparedStatement statement,
+			Connection connection,
+			ExecutionListener listener,
+			String sql,
+			long printNanos) {
+		super(statement, connection);
+		this.listener = listener;
+		this.printNanos = printNanos;
+		this.sql = sql;
+	}
+	
+	/**
+	 * Adds to the bind phase of the next execution
+	 * @param parameterCount
+	 * @param nanos
+	 */
+	void bound(int parameterCount, long nanos) {
+		this.parameterCount = parameterCount;
+		bindNanos += nanos;
+	}
+	
+	@Override
+	public void close() throws SQLException {
+		finishQuery();
+		super.close();
+	}
+	
+	@Override
+	public int[] executeBatch() throws SQLException {
+		ExecutionEvent event = startExecution(ExecutionEvent.TYPE_BATCH);
+		try {
+			int[] rowCounts = super.executeBatch();
+			long rowCount = 0L;
+			for (int count : rowCounts) {
+				if (count > 0) {
+					rowCount += count;
+				}
+			}
+			event.setRowCount(rowCount);
+			return rowCounts;
+		} catch (SQLException | RuntimeException e) {
+			event.setError(e);
+			throw e;
+		} finally {
+			event.executed();
+			event.finish();
+		}
+	}
+	
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		ExecutionEvent event = startExecution(ExecutionEvent.TYPE_QUERY);
+		ResultSet rs = null;
+		try {
+			rs = super.executeQuery();
+		} catch (SQLException | RuntimeException e) {
+			event.setError(e);
+			event.executed();
+			event.finish();
+			throw e;
+		}
+		event.executed();
+		query = event;
+		return new RowCountingResultSet(rs, event);
+	}
+	
+	@Override
+	public int executeUpdate() throws SQLException {
+		ExecutionEvent event = startExecution(ExecutionEvent.TYPE_UPDATE);
+		try {
+			int rowCount = super.executeUpdate();
+			event.setRowCount(rowCount);
+			return rowCount;
+		} catch (SQLException | RuntimeException e) {
+			event.setError(e);
+			throw e;
+		} finally {
+			event.executed();
+			event.finish();
+		}
+	}
+	
+	private void finishQuery() {
+		if (query != null) {
+			query.finish();
+			query = null;
+		}
+	}
+	
+	private ExecutionEvent startExecution(int type) {
+		finishQuery();
+		
+		ExecutionEvent event = new ExecutionEvent(listener, type, sql);
+		event.setBindNanos(bindNanos);
+		event.setParameterCount(parameterCount);
+		event.setPrintNanos(printNanos);
+		bindNanos = 0L;
+		printNanos = 0L;
+		event.start();
+		return event;
+	}
+	
+	/**
+	 * Counts rows read, and ends the map phase when closed
+	 */
+	private static class RowCountingResultSet extends ResultSetHelper {
+		private final ExecutionEvent event;
+		
+		public RowCountingResultSet(ResultSet rs, ExecutionEvent event) {
+			super(rs);
+			this.event = event;
+		}
+		
+		@Override
+		public void close() throws SQLException {
+			try {
+				super.close();
+			} finally {
+				event.finish();
+			}
+		}
+		
+		@Override
+		public boolean next() throws SQLException {
+			boolean next = super.next();
+			if (next) {
+				event.addRow();
+			}
+			return next;
+		}
+	}
+}
@@ -18,14 +18,27 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +51,7 @@ import com.github.javalbert.sqlbuilder.SelectList;
 import com.github.javalbert.sqlbuilder.SelectNodeFinder;
 import com.github.javalbert.sqlbuilder.SqlStatement;
 import com.github.javalbert.sqlbuilder.Update;
+import com.github.javalbert.sqlbuilder.parser.ParseCache;
 import com.github.javalbert.sqlbuilder.vendor.ANSI;
 import com.github.javalbert.sqlbuilder.vendor.Vendor;
 import com.github.javalbert.utils.ClassUtils;
@@ -47,25 +61,58 @@ import com.github.javalbert.utils.jdbc.ResultSetHelper;
 public class JdbcMapper {
 	/* BEGIN Class members */
 	
+	/**
+	 * Threads of the default async executor before JDK 21, the default size of common connection pools
+	 * e.g. HikariCP
+	 */
+	public static final int DEFAULT_ASYNC_THREADS = 10;
+	public static final int DEFAULT_BATCH_CHUNK_SIZE = 1000;
 	public static final int NOT_UPDATED = -1;
 	public static final int SAVED = 1;
 	public static final int UPDATED = 2;
 	
+	private static final int BATCH_DELETE = 1;
+	private static final int BATCH_SAVE = 2;
+	private static final int BATCH_UPDATE = 3;
+	
 	private static final Logger logger = LoggerFactory.getLogger(JdbcMapper.class);
 	
-	private static <T> T createObject(
-			Class<T> clazz, 
-			List<FieldColumnMapping> columnMappings, 
-			ResultSetHelper rs) 
-			throws SQLException {
-		T instance = null;
+	/**
+	 * 
+	 * @return an executor of virtual threads on JDK 21 or later, otherwise a pool of at most
+	 * {@link #DEFAULT_ASYNC_THREADS} daemon threads, which time out when idle. Blocking JDBC calls
+	 * must not run on <code>ForkJoinPool.commonPool()</code>, whose few threads are shared with
+	 * parallel streams and other <code>CompletableFuture</code>s.
+	 */
+	private static Executor createDefaultAsyncExecutor() {
 		try {
-			instance = clazz.newInstance();
-			setObjectProperties(instance, columnMappings, rs);
-		} catch (InstantiationException | IllegalAccessException e) {
-			throw new IllegalStateException(clazz + " does not have default constructor", e);
+			// Looked up reflectively since the library is compiled for Java 8
+			return (Executor)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger threadCount = new AtomicInteger();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(
+					DEFAULT_ASYNC_THREADS,
+					DEFAULT_ASYNC_THREADS,
+					60L,
+					TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(),
+					runnable -> {
+						Thread thread = new Thread(runnable, "JdbcMapper-async-" + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
 		}
-		return instance;
+	}
+	
+	/**
+	 * 
+	 * @param rowCount an element of the array returned by {@link PreparedStatement#executeBatch()}
+	 * @return false if the row count is 0, otherwise true including {@link Statement#SUCCESS_NO_INFO}
+	 */
+	private static boolean isBatchRowAffected(int rowCount) {
+		return rowCount > 0 || rowCount == Statement.SUCCESS_NO_INFO;
 	}
 	
 	private static void save(
@@ -92,29 +139,10 @@ public class JdbcMapper {
 		}
 	}
 	
-	/**
-	 * 
-	 * @param instance
-	 * @param columnMappings a list that is returned from
-	 * {@link JdbcMapper#getColumnMappings(ClassRowMapping, Select)} method
-	 * @param rs
-	 * @throws SQLException
-	 */
-	private static void setObjectProperties(
-			Object instance,
-			List<FieldColumnMapping> columnMappings,
-			ResultSetHelper rs)
-			throws SQLException {
-		for (int i = 0; i < columnMappings.size(); i++) {
-			columnMappings.get(i).setFromResultSet(instance, rs, i + 1);
-		}
-	}
-	
 	private static boolean refresh(
 			Connection connection,
 			Object object,
-			JdbcStatement selectStatement,
-			List<FieldColumnMapping> columnMappings) throws SQLException {
+			JdbcStatement selectStatement) throws SQLException {
 		PreparedStatement stmt = null;
 		ResultSetHelper rs = null;
 		try {
@@ -125,7 +153,7 @@ public class JdbcMapper {
 				return false;
 			}
 			
-			setObjectProperties(object, columnMappings, rs);
+			selectStatement.getRowPlan(object.getClass()).setObjectProperties(object, rs);
 			return true;
 		} catch (SQLException e) {
 			throw e;
@@ -164,13 +192,147 @@ public class JdbcMapper {
 	
 	/* END Class members */
 	
+	/**
+	 * Created on first use by {@link #getAsyncExecutor()} unless set
+	 */
+	private volatile Executor asyncExecutor;
+	private volatile int batchChunkSize = DEFAULT_BATCH_CHUNK_SIZE;
+	private volatile boolean cachedDslSql;
+	@SuppressWarnings("rawtypes")
+	private final ConcurrentMap<Class, EntityCache> entityCaches = new ConcurrentHashMap<>();
+	private volatile ExecutionListener executionListener;
+	private volatile boolean frozen;
+	private volatile boolean multiRowInsert;
+	private volatile boolean paddedInLists;
+	/**
+	 * Copy-on-write snapshot of the registered mappings, read without locking
+	 */
 	@SuppressWarnings("rawtypes")
-	private final Map<Class, ClassRowMapping> mappings = new HashMap<>();
+	private volatile Map<Class, ClassRowMapping> mappings = Collections.emptyMap();
+	private volatile Supplier<? extends ObjectCache> objectCacheFactory = HashObjectCache::new;
+	private final Object registrationLock = new Object();
+	private final ParseCache parseCache = new ParseCache();
+	private final RowPlanCache rowPlanCache = new RowPlanCache();
+	private final SqlCache sqlCache = new SqlCache();
+	private volatile StatementCache statementCache;
+	private volatile boolean typedColumnReaders;
 	private final Vendor vendor;
 	
+	public Executor getAsyncExecutor() {
+		Executor executor = asyncExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = asyncExecutor;
+				if (executor == null) {
+					executor = createDefaultAsyncExecutor();
+					asyncExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+	/**
+	 * 
+	 * @param asyncExecutor runs the asynchronous methods of {@link JdbcStatement} e.g.
+	 * {@link JdbcStatement#toListAsync(com.github.javalbert.utils.jdbc.ConnectionSupplier, Class)}.
+	 * By default, virtual threads on JDK 21 or later, otherwise a pool of the mapper of at most
+	 * {@link #DEFAULT_ASYNC_THREADS} daemon threads, which should be about the size of the connection pool.
+	 * The caller owns <b>asyncExecutor</b> and is responsible for shutting it down.
+	 */
+	public void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = Objects.requireNonNull(asyncExecutor, "asyncExecutor cannot be null");
+	}
+	public int getBatchChunkSize() { return batchChunkSize; }
+	/**
+	 * 
+	 * @param batchChunkSize maximum number of rows sent to the database per batch by
+	 * {@link JdbcMapper#saveAll(Connection, Collection)}, {@link JdbcMapper#updateAll(Connection, Collection)}
+	 * and {@link JdbcMapper#deleteAll(Connection, Collection)}
+	 */
+	public void setBatchChunkSize(int batchChunkSize) {
+		if (batchChunkSize < 1) {
+			throw new IllegalArgumentException("batchChunkSize must be greater than 0");
+		}
+		this.batchChunkSize = batchChunkSize;
+	}
+	public boolean isCachedDslSql() { return cachedDslSql; }
+	/**
+	 * If true, the SQL rendered from DSL statements is cached in {@link #getSqlCache()}, keyed by statement identity.
+	 * Only enable this if DSL statements are built once and reused e.g. held in constants,
+	 * otherwise (the default) every query rebuilding its statement would add an entry evicting useful ones.
+	 * @param cachedDslSql
+	 */
+	public void setCachedDslSql(boolean cachedDslSql) { this.cachedDslSql = cachedDslSql; }
+	/**
+	 * 
+	 * @param clazz
+	 * @return the cache enabled by {@link JdbcMapper#enableEntityCache(Class, int, long, TimeUnit)}, or null
+	 */
+	public EntityCache getEntityCache(Class<?> clazz) { return entityCaches.get(clazz); }
+	public ExecutionListener getExecutionListener() { return executionListener; }
+	/**
+	 * 
+	 * @param executionListener notified of every statement executed and object graph resolved afterwards
+	 * e.g. {@link LatencyRecorder} or {@link QueryDiagnostics} (see {@link ExecutionListener#of(ExecutionListener...)}),
+	 * or null (the default) for no instrumentation
+	 */
+	public void setExecutionListener(ExecutionListener executionListener) { this.executionListener = executionListener; }
 	@SuppressWarnings("rawtypes")
-	public Map<Class, ClassRowMapping> getMappings() { return Collections.unmodifiableMap(mappings); }
+	public Map<Class, ClassRowMapping> getMappings() { return mappings; }
+	public Supplier<? extends ObjectCache> getObjectCacheFactory() { return objectCacheFactory; }
+	/**
+	 * 
+	 * @param objectCacheFactory creates the {@link ObjectCache} of each object graph that
+	 * {@link ObjectGraphResolver}s resolve without one given, {@link HashObjectCache} by default.
+	 * Use {@link LongKeyObjectCache} for large graphs of entities with integral IDs.
+	 */
+	public void setObjectCacheFactory(Supplier<? extends ObjectCache> objectCacheFactory) {
+		this.objectCacheFactory = Objects.requireNonNull(objectCacheFactory, "objectCacheFactory cannot be null");
+	}
+	/**
+	 * 
+	 * @return the cache of statements parsed from the SQL strings of {@link JdbcMapper#createQuery(String)}.
+	 * The SQL strings are executed as they are, their statements only find parameters and map rows,
+	 * so literals can be normalized with {@link ParseCache#setNormalizeLiterals(boolean)}.
+	 */
+	public ParseCache getParseCache() { return parseCache; }
+	public RowPlanCache getRowPlanCache() { return rowPlanCache; }
+	public SqlCache getSqlCache() { return sqlCache; }
+	/**
+	 * 
+	 * @return the cache enabled by {@link JdbcMapper#enableStatementCache(int)}, or null
+	 */
+	public StatementCache getStatementCache() { return statementCache; }
+	public boolean isTypedColumnReaders() { return typedColumnReaders; }
+	/**
+	 * If true, rows are mapped by {@link ColumnReader}s specialized to each column's JDBC type,
+	 * otherwise (the default) by {@link FieldColumnMapping#setFromResultSet(Object, ResultSetHelper, int)},
+	 * whose switch over the typed <code>ResultSet</code> getters measured as fast in RowMappingBenchmark
+	 * @param typedColumnReaders
+	 */
+	public void setTypedColumnReaders(boolean typedColumnReaders) {
+		this.typedColumnReaders = typedColumnReaders;
+		rowPlanCache.clear();
+	}
 	public Vendor getVendor() { return vendor; }
+	public boolean isFrozen() { return frozen; }
+	public boolean isMultiRowInsert() { return multiRowInsert; }
+	/**
+	 * If true, {@link JdbcMapper#saveAll(Connection, Collection)} inserts entities without
+	 * an auto-increment ID with multi-row INSERT statements e.g. <code>INSERT ... VALUES (...), (...)</code>,
+	 * each with as many rows as the vendor allows (see {@link Vendor#getMaxInsertRows()} and {@link Vendor#getMaxParameters()}).
+	 * Entities with an auto-increment ID are still inserted with JDBC batches, since not every
+	 * driver returns the generated keys of every row of a multi-row INSERT.
+	 * @param multiRowInsert
+	 */
+	public void setMultiRowInsert(boolean multiRowInsert) { this.multiRowInsert = multiRowInsert; }
+	public boolean isPaddedInLists() { return paddedInLists; }
+	/**
+	 * Default of {@link JdbcStatement#paddedInLists(boolean)} for statements created afterwards,
+	 * including the statements of {@link ObjectGraphResolver}s
+	 * @param paddedInLists
+	 */
+	public void setPaddedInLists(boolean paddedInLists) { this.paddedInLists = paddedInLists; }
 	
 	public JdbcMapper() {
 		this(new ANSI());
@@ -181,6 +343,14 @@ public class JdbcMapper {
 	}
 
 	/* BEGIN Public methods */
+	
+	/**
+	 * 
+	 * @return a new {@link ObjectCache} from {@link JdbcMapper#getObjectCacheFactory()}
+	 */
+	public ObjectCache createObjectCache() {
+		return objectCacheFactory.get();
+	}
 
 	/**
 	 * Remember to call JdbcStatement.sqlStatement(SqlStatement) method
@@ -203,11 +373,100 @@ public class JdbcMapper {
 	}
 	
 	public boolean delete(Connection connection, Object object) throws SQLException {
-		return deleteByObject(connection, object, getClassRowMapping(object.getClass()));
+		ClassRowMapping classRowMapping = getClassRowMapping(object.getClass());
+		try {
+			return deleteByObject(connection, object, classRowMapping);
+		} finally {
+			invalidateEntityCache(classRowMapping, object, null);
+		}
 	}
 	
 	public boolean delete(Connection connection, Class<?> clazz, Serializable id) throws SQLException {
-		return deleteById(connection, getClassRowMapping(clazz), id);
+		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
+		try {
+			return deleteById(connection, classRowMapping, id);
+		} finally {
+			EntityCache entityCache = entityCaches.get(clazz);
+			if (entityCache != null) {
+				entityCache.invalidate(id, null);
+			}
+		}
+	}
+	
+	/**
+	 * Deletes entities in JDBC batches of at most {@link JdbcMapper#getBatchChunkSize()} rows
+	 * @param connection
+	 * @param objects entities, which may be of different classes
+	 * @return number of rows deleted for each entity in iteration order
+	 * @throws SQLException
+	 * @throws IllegalStateException if an entity with version control was updated or deleted by another transaction
+	 */
+	public int[] deleteAll(Connection connection, Collection<?> objects) throws SQLException {
+		try {
+			return executeBatches(connection, objects, BATCH_DELETE);
+		} finally {
+			invalidateEntityCaches(objects);
+		}
+	}
+	
+	/**
+	 * Disables the second-level cache of <b>clazz</b>, if any
+	 * @param clazz
+	 */
+	public void disableEntityCache(Class<?> clazz) {
+		entityCaches.remove(clazz);
+	}
+	
+	/**
+	 * Enables a second-level cache of entities of <b>clazz</b> read by {@link JdbcMapper#get(Connection, Class, Serializable)},
+	 * {@link JdbcMapper#getAll(Connection, Class, Collection)} and {@link JdbcMapper#refresh(Connection, Object)},
+	 * replacing any previous cache of <b>clazz</b>.<br>
+	 * <br>
+	 * Entries are invalidated by the writes of this mapper, but not by writes of other applications or of
+	 * {@link JdbcStatement}s, and not when a transaction is rolled back. Only cache entities that are
+	 * seldom written, or that can be read up to <b>expireAfterWrite</b> stale.
+	 * @param clazz
+	 * @param maxSize maximum number of cached entities
+	 * @param expireAfterWrite
+	 * @param unit
+	 * @return the new cache, for its metrics
+	 * @throws IllegalStateException if <b>clazz</b> is not registered
+	 */
+	public EntityCache enableEntityCache(Class<?> clazz, int maxSize, long expireAfterWrite, TimeUnit unit) {
+		getClassRowMapping(clazz);
+		EntityCache entityCache = new EntityCache(maxSize, expireAfterWrite, unit);
+		entityCaches.put(clazz, entityCache);
+		return entityCache;
+	}
+	
+	/**
+	 * Closes the idle statements of the cache enabled by {@link JdbcMapper#enableStatementCache(int)}
+	 */
+	public void disableStatementCache() {
+		StatementCache previous = statementCache;
+		statementCache = null;
+		if (previous != null) {
+			previous.clear();
+		}
+	}
+	
+	/**
+	 * Enables the pooling of the <code>PreparedStatement</code>s of {@link JdbcStatement}s, including those of
+	 * this mapper's CRUD methods, per connection, replacing any previous cache. Forward-only and streaming
+	 * statements are not pooled.<br>
+	 * <br>
+	 * Pooled statements stay open until evicted or their connection is closed, so the
+	 * database may hold up to <b>maxSizePerConnection</b> open cursors or server-side plans per connection.
+	 * @param maxSizePerConnection maximum number of idle statements per connection
+	 * @return
+	 */
+	public StatementCache enableStatementCache(int maxSizePerConnection) {
+		StatementCache previous = statementCache;
+		statementCache = new StatementCache(maxSizePerConnection);
+		if (previous != null) {
+			previous.clear();
+		}
+		return statementCache;
 	}
 	
 //	public <T, C extends Collection<T>, ID extends Serializable, IDList extends Collection<ID>> C getCollection(
@@ -267,11 +526,86 @@ public class JdbcMapper {
 
 	public <T> T get(Connection connection, Class<T> clazz, Serializable id) throws SQLException {
 		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
-		Select selectById = classRowMapping.getSelectById();
-		JdbcStatement selectStatement = createQuery(selectById);
-		return uniqueResultById(connection, clazz, id, classRowMapping, selectStatement);
+		EntityCache entityCache = entityCaches.get(clazz);
+		if (entityCache == null) {
+			return getFromDatabase(connection, clazz, id, classRowMapping);
+		}
+		
+		T object = clazz.cast(entityCache.get(classRowMapping, id));
+		if (object == null) {
+			object = getFromDatabase(connection, clazz, id, classRowMapping);
+			if (object != null) {
+				entityCache.put(classRowMapping, object);
+			}
+		}
+		return object;
 	}
 
+	/**
+	 * Gets entities by their IDs with SELECT statements whose number of IDs is padded to one of
+	 * a few sizes (see {@link ClassRowMapping#getPaddedIdCount(int)}), so that the same JDBC SQL is reused
+	 * @param connection
+	 * @param clazz
+	 * @param ids scalar IDs, or instances of the ID class for a composite primary key
+	 * @return entities by ID, in the order they were selected (after those in the entity cache, if enabled),
+	 * without the IDs that were not found
+	 * @throws SQLException
+	 */
+	@SuppressWarnings("unchecked")
+	public <T, ID extends Serializable> Map<ID, T> getAll(
+			Connection connection,
+			Class<T> clazz,
+			Collection<ID> ids) throws SQLException {
+		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
+		EntityCache entityCache = entityCaches.get(clazz);
+		List<ID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+		Map<ID, T> objects = new LinkedHashMap<>();
+		
+		if (entityCache != null) {
+			List<ID> uncachedIds = new ArrayList<>(distinctIds.size());
+			for (ID id : distinctIds) {
+				T object = clazz.cast(entityCache.get(classRowMapping, id));
+				if (object != null) {
+					objects.put(id, object);
+				} else {
+					uncachedIds.add(id);
+				}
+			}
+			distinctIds = uncachedIds;
+		}
+		
+		int maxIdCount = classRowMapping.getMaxSelectByIdsCount();
+		JdbcStatement selectStatement = null;
+		try {
+			for (int start = 0; start < distinctIds.size(); start += maxIdCount) {
+				List<ID> chunk = distinctIds.subList(start, Math.min(start + maxIdCount, distinctIds.size()));
+				int idCount = ClassRowMapping.getPaddedIdCount(chunk.size());
+				Select selectByIds = classRowMapping.getSelectByIds(idCount);
+				
+				if (selectStatement == null || selectStatement.getSqlStatement() != selectByIds) {
+					if (selectStatement != null) {
+						selectStatement.closePreparedStatement();
+					}
+					selectStatement = createQuery(selectByIds)
+							.cachePreparedStatement(true);
+				}
+				
+				classRowMapping.setIdsParameters(selectStatement, chunk, idCount);
+				selectStatement.forEach(connection, clazz, object -> {
+					objects.put((ID)classRowMapping.getOrCreateId(object), object);
+					if (entityCache != null) {
+						entityCache.put(classRowMapping, object);
+					}
+				});
+			}
+		} finally {
+			if (selectStatement != null) {
+				selectStatement.closePreparedStatement();
+			}
+		}
+		return objects;
+	}
+	
 	public <T> T get(
 			Connection connection,
 			GraphEntity<T> graphEntity,
@@ -337,28 +671,64 @@ public class JdbcMapper {
 		return columnMappings;
 	}
 	
+	/**
+	 * Prevents any further registration so that the registered mappings never change.<br>
+	 * <br>
+	 * Lookups of mappings never lock whether or not the mapper is frozen. Call this
+	 * once all entities are registered e.g. at the end of application startup.
+	 */
+	public void freeze() {
+		synchronized (registrationLock) {
+			frozen = true;
+		}
+	}
+	
 	public boolean refresh(Connection connection, Object object) throws SQLException {
 		ClassRowMapping classRowMapping = getClassRowMapping(object.getClass());
 		Select selectById = classRowMapping.getSelectById();
 		JdbcStatement selectStatement = createQuery(selectById);
 
 		classRowMapping.setIdParameters(selectStatement, object);
-		List<FieldColumnMapping> columnMappings = getColumnMappings(classRowMapping, selectById);
 		
-		return refresh(connection, object, selectStatement, columnMappings);
+		boolean refreshed = refresh(connection, object, selectStatement);
+		EntityCache entityCache = entityCaches.get(object.getClass());
+		if (refreshed && entityCache != null) {
+			entityCache.put(classRowMapping, object);
+		}
+		return refreshed;
 	}
 	
+	/**
+	 * Thread-safe, may be called lazily e.g. from request threads.
+	 * Does nothing if <b>clazz</b> is not an {@link Entity} or is already registered.
+	 * @param clazz
+	 * @throws IllegalStateException if the mapper is frozen and <b>clazz</b> is not registered
+	 */
 	public void register(Class<?> clazz) {
 		if (!clazz.isAnnotationPresent(Entity.class) 
 				|| mappings.containsKey(clazz)) {
 			return;
 		}
 		
-		mappings.put(clazz, new ClassRowMapping(clazz, vendor));
+		synchronized (registrationLock) {
+			if (!mappings.containsKey(clazz)) {
+				putMapping(clazz, new ClassRowMapping(clazz, vendor));
+			}
+		}
 	}
 	
+	/**
+	 * Thread-safe, replaces any previous registration of the same class
+	 * @param registration
+	 * @throws IllegalStateException if the mapper is frozen
+	 */
 	public void register(ClassRowRegistration registration) {
-		mappings.put(registration.getRegisteringClass(), new ClassRowMapping(registration, vendor));
+		synchronized (registrationLock) {
+			putMapping(registration.getRegisteringClass(), new ClassRowMapping(registration, vendor));
+			// Plans are keyed by mapping so plans of the previous mapping are never returned,
+			// clearing only frees them
+			rowPlanCache.clear();
+		}
 	}
 	
 	public void register(String packageName) {
@@ -378,7 +748,30 @@ public class JdbcMapper {
 		Insert insert = classRowMapping.getInsert();
 		JdbcStatement insertStatement = createQuery(insert).setParametersFrom(object, classRowMapping);
 		
-		save(connection, object, insertStatement, classRowMapping);
+		try {
+			save(connection, object, insertStatement, classRowMapping);
+		} finally {
+			// Nothing but a previous entity of the same ID, deleted outside of the mapper, could be cached
+			invalidateEntityCache(classRowMapping, object, null);
+		}
+	}
+
+	/**
+	 * Inserts entities in JDBC batches of at most {@link JdbcMapper#getBatchChunkSize()} rows,
+	 * setting the auto-increment ID of each entity from the generated keys
+	 * @param connection
+	 * @param objects entities, which may be of different classes
+	 * @return number of rows inserted for each entity in iteration order
+	 * @throws SQLException
+	 */
+	public int[] saveAll(Connection connection, Collection<?> objects) throws SQLException {
+		try {
+			return multiRowInsert
+					? saveAllMultiRow(connection, objects)
+					: executeBatches(connection, objects, BATCH_SAVE);
+		} finally {
+			invalidateEntityCaches(objects);
+		}
 	}
 
 	public int saveOrUpdate(Connection connection, Object object) throws SQLException {
@@ -390,7 +783,8 @@ public class JdbcMapper {
 		if (classRowMapping.isAutoIncrementId()) {
 			update = (int)id > 0;
 		} else {
-			Object currentDbRecord = get(connection, object.getClass(), id);
+			// Bypasses the entity cache, which could hold an entity deleted outside of the mapper
+			Object currentDbRecord = getFromDatabase(connection, object.getClass(), id, classRowMapping);
 			update = currentDbRecord != null;
 		}
 		
@@ -420,52 +814,94 @@ public class JdbcMapper {
 		ClassRowMapping classRowMapping = getClassRowMapping(object.getClass());
 		Update updateById = classRowMapping.getUpdateById();
 		JdbcStatement updateStatement = createQuery(updateById).setParametersFrom(object, classRowMapping);
-		boolean updated = update(connection, updateStatement, classRowMapping);
-		if (updated) {
-			classRowMapping.incrementVersion(object);
+		boolean updated = false;
+		try {
+			updated = update(connection, updateStatement, classRowMapping);
+			if (updated) {
+				classRowMapping.incrementVersion(object);
+			}
+		} finally {
+			invalidateEntityCache(classRowMapping, object, updated ? classRowMapping.getVersion(object) : null);
 		}
 		return updated;
 	}
 	
+	/**
+	 * Updates entities in JDBC batches of at most {@link JdbcMapper#getBatchChunkSize()} rows
+	 * @param connection
+	 * @param objects entities, which may be of different classes
+	 * @return number of rows updated for each entity in iteration order
+	 * @throws SQLException
+	 * @throws IllegalStateException if an entity with version control was updated or deleted by another transaction
+	 */
+	public int[] updateAll(Connection connection, Collection<?> objects) throws SQLException {
+		try {
+			return executeBatches(connection, objects, BATCH_UPDATE);
+		} finally {
+			invalidateEntityCaches(objects);
+		}
+	}
+	
 	/* END Public methods */
 	
 	/* START Package protected methods */
 	
-	<T> void forEach(Class<T> clazz, Select select, ResultSet rs, BiConsumer<? super T, ResultSetHelper> consumer) throws SQLException {
+	<T> void forEach(Class<T> clazz, RowPlan rowPlan, ResultSet rs, BiConsumer<? super T, ResultSetHelper> consumer) throws SQLException {
 		ResultSetHelper rsHelper = new ResultSetHelper(rs);
 		
-		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
-		List<FieldColumnMapping> columnMappings = getColumnMappings(classRowMapping, select);
-		
 		while (rs.next()) {
-			consumer.accept(createObject(clazz, columnMappings, rsHelper), rsHelper);
+			consumer.accept(rowPlan.createObject(clazz, rsHelper), rsHelper);
+		}
+	}
+	
+	/**
+	 * Returns the {@link RowPlan} cached for the current mapping of <b>clazz</b> and <b>sql</b>, creating it from
+	 * <b>select</b> if it does not exist
+	 * @param clazz
+	 * @param select supplies the query only if the plan is not cached
+	 * @param sql the SQL string printed from <b>select</b>
+	 * @return
+	 */
+	RowPlan getRowPlan(Class<?> clazz, Supplier<Select> select, String sql) {
+		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
+		RowPlan rowPlan = rowPlanCache.get(classRowMapping, sql);
+		if (rowPlan == null) {
+			rowPlan = new RowPlan(classRowMapping, getColumnMappings(classRowMapping, select.get()), typedColumnReaders);
+			rowPlanCache.put(classRowMapping, sql, rowPlan);
 		}
+		return rowPlan;
+	}
+	
+	/**
+	 * 
+	 * @param rowPlan
+	 * @param clazz
+	 * @return true if <b>rowPlan</b> was created from the current mapping of <b>clazz</b>
+	 * and with the current {@link JdbcMapper#isTypedColumnReaders()}
+	 */
+	boolean isCurrentRowPlan(RowPlan rowPlan, Class<?> clazz) {
+		return rowPlan.getClassRowMapping() == mappings.get(clazz)
+				&& rowPlan.hasColumnReaders() == typedColumnReaders;
 	}
 	
 	/**
 	 * WARN: This does not call ResultSet.next()
 	 * @param clazz
-	 * @param select
+	 * @param rowPlan
 	 * @param rs
 	 * @return
 	 * @throws SQLException
 	 */
-	<T> T toObject(Class<T> clazz, Select select, ResultSet rs) throws SQLException {
-		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
-		List<FieldColumnMapping> columnMappings = getColumnMappings(classRowMapping, select);
-
+	<T> T toObject(Class<T> clazz, RowPlan rowPlan, ResultSet rs) throws SQLException {
 		ResultSetHelper rsHelper = new ResultSetHelper(rs);
-		return createObject(clazz, columnMappings, rsHelper);
+		return rowPlan.createObject(clazz, rsHelper);
 	}
 	
-	<T> Collection<T> toCollection(Class<T> clazz, Select select, ResultSet rs, Collection<T> objects) throws SQLException {
+	<T> Collection<T> toCollection(Class<T> clazz, RowPlan rowPlan, ResultSet rs, Collection<T> objects) throws SQLException {
 		ResultSetHelper rsHelper = new ResultSetHelper(rs);
 		
-		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
-		List<FieldColumnMapping> columnMappings = getColumnMappings(classRowMapping, select);
-		
 		while (rs.next()) {
-			objects.add(createObject(clazz, columnMappings, rsHelper));
+			objects.add(rowPlan.createObject(clazz, rsHelper));
 		}
 		return objects;
 	}
@@ -473,17 +909,16 @@ public class JdbcMapper {
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	Map toMap(
 			Class<?> clazz,
-			Select select,
+			RowPlan rowPlan,
 			ResultSet rs,
 			Map map,
 			String mapKeyName) throws SQLException {
 		ResultSetHelper rsHelper = new ResultSetHelper(rs);
 		
-		ClassRowMapping classRowMapping = getClassRowMapping(clazz);
-		List<FieldColumnMapping> columnMappings = getColumnMappings(classRowMapping, select);
+		ClassRowMapping classRowMapping = rowPlan.getClassRowMapping();
 		
 		while (rs.next()) {
-			Object object = createObject(clazz, columnMappings, rsHelper);
+			Object object = rowPlan.createObject(clazz, rsHelper);
 			Object key = classRowMapping.getMapKeyValue(object, mapKeyName);
 			map.put(key, object);
 		}
@@ -514,6 +949,307 @@ public class JdbcMapper {
 		return deletedRows > 0;
 	}
 	
+	/**
+	 * Executes one batch of <b>chunk</b> entities, all of the same class, with <b>stmt</b>
+	 * @param rowCounts row counts of all entities, where the count of each entity of <b>chunk</b> is written
+	 * starting at <b>offset</b>
+	 */
+	private void executeBatch(
+			PreparedStatement stmt,
+			JdbcStatement statement,
+			ClassRowMapping classRowMapping,
+			List<Object> chunk,
+			int batchType,
+			int[] rowCounts,
+			int offset) throws SQLException {
+		for (Object object : chunk) {
+			setBatchParameters(statement, classRowMapping, object, batchType);
+			statement.setParameters(stmt);
+			stmt.addBatch();
+		}
+		
+		int[] batchRowCounts = stmt.executeBatch();
+		System.arraycopy(batchRowCounts, 0, rowCounts, offset, batchRowCounts.length);
+		
+		if (batchType == BATCH_SAVE && classRowMapping.isAutoIncrementId()) {
+			ResultSetHelper rs = null;
+			try {
+				rs = new ResultSetHelper(stmt.getGeneratedKeys());
+				for (Object object : chunk) {
+					classRowMapping.setAutoIncrementId(object, rs);
+				}
+			} finally {
+				JdbcUtils.closeQuietly(rs);
+			}
+		} else if (batchType != BATCH_SAVE) {
+			for (int rowCount : batchRowCounts) {
+				throwRowWasChanged(!isBatchRowAffected(rowCount), classRowMapping);
+			}
+		}
+		
+		if (batchType == BATCH_UPDATE) {
+			for (Object object : chunk) {
+				classRowMapping.incrementVersion(object);
+			}
+		}
+	}
+	
+	/**
+	 * Executes consecutive entities of the same class as batches of the same
+	 * <code>PreparedStatement</code>, in chunks of at most <code>batchChunkSize</code> entities
+	 */
+	private int[] executeBatches(Connection connection, Collection<?> objects, int batchType) throws SQLException {
+		int[] rowCounts = new int[objects.size()];
+		int chunkSize = batchChunkSize;
+		List<Object> chunk = new ArrayList<>(Math.min(chunkSize, objects.size()));
+		
+		ClassRowMapping classRowMapping = null;
+		JdbcStatement statement = null;
+		PreparedStatement stmt = null;
+		int index = 0;
+		try {
+			for (Object object : objects) {
+				ClassRowMapping objectMapping = getClassRowMapping(object.getClass());
+				
+				if (objectMapping != classRowMapping || chunk.size() == chunkSize) {
+					if (!chunk.isEmpty()) {
+						executeBatch(stmt, statement, classRowMapping, chunk, batchType, rowCounts, index - chunk.size());
+						chunk.clear();
+					}
+					
+					if (objectMapping != classRowMapping) {
+						JdbcUtils.closeQuietly(stmt);
+						stmt = null;
+						
+						classRowMapping = objectMapping;
+						statement = createQuery(getBatchStatement(classRowMapping, batchType));
+					}
+				}
+				
+				if (stmt == null) {
+					// Parameters must be set before the JDBC SQL can be created
+					setBatchParameters(statement, classRowMapping, object, batchType);
+					stmt = statement.createPreparedStatement(
+							connection,
+							batchType == BATCH_SAVE && classRowMapping.isAutoIncrementId());
+				}
+				
+				chunk.add(object);
+				index++;
+			}
+			
+			if (!chunk.isEmpty()) {
+				executeBatch(stmt, statement, classRowMapping, chunk, batchType, rowCounts, index - chunk.size());
+			}
+		} finally {
+			JdbcUtils.closeQuietly(stmt);
+		}
+		return rowCounts;
+	}
+	
+	private SqlStatement<?> getBatchStatement(ClassRowMapping classRowMapping, int batchType) {
+		switch (batchType) {
+			case BATCH_DELETE:
+				return classRowMapping.hasVersionControl() 
+						? classRowMapping.getDeleteByIdAndVersion() 
+						: classRowMapping.getDeleteById();
+			case BATCH_SAVE:
+				return classRowMapping.getInsert();
+			case BATCH_UPDATE:
+				return classRowMapping.getUpdateById();
+			default:
+				throw new IllegalArgumentException("unknown batchType (" + batchType + ")");
+		}
+	}
+	
+	/**
+	 * Executes the batch of multi-row INSERT statements of <b>stmt</b>
+	 * @param rowCounts row counts of all entities, where the count of each entity of the batch is written
+	 * starting at <b>offset</b>
+	 */
+	private void executeMultiRowBatch(PreparedStatement stmt, int rowsPerStatement, int[] rowCounts, int offset) throws SQLException {
+		int[] batchRowCounts = stmt.executeBatch();
+		
+		for (int i = 0; i < batchRowCounts.length; i++) {
+			// The row count of each entity is only known if all rows of the statement were inserted
+			int rowCount = batchRowCounts[i] == rowsPerStatement ? 1 : Statement.SUCCESS_NO_INFO;
+			int statementOffset = offset + i * rowsPerStatement;
+			Arrays.fill(rowCounts, statementOffset, statementOffset + rowsPerStatement, rowCount);
+		}
+	}
+	
+	private int[] saveAllMultiRow(Connection connection, Collection<?> objects) throws SQLException {
+		int[] rowCounts = new int[objects.size()];
+		List<Object> run = new ArrayList<>();
+		
+		ClassRowMapping classRowMapping = null;
+		int index = 0;
+		for (Object object : objects) {
+			ClassRowMapping objectMapping = getClassRowMapping(object.getClass());
+			
+			if (objectMapping != classRowMapping && !run.isEmpty()) {
+				saveMultiRow(connection, classRowMapping, run, rowCounts, index - run.size());
+				run.clear();
+			}
+			
+			classRowMapping = objectMapping;
+			run.add(object);
+			index++;
+		}
+		
+		if (!run.isEmpty()) {
+			saveMultiRow(connection, classRowMapping, run, rowCounts, index - run.size());
+		}
+		return rowCounts;
+	}
+	
+	/**
+	 * Inserts <b>objects</b>, all of the same class, with multi-row INSERT statements
+	 * of as many rows as the vendor allows, executed in JDBC batches of about <code>batchChunkSize</code> rows
+	 */
+	private void saveMultiRow(
+			Connection connection,
+			ClassRowMapping classRowMapping,
+			List<Object> objects,
+			int[] rowCounts,
+			int offset) throws SQLException {
+		if (classRowMapping.isAutoIncrementId()) {
+			int[] batchRowCounts = executeBatches(connection, objects, BATCH_SAVE);
+			System.arraycopy(batchRowCounts, 0, rowCounts, offset, batchRowCounts.length);
+			return;
+		}
+		
+		List<FieldColumnMapping> columnMappings = classRowMapping.getFieldColumnMappingList();
+		int maxRows = Math.min(
+				vendor.getMaxInsertRows(),
+				vendor.getMaxParameters() / Math.max(columnMappings.size(), 1));
+		int rowsPerStatement = Math.max(1, Math.min(maxRows, batchChunkSize));
+		int statementsPerBatch = Math.max(1, batchChunkSize / rowsPerStatement);
+		
+		JdbcStatement statement = null;
+		PreparedStatement stmt = null;
+		int statementRows = 0;
+		int batchedStatements = 0;
+		int batchOffset = offset;
+		try {
+			for (int start = 0; start < objects.size(); start += statementRows) {
+				int rows = Math.min(rowsPerStatement, objects.size() - start);
+				
+				if (rows != statementRows) {
+					// Only the last statement can have fewer rows
+					if (batchedStatements > 0) {
+						executeMultiRowBatch(stmt, statementRows, rowCounts, batchOffset);
+						batchOffset += batchedStatements * statementRows;
+						batchedStatements = 0;
+					}
+					JdbcUtils.closeQuietly(stmt);
+					stmt = null;
+					
+					statementRows = rows;
+					statement = createQuery(classRowMapping.getMultiRowInsert(rows));
+				}
+				
+				for (int row = 0; row < rows; row++) {
+					Object object = objects.get(start + row);
+					classRowMapping.setVersion(object);
+					
+					for (FieldColumnMapping columnMapping : columnMappings) {
+						statement.setParameter(
+								Insert.rowParamName(columnMapping.getColumn(), row),
+								columnMapping,
+								columnMapping.get(object));
+					}
+				}
+				
+				if (stmt == null) {
+					stmt = statement.createPreparedStatement(connection);
+				} else {
+					statement.setParameters(stmt);
+				}
+				stmt.addBatch();
+				
+				if (++batchedStatements == statementsPerBatch) {
+					executeMultiRowBatch(stmt, statementRows, rowCounts, batchOffset);
+					batchOffset += batchedStatements * statementRows;
+					batchedStatements = 0;
+				}
+			}
+			
+			if (batchedStatements > 0) {
+				executeMultiRowBatch(stmt, statementRows, rowCounts, batchOffset);
+			}
+		} finally {
+			JdbcUtils.closeQuietly(stmt);
+		}
+	}
+	
+	private void setBatchParameters(
+			JdbcStatement statement,
+			ClassRowMapping classRowMapping,
+			Object object,
+			int batchType) {
+		switch (batchType) {
+			case BATCH_DELETE:
+				classRowMapping.setIdParameters(statement, object);
+				classRowMapping.setVersionParameter(statement, object);
+				break;
+			case BATCH_SAVE:
+				classRowMapping.setVersion(object);
+				statement.setParametersFrom(object, classRowMapping);
+				break;
+			case BATCH_UPDATE:
+				statement.setParametersFrom(object, classRowMapping);
+				break;
+		}
+	}
+	
+	private <T> T getFromDatabase(
+			Connection connection,
+			Class<T> clazz,
+			Serializable id,
+			ClassRowMapping classRowMapping) throws SQLException {
+		Select selectById = classRowMapping.getSelectById();
+		JdbcStatement selectStatement = createQuery(selectById);
+		return uniqueResultById(connection, clazz, id, classRowMapping, selectStatement);
+	}
+	
+	/**
+	 * Removes <b>object</b>, which was written, from the entity cache of its class if enabled
+	 * @param version see {@link EntityCache#invalidate(Serializable, Object)}
+	 */
+	private void invalidateEntityCache(ClassRowMapping classRowMapping, Object object, Object version) {
+		EntityCache entityCache = entityCaches.get(object.getClass());
+		if (entityCache != null) {
+			entityCache.invalidate(classRowMapping.getOrCreateId(object), version);
+		}
+	}
+	
+	private void invalidateEntityCaches(Collection<?> objects) {
+		if (entityCaches.isEmpty()) {
+			return;
+		}
+		for (Object object : objects) {
+			ClassRowMapping classRowMapping = mappings.get(object.getClass());
+			if (classRowMapping != null) {
+				invalidateEntityCache(classRowMapping, object, null);
+			}
+		}
+	}
+	
+	/**
+	 * Must be called while holding <code>registrationLock</code>
+	 */
+	@SuppressWarnings("rawtypes")
+	private void putMapping(Class<?> clazz, ClassRowMapping classRowMapping) {
+		if (frozen) {
+			throw new IllegalStateException("JdbcMapper is frozen, cannot register " + clazz);
+		}
+		
+		Map<Class, ClassRowMapping> newMappings = new IdentityHashMap<>(mappings);
+		newMappings.put(clazz, classRowMapping);
+		mappings = Collections.unmodifiableMap(newMappings);
+	}
+	
 	private ClassRowMapping getClassRowMapping(Class<?> clazz) {
 		ClassRowMapping classRowMapping = mappings.get(clazz);
 		if (classRowMapping == null) {
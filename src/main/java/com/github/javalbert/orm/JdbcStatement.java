@@ -32,29 +32,43 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.javalbert.sqlbuilder.Node;
+import com.github.javalbert.sqlbuilder.NodeUtils;
 import com.github.javalbert.sqlbuilder.NodeVisitor;
 import com.github.javalbert.sqlbuilder.Param;
 import com.github.javalbert.sqlbuilder.Select;
 import com.github.javalbert.sqlbuilder.SqlStatement;
+import com.github.javalbert.sqlbuilder.dsl.DMLStatement;
+import com.github.javalbert.sqlbuilder.dsl.DSLRenderer;
 import com.github.javalbert.sqlbuilder.dsl.DSLTransformer;
-import com.github.javalbert.sqlbuilder.parser.SqlParser;
+import com.github.javalbert.sqlbuilder.vendor.Vendor;
 import com.github.javalbert.utils.ClassUtils;
+import com.github.javalbert.utils.jdbc.ConnectionSupplier;
 import com.github.javalbert.utils.jdbc.JdbcUtils;
 import com.github.javalbert.utils.jdbc.PreparedStatementImpl;
 import com.github.javalbert.utils.jdbc.ResultSetHelper;
+import com.github.javalbert.utils.jdbc.UncheckedSQLException;
 
 public class JdbcStatement {
 	private final static Logger logger = LoggerFactory.getLogger(JdbcStatement.class);
@@ -88,6 +102,32 @@ public class JdbcStatement {
 	
 	private static final Pattern PARAM_PATTERN = Pattern.compile(":\\w+");
 	
+	private static void cancelQuietly(Statement stmt) {
+		if (stmt == null) {
+			return;
+		}
+		try {
+			stmt.cancel();
+		} catch (SQLException e) {
+			logger.debug("Could not cancel statement", e);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param size
+	 * @param maxSize
+	 * @return the next power of 2 not less than <b>size</b>, but not greater than <b>maxSize</b>
+	 * unless <b>size</b> itself is greater
+	 */
+	private static int getPaddedSize(int size, int maxSize) {
+		int paddedSize = Integer.highestOneBit(size);
+		if (paddedSize < size) {
+			paddedSize <<= 1;
+		}
+		return Math.max(size, Math.min(paddedSize, maxSize));
+	}
+	
 	private static <T> Collection<T> toJdbcDataTypeCollection(
 			Class<T> clazz,
 			ResultSetHelper rs,
@@ -158,6 +198,11 @@ public class JdbcStatement {
 	
 	private List<int[]> batchRowCountsList;
 	private int batchSize = 0;
+	/**
+	 * DSL statement which is rendered directly to SQL, and only transformed into
+	 * <code>sqlStatement</code> when needed
+	 */
+	private DMLStatement dslStatement;
 	/**
 	 * Caching the prepared statement is useful for: 
 	 * <ul>
@@ -166,27 +211,54 @@ public class JdbcStatement {
 	 * </ul>
 	 */
 	private boolean cachePreparedStatement;
+	private int fetchSize;
+	private boolean forwardOnly;
 	private String jdbcSql;
 	private final JdbcMapper jdbcMapper;
 	private int maxBatchSize;
+	private boolean paddedInLists;
 	private final List<ParamIndex> paramIndices = new ArrayList<>();
 	private final Map<String, JdbcParam> params = new HashMap<>();
 	private PreparedStatement preparedStatement;
+	/**
+	 * Time spent printing the JDBC SQL, measured only when the mapper has an {@link ExecutionListener}
+	 */
+	private long printNanos;
+	/**
+	 * Row plan of the last query when there is no <code>statementSql</code> to memoize it on
+	 */
+	private RowPlan rowPlan;
 	private boolean shouldInitJdbcSql = true;
 	private boolean shouldInitSql = true;
 	private boolean shouldReplacePreparedStatement;
 	private String sql;
 	@SuppressWarnings("rawtypes")
 	private SqlStatement sqlStatement;
+	/**
+	 * Cached SQL and layouts of an immutable <code>sqlStatement</code> or SQL string, null otherwise
+	 */
+	private StatementSql statementSql;
+	private boolean streaming;
 	
 	public List<int[]> getBatchRowCountsList() { return batchRowCountsList; }
+	public int getFetchSize() { return fetchSize; }
+	public boolean isForwardOnly() { return forwardOnly; }
 	public int getMaxBatchSize() { return maxBatchSize; }
+	public boolean isPaddedInLists() { return paddedInLists; }
 	void setSql(String sql) {
 		this.sql = Objects.requireNonNull(sql, "sql cannot be null");
+		rowPlan = null;
 		shouldInitSql = false;
+		statementSql = null;
 	}
 	@SuppressWarnings("rawtypes")
-	public SqlStatement getSqlStatement() { return sqlStatement; }
+	public SqlStatement getSqlStatement() {
+		if (sqlStatement == null && dslStatement != null) {
+			sqlStatement = DSLTransformer.INSTANCE.build(dslStatement);
+		}
+		return sqlStatement;
+	}
+	public boolean isStreaming() { return streaming; }
 	
 	/* START Constructors */
 	
@@ -194,8 +266,9 @@ public class JdbcStatement {
 		this(jdbcMapper, (SqlStatement<?>)null);
 	}
 	
-	public JdbcStatement(JdbcMapper jdbcMapper, com.github.javalbert.sqlbuilder.dsl.DMLStatement stmt) {
-		this(jdbcMapper, DSLTransformer.INSTANCE.build(stmt));
+	public JdbcStatement(JdbcMapper jdbcMapper, DMLStatement stmt) {
+		this(jdbcMapper, (SqlStatement<?>)null);
+		dslStatement = Objects.requireNonNull(stmt, "stmt cannot be null");
 	}
 	
 	/**
@@ -205,23 +278,31 @@ public class JdbcStatement {
 	 */
 	public JdbcStatement(JdbcMapper jdbcMapper, SqlStatement<?> sqlStatement) {
 		this.jdbcMapper = Objects.requireNonNull(jdbcMapper, "jdbcMapper cannot be null");
+		paddedInLists = jdbcMapper.isPaddedInLists();
 		sqlStatement(sqlStatement);
 	}
 	
 	/**
 	 * If <b>sql</b> contains any parameters, they must be named parameters
-	 * i.e. instead of <code>?</code>, use <code>:parameterName</code>
+	 * i.e. instead of <code>?</code>, use <code>:parameterName</code><br>
+	 * <br>
+	 * <b>sql</b> is executed as it is, and {@link #getSqlStatement()} returns the immutable statement
+	 * parsed from it and shared through {@link JdbcMapper#getParseCache()}, so modifying it throws
+	 * an exception. If the parse cache normalizes literals, that statement has <code>:literalN</code>
+	 * parameters in place of literals, which are not in the executed SQL.
 	 * @param jdbcMapper
 	 * @param sql
 	 */
 	public JdbcStatement(JdbcMapper jdbcMapper, String sql) {
 		this.jdbcMapper = Objects.requireNonNull(jdbcMapper, "jdbcMapper cannot be null");
+		paddedInLists = jdbcMapper.isPaddedInLists();
 		
 		// Calling sqlStatement() will set shouldInitSql = true ...
-		sqlStatement(new SqlParser().parse(sql).getSqlStatement());
+		sqlStatement(jdbcMapper.getParseCache().parse(sql).getSqlStatement());
 		// ... while calling setSql() will set shouldInitSql = false
 		// which should improve performance
 		setSql(sql);
+		statementSql = jdbcMapper.getSqlCache().get(sql, () -> new StatementSql(sql, findParams()));
 	}
 	
 	/* END Constructors */
@@ -247,10 +328,36 @@ public class JdbcStatement {
 		initJdbcSql();
 		PreparedStatement stmt = null;
 		try {
-			stmt = autoGeneratedKeys 
-					? connection.prepareStatement(jdbcSql, Statement.RETURN_GENERATED_KEYS) 
-					: connection.prepareStatement(jdbcSql);
-			stmt = new PreparedStatementImpl(stmt, connection);
+			boolean forwardOnlyStatement = (forwardOnly || streaming) && !autoGeneratedKeys;
+			StatementCache statementCache = jdbcMapper.getStatementCache();
+			if (statementCache != null && !forwardOnlyStatement) {
+				stmt = statementCache.prepareStatement(connection, jdbcSql, autoGeneratedKeys);
+				// Resets the fetch size left by a previous use of a pooled statement
+				stmt.setFetchSize(fetchSize);
+			} else {
+				if (autoGeneratedKeys) {
+					stmt = connection.prepareStatement(jdbcSql, Statement.RETURN_GENERATED_KEYS);
+				} else if (forwardOnlyStatement) {
+					stmt = connection.prepareStatement(jdbcSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				} else {
+					stmt = connection.prepareStatement(jdbcSql);
+				}
+				stmt = new PreparedStatementImpl(stmt, connection);
+				if (forwardOnlyStatement) {
+					stmt.setFetchDirection(ResultSet.FETCH_FORWARD);
+				}
+				
+				int statementFetchSize = streaming ? jdbcMapper.getVendor().getStreamingFetchSize() : fetchSize;
+				if (statementFetchSize != 0) {
+					stmt.setFetchSize(statementFetchSize);
+				}
+			}
+			
+			ExecutionListener executionListener = jdbcMapper.getExecutionListener();
+			if (executionListener != null) {
+				stmt = new InstrumentedPreparedStatement(stmt, connection, executionListener, jdbcSql, printNanos);
+				printNanos = 0L;
+			}
 			setParameters(stmt);
 			return stmt;
 		} catch (SQLException e) {
@@ -273,6 +380,15 @@ public class JdbcStatement {
 		}
 	}
 	
+	/**
+	 * Executes the statement asynchronously like {@link JdbcStatement#toListAsync(ConnectionSupplier, Class)}
+	 * @param connectionSupplier
+	 * @return the number of rows updated
+	 */
+	public CompletableFuture<Integer> executeUpdateAsync(ConnectionSupplier connectionSupplier) {
+		return executeAsync(connectionSupplier, PreparedStatement::executeUpdate);
+	}
+	
 	public <T> void forEach(Connection connection, Class<T> clazz, Consumer<? super T> consumer)
 			throws SQLException {
 		forEach(connection, clazz, (obj, rs) -> consumer.accept(obj));
@@ -290,7 +406,57 @@ public class JdbcStatement {
 			stmt = getPreparedStatement(connection);
 			rs = stmt.executeQuery();
 			
-			jdbcMapper.forEach(clazz, (Select)sqlStatement, rs, consumer);
+			jdbcMapper.forEach(clazz, getRowPlan(clazz), rs, consumer);
+		} catch (SQLException e) {
+			throw e;
+		} finally {
+			JdbcUtils.closeQuietly(rs);
+			close(stmt);
+		}
+	}
+	
+	/**
+	 * Maps rows to entities in chunks of at most <b>chunkSize</b>, passing each chunk to <b>consumer</b>.
+	 * The same list is reused for every chunk, so copy it to keep its entities. Along with
+	 * <code>streaming(true)</code>, rows are processed in constant memory.<br>
+	 * <br>
+	 * Unless a fetch size was set, the driver is asked to fetch <b>chunkSize</b> rows at a time.
+	 * @param connection
+	 * @param clazz
+	 * @param chunkSize
+	 * @param consumer
+	 * @throws SQLException
+	 */
+	public <T> void forEachChunk(
+			Connection connection,
+			Class<T> clazz,
+			int chunkSize,
+			Consumer<? super List<T>> consumer)
+			throws SQLException {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be greater than 0");
+		}
+		List<T> chunk = new ArrayList<>(chunkSize);
+		PreparedStatement stmt = null;
+		ResultSet rs = null;
+		
+		try {
+			stmt = getPreparedStatement(connection);
+			if (fetchSize == 0 && !streaming) {
+				stmt.setFetchSize(chunkSize);
+			}
+			rs = stmt.executeQuery();
+			
+			jdbcMapper.forEach(clazz, getRowPlan(clazz), rs, (object, row) -> {
+				chunk.add(object);
+				if (chunk.size() == chunkSize) {
+					consumer.accept(chunk);
+					chunk.clear();
+				}
+			});
+			if (!chunk.isEmpty()) {
+				consumer.accept(chunk);
+			}
 		} catch (SQLException e) {
 			throw e;
 		} finally {
@@ -364,7 +530,7 @@ public class JdbcStatement {
 		try {
 			stmt = getPreparedStatement(connection);
 			rs = stmt.executeQuery();
-			return rs.next() ? jdbcMapper.toObject(clazz, (Select)sqlStatement, rs) : null;
+			return rs.next() ? jdbcMapper.toObject(clazz, getRowPlan(clazz), rs) : null;
 		} catch (SQLException e) {
 			throw e;
 		} finally {
@@ -373,7 +539,44 @@ public class JdbcStatement {
 		}
 	}
 	
+	/**
+	 * Returns a stream of entities mapped lazily from an open <code>ResultSet</code>, so rows are not
+	 * buffered in memory. The <code>ResultSet</code> and <code>PreparedStatement</code> are closed
+	 * when the last row is consumed, an error occurs, or the stream is closed.<br>
+	 * <br>
+	 * Use try-with-resources if the stream may not be fully consumed e.g. <code>findFirst()</code>
+	 * or <code>limit(long)</code>. See <code>JdbcStatement.fetchSize(int)</code> to limit rows
+	 * fetched by the driver at a time.
+	 * @param connection
+	 * @param clazz
+	 * @return
+	 * @throws SQLException
+	 */
+	public <T> Stream<T> stream(Connection connection, Class<T> clazz) throws SQLException {
+		PreparedStatement stmt = null;
+		ResultSet rs = null;
+		
+		try {
+			stmt = getPreparedStatement(connection);
+			rs = stmt.executeQuery();
+			
+			RowIterator<T> iterator = new RowIterator<>(clazz, getRowPlan(clazz), stmt, rs);
+			return StreamSupport.stream(
+					Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+					false)
+					.onClose(iterator::close);
+		} catch (SQLException | RuntimeException e) {
+			JdbcUtils.closeQuietly(rs);
+			close(stmt);
+			throw e;
+		}
+	}
+	
 	public void setParameters(PreparedStatement stmt) throws SQLException {
+		InstrumentedPreparedStatement instrumentedStmt = stmt instanceof InstrumentedPreparedStatement
+				? (InstrumentedPreparedStatement)stmt : null;
+		long start = instrumentedStmt != null ? System.nanoTime() : 0L;
+		
 		for (ParamIndex index : paramIndices) {
 			JdbcParam param = index.getParam();
 			int parameterIndex = index.getIndex();
@@ -529,6 +732,12 @@ public class JdbcStatement {
 					break;
 			}
 		}
+		
+		if (instrumentedStmt != null) {
+			int parameterCount = !paramIndices.isEmpty()
+					? paramIndices.get(paramIndices.size() - 1).getNextIndex() - 1 : 0;
+			instrumentedStmt.bound(parameterCount, System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -567,7 +776,7 @@ public class JdbcStatement {
 			ResultSet rs,
 			Collection<T> collection)
 			throws SQLException {
-		return jdbcMapper.toCollection(clazz, (Select)sqlStatement, rs, collection);
+		return jdbcMapper.toCollection(clazz, getRowPlan(clazz), rs, collection);
 	}
 	
 	public <T> Collection<T> toCollection(
@@ -576,17 +785,13 @@ public class JdbcStatement {
 			Collection<T> collection)
 			throws SQLException {
 		PreparedStatement stmt = null;
-		ResultSet rs = null;
 		
 		try {
 			stmt = getPreparedStatement(connection);
-			rs = stmt.executeQuery();
-			
-			return toCollection(clazz, rs, collection);
+			return toCollection(stmt, clazz, collection);
 		} catch (SQLException e) {
 			throw e;
 		} finally {
-			JdbcUtils.closeQuietly(rs);
 			close(stmt);
 		}
 	}
@@ -635,6 +840,20 @@ public class JdbcStatement {
 		return list;
 	}
 	
+	/**
+	 * Executes the query on the executor of {@link JdbcMapper#getAsyncExecutor()}, with a connection of
+	 * <b>connectionSupplier</b> that is closed afterwards, so that independent queries can run in parallel.<br>
+	 * <br>
+	 * Cancelling the returned future cancels the running statement with {@link Statement#cancel()}.
+	 * Do not modify this <code>JdbcStatement</code> until the future is complete.
+	 * @param connectionSupplier
+	 * @param clazz
+	 * @return
+	 */
+	public <T> CompletableFuture<List<T>> toListAsync(ConnectionSupplier connectionSupplier, Class<T> clazz) {
+		return executeAsync(connectionSupplier, stmt -> (List<T>)toCollection(stmt, clazz, new ArrayList<>()));
+	}
+	
 	public List<Map<String, Object>> toListOfMaps(Connection connection) throws SQLException {
 		PreparedStatement stmt = null;
 		ResultSet rs = null;
@@ -670,7 +889,7 @@ public class JdbcStatement {
 			stmt = getPreparedStatement(connection);
 			rs = stmt.executeQuery();
 			
-			return jdbcMapper.toMap(clazz, (Select)sqlStatement, rs, map, mapKeyName);
+			return jdbcMapper.toMap(clazz, getRowPlan(clazz), rs, map, mapKeyName);
 		} catch (SQLException e) {
 			throw e;
 		} finally {
@@ -710,29 +929,27 @@ public class JdbcStatement {
 	
 	public <T> T uniqueResult(Connection connection, Class<T> clazz) throws SQLException {
 		PreparedStatement stmt = null;
-		ResultSet rs = null;
 		
 		try {
 			stmt = getPreparedStatement(connection);
-			rs = stmt.executeQuery();
-			
-			if (!rs.next()) {
-				return null;
-			}
-			T object = jdbcMapper.toObject(clazz, (Select)sqlStatement, rs);
-			
-			if (rs.next()) {
-				throw new SQLException("object of the type (" + clazz + ") is not unique");
-			}
-			return object;
+			return uniqueResult(stmt, clazz);
 		} catch (SQLException e) {
 			throw e;
 		} finally {
-			JdbcUtils.closeQuietly(rs);
 			close(stmt);
 		}
 	}
 	
+	/**
+	 * Executes the query asynchronously like {@link JdbcStatement#toListAsync(ConnectionSupplier, Class)}
+	 * @param connectionSupplier
+	 * @param clazz
+	 * @return
+	 */
+	public <T> CompletableFuture<T> uniqueResultAsync(ConnectionSupplier connectionSupplier, Class<T> clazz) {
+		return executeAsync(connectionSupplier, stmt -> uniqueResult(stmt, clazz));
+	}
+	
 	/* BEGIN Fluent API */
 
 	/**
@@ -825,6 +1042,46 @@ public class JdbcStatement {
 		return this;
 	}
 
+	/**
+	 * 
+	 * @param fetchSize hint for the number of rows the driver fetches at a time,
+	 * 0 (default) uses the driver's default. Applies to <code>PreparedStatement</code>s created afterwards.
+	 * @return
+	 */
+	public JdbcStatement fetchSize(int fetchSize) {
+		if (fetchSize < 0) {
+			throw new IllegalArgumentException("fetchSize cannot be negative");
+		}
+		this.fetchSize = fetchSize;
+		shouldReplacePreparedStatement = true;
+		return this;
+	}
+	
+	/**
+	 * 
+	 * @param forwardOnly if true, queries create <code>TYPE_FORWARD_ONLY</code>, <code>CONCUR_READ_ONLY</code>
+	 * result sets read in the <code>FETCH_FORWARD</code> direction, which some drivers require to avoid
+	 * buffering or scrolling cursors. Applies to <code>PreparedStatement</code>s created afterwards.
+	 * @return
+	 */
+	public JdbcStatement forwardOnly(boolean forwardOnly) {
+		this.forwardOnly = forwardOnly;
+		shouldReplacePreparedStatement = true;
+		return this;
+	}
+	
+	/**
+	 * 
+	 * @param paddedInLists if true, collections set afterwards by the <code>set*(String, Collection)</code> methods
+	 * are padded to the next power of 2 by repeating their last value, so that IN lists of different
+	 * sizes share a few JDBC SQL strings. Defaults to {@link JdbcMapper#isPaddedInLists()}.
+	 * @return
+	 */
+	public JdbcStatement paddedInLists(boolean paddedInLists) {
+		this.paddedInLists = paddedInLists;
+		return this;
+	}
+	
 	public JdbcStatement maxBatchSize(int maxBatchSize) {
 		this.maxBatchSize = maxBatchSize;
 		return this;
@@ -989,8 +1246,10 @@ public class JdbcStatement {
 	}
 	
 	public JdbcStatement setParameter(FieldColumnMapping fieldColumnMapping, Object x) {
-		String name = fieldColumnMapping.getColumn();
-		
+		return setParameter(fieldColumnMapping.getColumn(), fieldColumnMapping, x);
+	}
+	
+	public JdbcStatement setParameter(String name, FieldColumnMapping fieldColumnMapping, Object x) {
 		switch (fieldColumnMapping.getJdbcType()) {
 			case FieldColumnMapping.JDBC_TYPE_BIG_DECIMAL: setBigDecimal(name, (BigDecimal)x); break;
 			case FieldColumnMapping.JDBC_TYPE_BOOLEAN: setBoolean(name, (Boolean)x); break;
@@ -1093,15 +1352,56 @@ public class JdbcStatement {
 		return setCollection(name, PARAM_TYPE_LIST_TIMESTAMP, timestamps);
 	}
 	
+	/**
+	 * 
+	 * @param streaming if true, queries are forward-only (see {@link JdbcStatement#forwardOnly(boolean)})
+	 * with the fetch size of {@link Vendor#getStreamingFetchSize()} instead of <code>fetchSize</code>,
+	 * so that drivers stream rows instead of reading the whole result set into memory first e.g. MySQL.
+	 * Some drivers also require the connection to be outside of auto-commit e.g. PostgreSQL.
+	 * Applies to <code>PreparedStatement</code>s created afterwards.
+	 * @return
+	 */
+	public JdbcStatement streaming(boolean streaming) {
+		this.streaming = streaming;
+		shouldReplacePreparedStatement = true;
+		return this;
+	}
+	
 	public JdbcStatement sqlStatement(SqlStatement<?> sqlStatement) {
 		this.sqlStatement = sqlStatement;
+		dslStatement = null;
+		rowPlan = null;
 		shouldInitJdbcSql = true;
 		shouldInitSql = true;
+		statementSql = null;
 		return this;
 	}
 	
 	/* END Fluent API */
 	
+	/* BEGIN Package protected methods */
+	
+	RowPlan getRowPlan(Class<?> clazz) {
+		initSql();
+		
+		// Memoized on the cached SQL so that queries of the same statement
+		// only go through the RowPlanCache the first time
+		RowPlan rowPlan = statementSql != null ? statementSql.getRowPlan() : this.rowPlan;
+		if (rowPlan != null && jdbcMapper.isCurrentRowPlan(rowPlan, clazz)) {
+			return rowPlan;
+		}
+		
+		rowPlan = jdbcMapper.getRowPlan(clazz, () -> (Select)getSqlStatement(), sql);
+		if (statementSql != null) {
+			statementSql.setRowPlan(rowPlan);
+		} else {
+			this.rowPlan = rowPlan;
+		}
+		return rowPlan;
+	}
+	
+	/* END Package protected methods */
+	
 	/* BEGIN Private methods */
 
 	private void addBatch0() throws SQLException {
@@ -1113,6 +1413,54 @@ public class JdbcStatement {
 		}
 	}
 	
+	/**
+	 * Runs <b>callback</b> on the async executor with a new <code>PreparedStatement</code> of a connection
+	 * of <b>connectionSupplier</b>, cancelling the statement if the returned future is cancelled
+	 */
+	private <R> CompletableFuture<R> executeAsync(ConnectionSupplier connectionSupplier, StatementCallback<R> callback) {
+		Objects.requireNonNull(connectionSupplier, "connectionSupplier cannot be null");
+		CompletableFuture<R> future = new CompletableFuture<>();
+		AtomicReference<PreparedStatement> runningStatement = new AtomicReference<>();
+		future.whenComplete((result, e) -> {
+			if (future.isCancelled()) {
+				cancelQuietly(runningStatement.get());
+			}
+		});
+		
+		Executor executor = jdbcMapper.getAsyncExecutor();
+		try {
+			executor.execute(() -> {
+				if (future.isDone()) {
+					return;
+				}
+				
+				Connection connection = null;
+				PreparedStatement stmt = null;
+				try {
+					connection = connectionSupplier.getConnection();
+					stmt = createPreparedStatement(connection);
+					runningStatement.set(stmt);
+					// Cancelling a statement that is not executing yet does nothing on most drivers,
+					// so a future cancelled while preparing the statement must not execute it
+					if (future.isCancelled()) {
+						return;
+					}
+					future.complete(callback.execute(stmt));
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				} finally {
+					runningStatement.set(null);
+					JdbcUtils.closeQuietly(stmt);
+					JdbcUtils.closeQuietly(connection);
+				}
+			});
+		} catch (RuntimeException e) {
+			// e.g. RejectedExecutionException
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+	
 	private void addParamIndex(JdbcParam param) {
 		int index = 1;
 		
@@ -1147,28 +1495,14 @@ public class JdbcStatement {
 	
 	private Set<String> findParams() {
 		ParamFinder finder = new ParamFinder();
-		sqlStatement.accept(finder);
+		getSqlStatement().accept(finder);
 		return finder.getNames();
 	}
 	
-	/**
-	 * jdbcSql and paramIndices are nullified and cleared respectively
-	 * @return true if JDBC SQL string was (re-)initialized
-	 */
-	private void initJdbcSql() {
-		if (!shouldInitJdbcSql) {
-			return;
-		}
-		initSql();
-		
-		jdbcSql = null;
-		paramIndices.clear();
-		shouldInitJdbcSql = false;
-		shouldReplacePreparedStatement = true;
-		
+	private StatementSql.Layout createLayout(Set<String> paramNames) {
+		List<String> placeholderParamNames = new ArrayList<>();
 		StringBuilder builder = new StringBuilder();
 		int index = 0;
-		Set<String> paramNames = findParams();
 		
 		Matcher matcher = PARAM_PATTERN.matcher(sql);
 		while (matcher.find()) {
@@ -1181,7 +1515,7 @@ public class JdbcStatement {
 			JdbcParam param = paramNames.contains(paramName) ? 
 					params.get(paramName) : null;
 			if (param != null) {
-				addParamIndex(param);
+				placeholderParamNames.add(paramName);
 				appendPlaceholders(builder, param);
 			} else {
 				builder.append(paramPart);
@@ -1193,24 +1527,120 @@ public class JdbcStatement {
 			builder.append(sql.substring(index));
 		}
 		
-		jdbcSql = builder.toString();
+		return new StatementSql.Layout(
+				builder.toString(),
+				placeholderParamNames.toArray(new String[placeholderParamNames.size()]));
+	}
+	
+	private int[] getParamSizes(String[] paramNames) {
+		int[] paramSizes = new int[paramNames.length];
+		for (int i = 0; i < paramNames.length; i++) {
+			JdbcParam param = params.get(paramNames[i]);
+			
+			if (param == null) {
+				paramSizes[i] = StatementSql.PARAM_SIZE_NOT_SET;
+			} else if (param.isCollection()) {
+				paramSizes[i] = ((CollectionParam)param).getCollection().size();
+			} else {
+				paramSizes[i] = StatementSql.PARAM_SIZE_SINGLE;
+			}
+		}
+		return paramSizes;
+	}
+	
+	/**
+	 * jdbcSql and paramIndices are nullified and cleared respectively
+	 * @return true if JDBC SQL string was (re-)initialized
+	 */
+	private void initJdbcSql() {
+		if (!shouldInitJdbcSql) {
+			return;
+		}
+		boolean measured = jdbcMapper.getExecutionListener() != null;
+		long start = measured ? System.nanoTime() : 0L;
+		initSql();
+		
+		jdbcSql = null;
+		paramIndices.clear();
+		shouldInitJdbcSql = false;
+		shouldReplacePreparedStatement = true;
+		
+		StatementSql.Layout layout = null;
+		if (statementSql != null) {
+			int[] paramSizes = getParamSizes(statementSql.getParamNames());
+			layout = statementSql.getLayout(paramSizes);
+			
+			if (layout == null) {
+				layout = createLayout(statementSql.getParamNameSet());
+				statementSql.putLayout(paramSizes, layout);
+			}
+		} else {
+			layout = createLayout(findParams());
+		}
+		
+		for (String paramName : layout.getParamNames()) {
+			addParamIndex(params.get(paramName));
+		}
+		jdbcSql = layout.getJdbcSql();
+		printNanos = measured ? System.nanoTime() - start : 0L;
 	}
 	
+	@SuppressWarnings("unchecked")
 	private void initSql() {
 		if (!shouldInitSql) {
 			return;
-		} else if (sqlStatement == null) {
+		} else if (sqlStatement == null && dslStatement == null) {
 			throw new IllegalStateException("sqlStatement is null, call JdbcStatement.sqlStatement(SqlStatement) method or construct JdbcStatement with SqlStatement parameter");
 		}
 		
-		setSql(jdbcMapper.getVendor().print(sqlStatement));
+		if (sqlStatement == null) {
+			// DSL statements are keyed by identity, so their SQL is only cached if the mapper is told they are reused
+			StatementSql statementSql = jdbcMapper.isCachedDslSql()
+					? jdbcMapper.getSqlCache().get(dslStatement, this::renderDslStatement)
+					: renderDslStatement();
+			setSql(statementSql.getSql());
+			this.statementSql = statementSql;
+		} else if (NodeUtils.isImmutable(sqlStatement)) {
+			StatementSql statementSql = jdbcMapper.getSqlCache().get(
+					sqlStatement,
+					() -> new StatementSql(jdbcMapper.getVendor().print(sqlStatement), findParams()));
+			setSql(statementSql.getSql());
+			this.statementSql = statementSql;
+		} else {
+			setSql(jdbcMapper.getVendor().print(sqlStatement));
+		}
 		logger.debug("JdbcStatement sql: {}", sql);
 	}
 	
+	private Collection<?> padCollection(Collection<?> x) {
+		int paddedSize = getPaddedSize(x.size(), jdbcMapper.getVendor().getMaxParameters());
+		if (paddedSize == x.size()) {
+			return x;
+		}
+		
+		List<Object> paddedCollection = new ArrayList<>(paddedSize);
+		paddedCollection.addAll(x);
+		
+		Object last = paddedCollection.get(paddedCollection.size() - 1);
+		while (paddedCollection.size() < paddedSize) {
+			paddedCollection.add(last);
+		}
+		return paddedCollection;
+	}
+	
+	private StatementSql renderDslStatement() {
+		Set<String> paramNames = new HashSet<>();
+		String sql = new DSLRenderer(jdbcMapper.getVendor()).render(dslStatement, paramNames);
+		return new StatementSql(sql, paramNames);
+	}
+	
 	private JdbcStatement setCollection(String name, int paramType, Collection<?> x) {
 		if (x == null || x.isEmpty()) {
 			throw new IllegalArgumentException("collection of param '" + name + "' cannot be null or empty");
 		}
+		if (paddedInLists) {
+			x = padCollection(x);
+		}
 		
 		CollectionParam param = (CollectionParam)params.get(name);
 		
@@ -1239,6 +1669,16 @@ public class JdbcStatement {
 		return this;
 	}
 	
+	private <T> Collection<T> toCollection(PreparedStatement stmt, Class<T> clazz, Collection<T> collection) throws SQLException {
+		ResultSet rs = null;
+		try {
+			rs = stmt.executeQuery();
+			return toCollection(clazz, rs, collection);
+		} finally {
+			JdbcUtils.closeQuietly(rs);
+		}
+	}
+	
 	private List<Map<String, Object>> toListOfMaps(ResultSet rs) throws SQLException {
 		final ResultSetMetaData rsmd = rs.getMetaData();
 		final int columnCount = rsmd.getColumnCount();
@@ -1268,6 +1708,25 @@ public class JdbcStatement {
 		return resultList;
 	}
 	
+	private <T> T uniqueResult(PreparedStatement stmt, Class<T> clazz) throws SQLException {
+		ResultSet rs = null;
+		try {
+			rs = stmt.executeQuery();
+			
+			if (!rs.next()) {
+				return null;
+			}
+			T object = jdbcMapper.toObject(clazz, getRowPlan(clazz), rs);
+			
+			if (rs.next()) {
+				throw new SQLException("object of the type (" + clazz + ") is not unique");
+			}
+			return object;
+		} finally {
+			JdbcUtils.closeQuietly(rs);
+		}
+	}
+	
 	/* END Private methods */
 	
 	/* BEGIN Inner classes */
@@ -1384,6 +1843,83 @@ public class JdbcStatement {
 		}
 	}
 	
+	/**
+	 * Maps a row when {@link RowIterator#next()} is called, and closes the <code>ResultSet</code>
+	 * and <code>PreparedStatement</code> once there are no more rows
+	 */
+	private class RowIterator<T> implements Iterator<T> {
+		private final Class<T> clazz;
+		private boolean closed;
+		private boolean hasNext;
+		private boolean nextFetched;
+		private final ResultSet rs;
+		private final ResultSetHelper rsHelper;
+		private final RowPlan rowPlan;
+		private final PreparedStatement stmt;
+		
+		public RowIterator(Class<T> clazz, RowPlan rowPlan, PreparedStatement stmt, ResultSet rs) {
+			this.clazz = clazz;
+			this.rowPlan = rowPlan;
+			this.rs = rs;
+			this.stmt = stmt;
+			rsHelper = new ResultSetHelper(rs);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (closed) {
+				return false;
+			} else if (nextFetched) {
+				return hasNext;
+			}
+			
+			try {
+				hasNext = rs.next();
+				nextFetched = true;
+			} catch (SQLException e) {
+				close();
+				throw new UncheckedSQLException(e);
+			}
+			
+			if (!hasNext) {
+				close();
+			}
+			return hasNext;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			nextFetched = false;
+			
+			try {
+				return rowPlan.createObject(clazz, rsHelper);
+			} catch (SQLException e) {
+				close();
+				throw new UncheckedSQLException(e);
+			} catch (RuntimeException e) {
+				close();
+				throw e;
+			}
+		}
+		
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			JdbcUtils.closeQuietly(rs);
+			JdbcStatement.this.close(stmt);
+		}
+	}
+	
+	@FunctionalInterface
+	private interface StatementCallback<R> {
+		R execute(PreparedStatement stmt) throws SQLException;
+	}
+	
 	private class ParamIndex {
 		private final JdbcParam param;
 		private final int index;
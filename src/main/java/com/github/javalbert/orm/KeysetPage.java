@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of entities of a {@link KeysetPager}
+ */
+public class KeysetPage<T> {
+	private final String continuationToken;
+	private final List<T> items;
+	
+	/**
+	 * 
+	 * @return token of the next page, or null if this is the last page
+	 */
+	public String getContinuationToken() { return continuationToken; }
+	public List<T> getItems() { return items; }
+	
+	public KeysetPage(List<T> items, String continuationToken) {
+		this.continuationToken = continuationToken;
+		this.items = Collections.unmodifiableList(items);
+	}
+	
+	public boolean hasNext() {
+		return continuationToken != null;
+	}
+}
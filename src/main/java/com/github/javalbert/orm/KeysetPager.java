@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.github.javalbert.sqlbuilder.Column;
+import com.github.javalbert.sqlbuilder.Condition;
+import com.github.javalbert.sqlbuilder.ExpressionBuilder;
+import com.github.javalbert.sqlbuilder.Fetch;
+import com.github.javalbert.sqlbuilder.Function;
+import com.github.javalbert.sqlbuilder.Node;
+import com.github.javalbert.sqlbuilder.Offset;
+import com.github.javalbert.sqlbuilder.OrderBy;
+import com.github.javalbert.sqlbuilder.Predicate;
+import com.github.javalbert.sqlbuilder.Select;
+import com.github.javalbert.sqlbuilder.SortType;
+import com.github.javalbert.sqlbuilder.Where;
+import com.github.javalbert.sqlbuilder.vendor.Vendor;
+
+/**
+ * Pages through the entities of a {@link Select} with an {@link OrderBy}, such as one of
+ * {@link JdbcMapper#selectFrom(Class)}, by seeking past the ORDER BY columns of the last entity
+ * of the previous page instead of skipping rows with OFFSET, so that deep pages are as fast as the first.<br>
+ * <br>
+ * The next page is selected with a row value comparison e.g. <code>(a, b) &gt; (:keyset_0, :keyset_1)</code>,
+ * or with <code>a &gt; :keyset_0 OR (a = :keyset_0 AND b &gt; :keyset_1)</code> if the columns are
+ * sorted in different directions or the vendor does not support row value comparisons
+ * (see {@link Vendor#supportsRowValueComparison()}).<br>
+ * <br>
+ * The ORDER BY columns must be mapped by the entity class, must not be NULL, and together must be unique
+ * e.g. end with the primary key. Thread-safe.
+ */
+public class KeysetPager<T> {
+	public static final String PARAM_PREFIX = "keyset_";
+	
+	private static final int TOKEN_VERSION = 1;
+	
+	private static void appendColumn(ExpressionBuilder<?> builder, Column column) {
+		if (column.getPrefix() != null) {
+			switch (column.getPrefix()) {
+				case TABLE_ALIAS: builder.tableAlias(column.getPrefixValue()); break;
+				case TABLE_NAME: builder.tableName(column.getPrefixValue()); break;
+			}
+		}
+		builder.column(column.getName());
+	}
+	
+	private static Predicate createColumnPredicate(Column column) {
+		Predicate predicate = new Predicate();
+		appendColumn(predicate, column);
+		return predicate;
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private static int indexOf(List<Node> nodes, int type) {
+		for (int i = 0; i < nodes.size(); i++) {
+			if (nodes.get(i).getType() == type) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private static String paramName(int index) {
+		return PARAM_PREFIX + index;
+	}
+	
+	private final Class<T> clazz;
+	private final Select firstPageSelect;
+	private final JdbcMapper jdbcMapper;
+	private final FieldColumnMapping[] keyMappings;
+	private final Select nextPageSelect;
+	private final int pageSize;
+	
+	/**
+	 * 
+	 * @return the immutable SELECT statement of the first page
+	 */
+	public Select getFirstPageSelect() { return firstPageSelect; }
+	/**
+	 * 
+	 * @return the immutable SELECT statement of the pages after the first
+	 */
+	public Select getNextPageSelect() { return nextPageSelect; }
+	public int getPageSize() { return pageSize; }
+	
+	/**
+	 * 
+	 * @param jdbcMapper
+	 * @param clazz a registered entity class
+	 * @param select a SELECT statement with an ORDER BY but without OFFSET or FETCH, which is copied
+	 * @param pageSize
+	 * @throws IllegalArgumentException if <b>select</b> cannot be paged by its ORDER BY
+	 * @throws IllegalStateException if <b>clazz</b> is not registered
+	 */
+	@SuppressWarnings("rawtypes")
+	public KeysetPager(JdbcMapper jdbcMapper, Class<T> clazz, Select select, int pageSize) {
+		this.jdbcMapper = Objects.requireNonNull(jdbcMapper, "jdbcMapper cannot be null");
+		this.clazz = Objects.requireNonNull(clazz, "clazz cannot be null");
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("pageSize must be greater than 0");
+		}
+		this.pageSize = pageSize;
+		
+		ClassRowMapping classRowMapping = jdbcMapper.getMappings().get(clazz);
+		if (classRowMapping == null) {
+			throw new IllegalStateException("Entity " + clazz + " not registered");
+		}
+		
+		OrderBy orderBy = null;
+		for (Node node : select.getNodes()) {
+			switch (node.getType()) {
+				case Node.TYPE_FETCH:
+				case Node.TYPE_OFFSET:
+				case Node.TYPE_SET_OPERATOR:
+					throw new IllegalArgumentException("select cannot have OFFSET, FETCH or set operators");
+				case Node.TYPE_ORDER_BY:
+					orderBy = (OrderBy)node;
+					break;
+			}
+		}
+		if (orderBy == null) {
+			throw new IllegalArgumentException("select must have an ORDER BY");
+		}
+		if (indexOf(select.getNodes(), Node.TYPE_FROM) == -1) {
+			throw new IllegalArgumentException("select must have a FROM");
+		}
+		
+		List<Column> columns = new ArrayList<>();
+		List<Boolean> descending = new ArrayList<>();
+		for (Node node : orderBy.getNodes()) {
+			if (node.getType() == Node.TYPE_COLUMN) {
+				Column column = (Column)node;
+				if (column.getName() == null) {
+					throw new IllegalArgumentException("cannot seek by the select list alias " + column.getAlias());
+				}
+				columns.add(column);
+				descending.add(false);
+			} else if (node == SortType.DESC) {
+				descending.set(descending.size() - 1, true);
+			}
+		}
+		
+		keyMappings = new FieldColumnMapping[columns.size()];
+		for (int i = 0; i < keyMappings.length; i++) {
+			keyMappings[i] = classRowMapping.getFieldColumnMappings().get(columns.get(i).getName());
+			if (keyMappings[i] == null) {
+				throw new IllegalArgumentException("ORDER BY column " + columns.get(i).getName()
+						+ " is not mapped in the class (" + clazz + ")");
+			}
+		}
+		
+		firstPageSelect = createPageSelect(select, null);
+		nextPageSelect = createPageSelect(select, createSeekCondition(columns, descending));
+	}
+	
+	public KeysetPage<T> getPage(Connection connection, String continuationToken) throws SQLException {
+		return getPage(connection, continuationToken, null);
+	}
+	
+	/**
+	 * 
+	 * @param connection
+	 * @param continuationToken the token of the previous page, or null for the first page
+	 * @param parameters sets the parameters of the SELECT statement given to the constructor, may be null
+	 * @return
+	 * @throws SQLException
+	 * @throws IllegalArgumentException if <b>continuationToken</b> is invalid
+	 */
+	public KeysetPage<T> getPage(
+			Connection connection,
+			String continuationToken,
+			Consumer<JdbcStatement> parameters) throws SQLException {
+		JdbcStatement statement = jdbcMapper.createQuery(continuationToken != null ? nextPageSelect : firstPageSelect);
+		if (continuationToken != null) {
+			Object[] keys = decode(continuationToken);
+			for (int i = 0; i < keys.length; i++) {
+				statement.setParameter(paramName(i), keyMappings[i], keys[i]);
+			}
+		}
+		if (parameters != null) {
+			parameters.accept(statement);
+		}
+		
+		// One more row than the page tells whether there is a next page
+		List<T> items = statement.toList(connection, clazz);
+		if (items.size() <= pageSize) {
+			return new KeysetPage<>(items, null);
+		}
+		items = items.subList(0, pageSize);
+		return new KeysetPage<>(new ArrayList<>(items), encode(items.get(pageSize - 1)));
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private Select createPageSelect(Select select, Condition seekCondition) {
+		Select pageSelect = new Select(select);
+		List<Node> nodes = pageSelect.getNodes();
+		
+		if (seekCondition != null) {
+			int whereIndex = indexOf(nodes, Node.TYPE_WHERE);
+			if (whereIndex != -1) {
+				Condition where = new Condition((Condition)nodes.get(whereIndex));
+				nodes.set(whereIndex, new Where().group(where).and().group(seekCondition));
+			} else {
+				nodes.add(indexOf(nodes, Node.TYPE_FROM) + 1, new Where(seekCondition));
+			}
+		}
+		
+		nodes.add(new Offset(0));
+		nodes.add(new Fetch(pageSize + 1));
+		return pageSelect.immutable();
+	}
+	
+	private Condition createSeekCondition(List<Column> columns, List<Boolean> descending) {
+		boolean sameDirection = !descending.contains(!descending.get(0));
+		
+		if (columns.size() > 1 && sameDirection && jdbcMapper.getVendor().supportsRowValueComparison()) {
+			// A function without a name is printed as a row value constructor
+			Function columnRow = new Function("");
+			Function paramRow = new Function("");
+			for (int i = 0; i < columns.size(); i++) {
+				appendColumn(columnRow, columns.get(i));
+				paramRow.param(paramName(i));
+			}
+			
+			Predicate predicate = new Predicate().function(columnRow);
+			if (descending.get(0)) {
+				predicate.lt();
+			} else {
+				predicate.gt();
+			}
+			return new Condition().predicate(predicate.function(paramRow));
+		}
+		
+		Condition condition = new Condition();
+		for (int i = 0; i < columns.size(); i++) {
+			Condition term = new Condition();
+			for (int j = 0; j < i; j++) {
+				term.predicate(createColumnPredicate(columns.get(j)).eq().param(paramName(j)))
+						.and();
+			}
+			
+			Predicate predicate = createColumnPredicate(columns.get(i));
+			if (descending.get(i)) {
+				predicate.lt();
+			} else {
+				predicate.gt();
+			}
+			term.predicate(predicate.param(paramName(i)));
+			
+			if (i > 0) {
+				condition.or();
+			}
+			condition.group(term);
+		}
+		return condition;
+	}
+	
+	private Object[] decode(String continuationToken) {
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+					Base64.getUrlDecoder().decode(continuationToken)));
+			if (in.readByte() != TOKEN_VERSION || in.readByte() != keyMappings.length) {
+				throw new IllegalArgumentException("continuation token is not of this pager");
+			}
+			
+			Object[] keys = new Object[keyMappings.length];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = readKey(in, keyMappings[i]);
+			}
+			if (in.read() != -1) {
+				throw new IllegalArgumentException("continuation token is not of this pager");
+			}
+			return keys;
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalArgumentException("invalid continuation token", e);
+		}
+	}
+	
+	/**
+	 * Encodes the ORDER BY values of <b>object</b> by the JDBC type of their columns,
+	 * which are decoded into parameter values only
+	 */
+	private String encode(Object object) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(TOKEN_VERSION);
+			out.writeByte(keyMappings.length);
+			for (FieldColumnMapping keyMapping : keyMappings) {
+				Object key = keyMapping.get(object);
+				if (key == null) {
+					throw new IllegalStateException("ORDER BY column " + keyMapping.getColumn() + " is null");
+				}
+				writeKey(out, keyMapping, key);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+	
+	private Object readKey(DataInputStream in, FieldColumnMapping keyMapping) throws IOException {
+		switch (keyMapping.getJdbcType()) {
+			case FieldColumnMapping.JDBC_TYPE_BIG_DECIMAL: return new BigDecimal(in.readUTF());
+			case FieldColumnMapping.JDBC_TYPE_BOOLEAN:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_BOOLEAN: return in.readBoolean();
+			case FieldColumnMapping.JDBC_TYPE_DATE: return new java.sql.Date(in.readLong());
+			case FieldColumnMapping.JDBC_TYPE_DOUBLE:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_DOUBLE: return in.readDouble();
+			case FieldColumnMapping.JDBC_TYPE_FLOAT:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_FLOAT: return in.readFloat();
+			case FieldColumnMapping.JDBC_TYPE_INTEGER:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_INT: return in.readInt();
+			case FieldColumnMapping.JDBC_TYPE_LOCAL_DATE: return LocalDate.ofEpochDay(in.readLong());
+			case FieldColumnMapping.JDBC_TYPE_LOCAL_DATE_TIME: return LocalDateTime.parse(in.readUTF());
+			case FieldColumnMapping.JDBC_TYPE_LONG:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_LONG: return in.readLong();
+			case FieldColumnMapping.JDBC_TYPE_STRING: return in.readUTF();
+			case FieldColumnMapping.JDBC_TYPE_TIMESTAMP:
+				Timestamp timestamp = new Timestamp(in.readLong());
+				timestamp.setNanos(in.readInt());
+				return timestamp;
+			default:
+				throw new IllegalArgumentException("unsupported JDBC type of column " + keyMapping.getColumn());
+		}
+	}
+	
+	private void writeKey(DataOutputStream out, FieldColumnMapping keyMapping, Object key) throws IOException {
+		switch (keyMapping.getJdbcType()) {
+			case FieldColumnMapping.JDBC_TYPE_BIG_DECIMAL: out.writeUTF(key.toString()); break;
+			case FieldColumnMapping.JDBC_TYPE_BOOLEAN:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_BOOLEAN: out.writeBoolean((Boolean)key); break;
+			case FieldColumnMapping.JDBC_TYPE_DATE: out.writeLong(((Date)key).getTime()); break;
+			case FieldColumnMapping.JDBC_TYPE_DOUBLE:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_DOUBLE: out.writeDouble((Double)key); break;
+			case FieldColumnMapping.JDBC_TYPE_FLOAT:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_FLOAT: out.writeFloat((Float)key); break;
+			case FieldColumnMapping.JDBC_TYPE_INTEGER:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_INT: out.writeInt((Integer)key); break;
+			case FieldColumnMapping.JDBC_TYPE_LOCAL_DATE: out.writeLong(((LocalDate)key).toEpochDay()); break;
+			case FieldColumnMapping.JDBC_TYPE_LOCAL_DATE_TIME: out.writeUTF(key.toString()); break;
+			case FieldColumnMapping.JDBC_TYPE_LONG:
+			case FieldColumnMapping.JDBC_TYPE_PRIMITIVE_LONG: out.writeLong((Long)key); break;
+			case FieldColumnMapping.JDBC_TYPE_STRING: out.writeUTF((String)key); break;
+			case FieldColumnMapping.JDBC_TYPE_TIMESTAMP:
+				Timestamp timestamp = key instanceof Timestamp ? (Timestamp)key : new Timestamp(((Date)key).getTime());
+				out.writeLong(timestamp.getTime());
+				out.writeInt(timestamp.getNanos());
+				break;
+			default:
+				throw new IllegalStateException("unsupported JDBC type of column " + keyMapping.getColumn());
+		}
+	}
+}
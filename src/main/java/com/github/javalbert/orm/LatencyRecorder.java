@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ExecutionListener} that records the total latency of statements in a {@link Histogram}
+ * per SQL shape i.e. {@link ExecutionEvent#getSql()}. Object graph resolutions are not recorded,
+ * the queries they execute are.
+ */
+public class LatencyRecorder implements ExecutionListener {
+	private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+	
+	/**
+	 * 
+	 * @param sql
+	 * @return the histogram of the JDBC SQL, or null if it was not executed
+	 */
+	public Histogram getHistogram(String sql) { return histograms.get(sql); }
+	/**
+	 * 
+	 * @return histograms by JDBC SQL, updated as statements are executed
+	 */
+	public Map<String, Histogram> getHistograms() { return Collections.unmodifiableMap(histograms); }
+	
+	@Override
+	public void afterExecution(ExecutionEvent event) {
+		if (event.getSql() == null) {
+			return;
+		}
+		Histogram histogram = histograms.get(event.getSql());
+		if (histogram == null) {
+			histogram = histograms.computeIfAbsent(event.getSql(), sql -> new Histogram());
+		}
+		histogram.record(event.getTotalNanos());
+	}
+	
+	public void clear() {
+		histograms.clear();
+	}
+	
+	/**
+	 * Thread-safe histogram of latencies in nanoseconds, with buckets that grow exponentially like HdrHistogram's:
+	 * each power of 2 is split into 32 linear sub-buckets, so values are
+	 * recorded with a relative error of at most 1/32. Latencies above
+	 * {@link Histogram#HIGHEST_TRACKABLE_NANOS} are recorded as that value, but the maximum is exact.
+	 */
+	public static class Histogram {
+		public static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+		
+		private static final int SUB_BUCKET_BITS = 6;
+		private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+		private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+		private static final int BUCKET_COUNT = index(HIGHEST_TRACKABLE_NANOS) + 1;
+		
+		/**
+		 * Values below {@link Histogram#SUB_BUCKET_COUNT} have their own bucket. Larger values are shifted right
+		 * until they are in [{@link Histogram#SUB_BUCKET_HALF_COUNT}, {@link Histogram#SUB_BUCKET_COUNT}),
+		 * each shift adding {@link Histogram#SUB_BUCKET_HALF_COUNT} buckets.
+		 */
+		private static int index(long value) {
+			if (value < SUB_BUCKET_COUNT) {
+				return (int)value;
+			}
+			int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+			return shift * SUB_BUCKET_HALF_COUNT + (int)(value >>> shift);
+		}
+		
+		/**
+		 * 
+		 * @param index
+		 * @return the highest value recorded in the bucket
+		 */
+		private static long highestValue(int index) {
+			if (index < SUB_BUCKET_COUNT) {
+				return index;
+			}
+			int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+			long subBucket = index - shift * SUB_BUCKET_HALF_COUNT;
+			return ((subBucket + 1) << shift) - 1;
+		}
+		
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+		private final LongAdder count = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+		private final LongAdder total = new LongAdder();
+		
+		public long getCount() { return count.sum(); }
+		public long getMaxNanos() { return max.get(); }
+		/**
+		 * 
+		 * @return the mean latency, or 0 if nothing was recorded
+		 */
+		public double getMeanNanos() {
+			long count = this.count.sum();
+			return count > 0L ? (double)total.sum() / count : 0;
+		}
+		public long getTotalNanos() { return total.sum(); }
+		
+		/**
+		 * 
+		 * @param percentile e.g. 99.9
+		 * @return the latency that <b>percentile</b> percent of recorded latencies are less than or equal to,
+		 * rounded up to its bucket's highest value, or 0 if nothing was recorded
+		 */
+		public long getValueAtPercentile(double percentile) {
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException("percentile must be between 0 and 100");
+			}
+			long[] snapshot = new long[BUCKET_COUNT];
+			long count = 0L;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				snapshot[i] = counts.get(i);
+				count += snapshot[i];
+			}
+			if (count == 0L) {
+				return 0L;
+			}
+			
+			long rank = Math.max(1L, (long)Math.ceil(percentile / 100 * count));
+			long seen = 0L;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				seen += snapshot[i];
+				if (seen >= rank) {
+					// The last bucket also has the latencies above HIGHEST_TRACKABLE_NANOS
+					return i < BUCKET_COUNT - 1 ? Math.min(highestValue(i), max.get()) : max.get();
+				}
+			}
+			return max.get();
+		}
+		
+		public void record(long nanos) {
+			if (nanos < 0L) {
+				throw new IllegalArgumentException("nanos cannot be negative");
+			}
+			counts.incrementAndGet(index(Math.min(nanos, HIGHEST_TRACKABLE_NANOS)));
+			count.increment();
+			max.accumulate(nanos);
+			total.add(nanos);
+		}
+		
+		/**
+		 * Not atomic with concurrent {@link Histogram#record(long)}s
+		 */
+		public void reset() {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				counts.set(i, 0L);
+			}
+			count.reset();
+			max.reset();
+			total.reset();
+		}
+		
+		@Override
+		public String toString() {
+			return "Histogram [count=" + getCount() + ", mean=" + (long)getMeanNanos()
+					+ ", p50=" + getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99)
+					+ ", max=" + getMaxNanos() + "]";
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * {@link ObjectCache} that keeps objects whose ID is a <code>Long</code>, <code>Integer</code>,
+ * <code>Short</code> or <code>Byte</code> in an open-addressing table of primitive <code>long</code> keys
+ * per class, so that IDs are neither boxed nor wrapped in hash map entries. Other IDs, such as
+ * those of an {@link IdClass}, are kept in a <code>HashMap</code> per class instead.
+ * Not thread-safe, see {@link ObjectCache#synchronizedCache(ObjectCache)}.
+ */
+public class LongKeyObjectCache extends ObjectCache {
+	/* BEGIN Class members */
+	
+	private static final int CLASS_OBJECTS_BYTES = 32;
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+	
+	private static boolean isIntegral(Serializable id) {
+		return id instanceof Long
+				|| id instanceof Integer
+				|| id instanceof Short
+				|| id instanceof Byte;
+	}
+	
+	/* END Class members */
+	
+	private final Map<Class<?>, ClassObjects> classObjectsMap = new IdentityHashMap<>();
+	
+	@Override
+	public void add(Object object, Serializable id) {
+		assertObjectNotNull(object);
+		getClassObjects(object.getClass()).put(id, object, false);
+	}
+	
+	@Override
+	public Object addIfAbsent(Object object, Serializable id) {
+		assertObjectNotNull(object);
+		
+		Object existing = getClassObjects(object.getClass()).put(id, object, true);
+		return existing != null ? existing : object;
+	}
+	
+	@Override
+	public long estimateMemoryUsage() {
+		long bytes = estimateHashMapMemoryUsage(0);
+		
+		for (ClassObjects classObjects : classObjectsMap.values()) {
+			bytes += HASH_MAP_NODE_BYTES + classObjects.estimateMemoryUsage();
+		}
+		return bytes;
+	}
+	
+	@Override
+	public Object get(Class<?> clazz, Serializable id) {
+		ClassObjects classObjects = classObjectsMap.get(clazz);
+		return classObjects != null ? classObjects.get(id) : null;
+	}
+	
+	@Override
+	public int size() {
+		int size = 0;
+		for (ClassObjects classObjects : classObjectsMap.values()) {
+			size += classObjects.size();
+		}
+		return size;
+	}
+	
+	private ClassObjects getClassObjects(Class<?> clazz) {
+		ClassObjects classObjects = classObjectsMap.get(clazz);
+		
+		if (classObjects == null) {
+			classObjects = new ClassObjects();
+			classObjectsMap.put(clazz, classObjects);
+		}
+		return classObjects;
+	}
+	
+	/* BEGIN Inner classes */
+	
+	/**
+	 * Linear probing table where a null value marks an empty slot, since objects
+	 * are never null nor removed
+	 */
+	private static class ClassObjects {
+		private long[] keys = new long[INITIAL_CAPACITY];
+		private int longKeySize;
+		/**
+		 * IDs that are not integral, created on first use
+		 */
+		private Map<Serializable, Object> objectKeys;
+		private Object[] values = new Object[INITIAL_CAPACITY];
+		
+		public long estimateMemoryUsage() {
+			long bytes = CLASS_OBJECTS_BYTES
+					+ ARRAY_HEADER_BYTES + 8L * keys.length
+					+ ARRAY_HEADER_BYTES + (long)REFERENCE_BYTES * values.length;
+			
+			if (objectKeys != null) {
+				bytes += estimateHashMapMemoryUsage(objectKeys.size());
+			}
+			return bytes;
+		}
+		
+		public Object get(Serializable id) {
+			if (isIntegral(id)) {
+				return get(((Number)id).longValue());
+			}
+			return objectKeys != null ? objectKeys.get(id) : null;
+		}
+		
+		/**
+		 * 
+		 * @param id
+		 * @param object
+		 * @param onlyIfAbsent
+		 * @return the object previously cached, or null
+		 */
+		public Object put(Serializable id, Object object, boolean onlyIfAbsent) {
+			if (isIntegral(id)) {
+				return put(((Number)id).longValue(), object, onlyIfAbsent);
+			}
+			
+			if (objectKeys == null) {
+				objectKeys = new HashMap<>();
+			}
+			return onlyIfAbsent ? objectKeys.putIfAbsent(id, object) : objectKeys.put(id, object);
+		}
+		
+		public int size() {
+			return longKeySize + (objectKeys != null ? objectKeys.size() : 0);
+		}
+		
+		private Object get(long key) {
+			int mask = keys.length - 1;
+			
+			for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return values[i];
+				}
+			}
+			return null;
+		}
+		
+		private Object put(long key, Object object, boolean onlyIfAbsent) {
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+			
+			for (; values[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					Object existing = values[i];
+					if (!onlyIfAbsent) {
+						values[i] = object;
+					}
+					return existing;
+				}
+			}
+			
+			keys[i] = key;
+			values[i] = object;
+			
+			// Keep the load factor at most 0.75
+			if (++longKeySize * 4 > keys.length * 3) {
+				resize();
+			}
+			return null;
+		}
+		
+		private void resize() {
+			long[] oldKeys = keys;
+			Object[] oldValues = values;
+			
+			keys = new long[oldKeys.length * 2];
+			values = new Object[oldValues.length * 2];
+			
+			int mask = keys.length - 1;
+			for (int j = 0; j < oldValues.length; j++) {
+				if (oldValues[j] == null) {
+					continue;
+				}
+				
+				int i = hash(oldKeys[j]) & mask;
+				while (values[i] != null) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+	
+	/* END Inner classes */
+}
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package com.github.javalbert.orm;
 
+import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -76,7 +77,10 @@ public class NPlusOneResolver extends ObjectGraphResolver {
 			GraphEntity<T> graphEntity, 
 			Collection<T> collection) throws SQLException {
 		EntityQuery query = new EntityQuery(connection);
-		query.resolveRelationships(graphEntity, collection);
+		measure(graphEntity, collection, () -> {
+			query.resolveRelationships(graphEntity, collection);
+			return null;
+		});
 	}
 	
 	@Override
@@ -105,7 +109,7 @@ public class NPlusOneResolver extends ObjectGraphResolver {
 			Collection<T> collection, 
 			ObjectCache objectCache) throws SQLException {
 		EntityQuery query = new EntityQuery(connection, objectCache);
-		return query.toCollection(graphEntity, statement, collection);
+		return measure(graphEntity, collection, () -> query.toCollection(graphEntity, statement, collection));
 	}
 	
 	/* BEGIN Inner classes */
@@ -119,8 +123,11 @@ public class NPlusOneResolver extends ObjectGraphResolver {
 		private final List<FieldColumnMapping> fieldColumnMappings;
 		@SuppressWarnings("rawtypes")
 		private final GraphEntity graphEntity;
-		private int lastPrimaryKeyIndex;
 		private final ObjectCache objectCache;
+		/**
+		 * null if a primary key column is not selected
+		 */
+		private final int[] primaryKeyColumns;
 		
 		public EntityColumns(GraphEntity<?> graphEntity, ObjectCache objectCache) {
 			this(graphEntity, objectCache, null);
@@ -138,48 +145,28 @@ public class NPlusOneResolver extends ObjectGraphResolver {
 			this.graphEntity = graphEntity;
 			this.objectCache = objectCache;
 			
-			initLastPrimaryKeyIndex(fieldColumnMappings);
+			primaryKeyColumns = classRowMapping.getPrimaryKeyColumns(fieldColumnMappings, 1);
 		}
 		
 		public Object createFromResultSet(ResultSetHelper rs) throws SQLException {
-			Object object = newEntityInstance();
-			
-			for (int i = 0; i < fieldColumnMappings.size(); i++) {
-				fieldColumnMappings.get(i).setFromResultSet(object, rs, i + 1);
+			if (primaryKeyColumns == null) {
+				Object object = classRowMapping.newInstanceFromResultSet(rs, fieldColumnMappings, 1);
 				
-				if (i == lastPrimaryKeyIndex) {
-					Object existing = objectCache.get(classRowMapping, object);
-					
-					if (existing != null) {
-						return existing;
-					}
-				}
+				return objectCache.addIfAbsent(classRowMapping, object);
 			}
 			
-			objectCache.add(classRowMapping, object);
-			return object;
-		}
-		
-		private void initLastPrimaryKeyIndex(List<FieldColumnMapping> fieldColumnMappings) {
-			int lastPrimaryKeyIndex = 0;
+			// Probe the cache before creating the entity so that rows of
+			// entities already read are not read any further
+			Serializable id = classRowMapping.getIdFromResultSet(rs, primaryKeyColumns);
+			Object existing = objectCache.get(classRowMapping, id);
 			
-			for (int i = 0; i < fieldColumnMappings.size(); i++) {
-				FieldColumnMapping fieldColumnMapping = fieldColumnMappings.get(i);
-				
-				if (!fieldColumnMapping.isPrimaryKey()) {
-					continue;
-				}
-				lastPrimaryKeyIndex = i;
-			}
-			this.lastPrimaryKeyIndex = lastPrimaryKeyIndex;
-		}
-		
-		private Object newEntityInstance() {
-			try {
-				return graphEntity.getEntityClass().newInstance();
-			} catch (InstantiationException | IllegalAccessException e) {
-				return null;
+			if (existing != null) {
+				return existing;
 			}
+			
+			Object object = classRowMapping.newInstanceFromResultSet(rs, fieldColumnMappings, 1);
+			
+			return objectCache.addIfAbsent(object, id);
 		}
 	}
 	
@@ -195,7 +182,7 @@ public class NPlusOneResolver extends ObjectGraphResolver {
 		
 		public EntityQuery(Connection connection, ObjectCache objectCache) {
 			this.connection = connection;
-			this.objectCache = objectCache != null ? objectCache : new ObjectCache();
+			this.objectCache = objectCache != null ? objectCache : jdbcMapper.createObjectCache();
 		}
 		
 		public void resolveRelationships(GraphEntity<?> graphEntity, Collection<?> collection) 
@@ -13,22 +13,71 @@
 package com.github.javalbert.orm;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
-public class ObjectCache {
-	@SuppressWarnings("rawtypes")
-	private final Map<Class, Map<Serializable, Object>> classObjectsMap = new HashMap<>();
+/**
+ * Identity map of objects by class and ID, so that a row read more than once
+ * by an {@link ObjectGraphResolver} becomes one object. Implementations need not be
+ * thread-safe: a resolver that resolves relationships concurrently
+ * (see {@link BatchResolver#BatchResolver(JdbcMapper, com.github.javalbert.utils.jdbc.ConnectionSupplier, java.util.concurrent.Executor)})
+ * wraps its cache with {@link ObjectCache#synchronizedCache(ObjectCache)}.
+ * @see JdbcMapper#setObjectCacheFactory(java.util.function.Supplier)
+ */
+public abstract class ObjectCache {
+	/* BEGIN Class members */
 	
-	@SuppressWarnings("rawtypes")
-	public Map<Class, Map<Serializable, Object>> getClassObjectsMap() { return classObjectsMap; }
+	/**
+	 * Bytes of an array header on a 64-bit JVM with compressed references
+	 */
+	protected static final int ARRAY_HEADER_BYTES = 16;
+	/**
+	 * Bytes of a boxed <code>Integer</code> or <code>Long</code>
+	 */
+	protected static final int BOXED_KEY_BYTES = 16;
+	protected static final int HASH_MAP_BYTES = 48;
+	protected static final int HASH_MAP_NODE_BYTES = 32;
+	protected static final int REFERENCE_BYTES = 4;
 	
-	public void add(Object object, Serializable id) {
-		assertObjectNotNull(object);
-		getClassObjects(object.getClass()).put(id, object);
+	/**
+	 * 
+	 * @param size number of entries
+	 * @return estimated bytes of a <code>HashMap</code> of boxed integral keys,
+	 * excluding its values
+	 */
+	protected static long estimateHashMapMemoryUsage(int size) {
+		int tableLength = Integer.highestOneBit(Math.max(size * 4 / 3, 1) - 1) << 1;
+		return HASH_MAP_BYTES 
+				+ ARRAY_HEADER_BYTES + (long)REFERENCE_BYTES * Math.max(tableLength, 16)
+				+ (long)size * (HASH_MAP_NODE_BYTES + BOXED_KEY_BYTES);
+	}
+	
+	private static void assertEqualClasses(ClassRowMapping classRowMapping, Object object) {
+		if (classRowMapping.getClazz() == object.getClass()) {
+			return;
+		}
+		throw new IllegalArgumentException("object's class is not the same as classRowMapping's class");
+	}
+	
+	protected static void assertObjectNotNull(Object object) {
+		Objects.requireNonNull(object, "object cannot be null");
 	}
 	
+	/**
+	 * 
+	 * @param objectCache
+	 * @return a cache whose methods call those of <b>objectCache</b> while holding a lock,
+	 * or <b>objectCache</b> itself if it's already synchronized
+	 */
+	public static ObjectCache synchronizedCache(ObjectCache objectCache) {
+		Objects.requireNonNull(objectCache, "objectCache cannot be null");
+		return objectCache instanceof SynchronizedObjectCache 
+				? objectCache : new SynchronizedObjectCache(objectCache);
+	}
+	
+	/* END Class members */
+	
+	public abstract void add(Object object, Serializable id);
+	
 	public void add(ClassRowMapping classRowMapping, Object object) {
 		assertObjectNotNull(object);
 		assertEqualClasses(classRowMapping, object);
@@ -37,10 +86,31 @@ public class ObjectCache {
 		add(object, id);
 	}
 	
-	public Object get(Class<?> clazz, Serializable id) {
-		return getClassObjects(clazz).get(id);
+	/**
+	 * Adds <b>object</b> unless an object of the same class and ID is already cached
+	 * @param object
+	 * @param id
+	 * @return the object already cached, or <b>object</b> if it was added
+	 */
+	public abstract Object addIfAbsent(Object object, Serializable id);
+	
+	public Object addIfAbsent(ClassRowMapping classRowMapping, Object object) {
+		assertObjectNotNull(object);
+		assertEqualClasses(classRowMapping, object);
+		
+		Serializable id = classRowMapping.getOrCreateId(object);
+		return addIfAbsent(object, id);
 	}
 	
+	/**
+	 * 
+	 * @return rough number of bytes used by the cache on a 64-bit JVM with compressed references,
+	 * excluding the cached objects and any IDs that are not boxed integral numbers
+	 */
+	public abstract long estimateMemoryUsage();
+	
+	public abstract Object get(Class<?> clazz, Serializable id);
+	
 	public Object get(ClassRowMapping classRowMapping, Object object) {
 		assertObjectNotNull(object);
 		assertEqualClasses(classRowMapping, object);
@@ -53,24 +123,42 @@ public class ObjectCache {
 		return get(classRowMapping.getClazz(), id);
 	}
 	
-	private void assertEqualClasses(ClassRowMapping classRowMapping, Object object) {
-		if (classRowMapping.getClazz() == object.getClass()) {
-			return;
-		}
-		throw new IllegalArgumentException("object's class is not the same as classRowMapping's class");
-	}
-	
-	private void assertObjectNotNull(Object object) {
-		Objects.requireNonNull(object, "object cannot be null");
-	}
+	/**
+	 * 
+	 * @return number of objects cached
+	 */
+	public abstract int size();
 	
-	private Map<Serializable, Object> getClassObjects(Class<?> clazz) {
-		Map<Serializable, Object> classObjects = classObjectsMap.get(clazz);
+	private static class SynchronizedObjectCache extends ObjectCache {
+		private final ObjectCache objectCache;
+		
+		public SynchronizedObjectCache(ObjectCache objectCache) {
+			this.objectCache = objectCache;
+		}
+		
+		@Override
+		public synchronized void add(Object object, Serializable id) {
+			objectCache.add(object, id);
+		}
+		
+		@Override
+		public synchronized Object addIfAbsent(Object object, Serializable id) {
+			return objectCache.addIfAbsent(object, id);
+		}
+		
+		@Override
+		public synchronized long estimateMemoryUsage() {
+			return objectCache.estimateMemoryUsage();
+		}
+		
+		@Override
+		public synchronized Object get(Class<?> clazz, Serializable id) {
+			return objectCache.get(clazz, id);
+		}
 		
-		if (classObjects == null) {
-			classObjects = new HashMap<>();
-			classObjectsMap.put(clazz, classObjects);
+		@Override
+		public synchronized int size() {
+			return objectCache.size();
 		}
-		return classObjects;
 	}
-}
\ No newline at end of file
+}
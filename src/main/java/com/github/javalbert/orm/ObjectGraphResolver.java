@@ -23,6 +23,35 @@ public abstract class ObjectGraphResolver {
 	protected ObjectGraphResolver(JdbcMapper jdbcMapper) {
 		this.jdbcMapper = Objects.requireNonNull(jdbcMapper, "jdbcMapper cannot be null");
 	}
+	
+	/**
+	 * Reports the resolution to the mapper's {@link ExecutionListener}, if any
+	 * @param graphEntity
+	 * @param collection root entities, counted after the resolution
+	 * @param resolution
+	 * @return
+	 * @throws SQLException
+	 */
+	protected final <R> R measure(GraphEntity<?> graphEntity, Collection<?> collection, Resolution<R> resolution)
+			throws SQLException {
+		ExecutionListener listener = jdbcMapper.getExecutionListener();
+		if (listener == null) {
+			return resolution.resolve();
+		}
+		
+		ExecutionEvent event = new ExecutionEvent(listener, ExecutionEvent.TYPE_GRAPH, null);
+		event.setResultClass(graphEntity.getEntityClass());
+		event.start();
+		try {
+			return resolution.resolve();
+		} catch (SQLException | RuntimeException e) {
+			event.setError(e);
+			throw e;
+		} finally {
+			event.setRowCount(collection.size());
+			event.finish();
+		}
+	}
 
 	public abstract <T> void resolveRelatedObjects(
 			Connection connection, 
@@ -43,4 +72,9 @@ public abstract class ObjectGraphResolver {
 			GraphEntity<T> graphEntity, 
 			Collection<T> collection, 
 			ObjectCache objectCache) throws SQLException;
+	
+	@FunctionalInterface
+	protected interface Resolution<R> {
+		R resolve() throws SQLException;
+	}
 }
\ No newline at end of file
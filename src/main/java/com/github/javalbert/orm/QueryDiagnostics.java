@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ExecutionListener} that detects N+1 queries, e.g. {@link JdbcMapper#get(java.sql.Connection, Class, java.io.Serializable)}
+ * called in a loop, and slow statements within a unit of work:
+ * <pre>
+ * QueryDiagnostics diagnostics = new QueryDiagnostics(10, 100, TimeUnit.MILLISECONDS);
+ * mapper.setExecutionListener(diagnostics);
+ * 
+ * try (QueryDiagnostics.Session session = diagnostics.beginSession()) {
+ *     // Code under test
+ *     session.getReport().throwIfProblems();
+ * }
+ * </pre>
+ * A session only records statements executed by the thread that began it, so statements executed
+ * asynchronously or by a parallel {@link BatchResolver} are not recorded. Slow statements executed
+ * outside of a session are logged as warnings.
+ */
+public class QueryDiagnostics implements ExecutionListener {
+	private static final Logger logger = LoggerFactory.getLogger(QueryDiagnostics.class);
+	
+	private final int repeatThreshold;
+	private final ThreadLocal<Session> sessions = new ThreadLocal<>();
+	private final long slowThresholdNanos;
+	
+	/**
+	 * 
+	 * @return the session begun by the current thread, or null
+	 */
+	public Session getCurrentSession() { return sessions.get(); }
+	public int getRepeatThreshold() { return repeatThreshold; }
+	public long getSlowThreshold(TimeUnit unit) { return unit.convert(slowThresholdNanos, TimeUnit.NANOSECONDS); }
+	
+	/**
+	 * 
+	 * @param repeatThreshold number of executions of the same SQL within a session from which they are reported
+	 * @param slowThreshold latency above which an execution is reported
+	 * @param unit
+	 */
+	public QueryDiagnostics(int repeatThreshold, long slowThreshold, TimeUnit unit) {
+		if (repeatThreshold < 2) {
+			throw new IllegalArgumentException("repeatThreshold must be greater than 1");
+		}
+		if (slowThreshold < 0) {
+			throw new IllegalArgumentException("slowThreshold cannot be negative");
+		}
+		this.repeatThreshold = repeatThreshold;
+		this.slowThresholdNanos = unit.toNanos(slowThreshold);
+	}
+	
+	@Override
+	public void afterExecution(ExecutionEvent event) {
+		if (event.getSql() == null) {
+			return;
+		}
+		
+		Session session = sessions.get();
+		if (session != null) {
+			session.record(event);
+		} else if (event.getTotalNanos() > slowThresholdNanos) {
+			logger.warn("Slow statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(event.getTotalNanos()), event.getSql());
+		}
+	}
+	
+	/**
+	 * Begins recording the statements executed by the current thread until the session is closed
+	 * @return
+	 */
+	public Session beginSession() {
+		if (sessions.get() != null) {
+			throw new IllegalStateException("a session was already begun by the current thread");
+		}
+		Session session = new Session();
+		sessions.set(session);
+		return session;
+	}
+	
+	public class Session implements AutoCloseable {
+		private boolean closed;
+		private final Map<String, StatementStats> statements = new LinkedHashMap<>();
+		
+		/**
+		 * 
+		 * @return the statements recorded so far
+		 */
+		public Report getReport() {
+			List<StatementStats> snapshot = new ArrayList<>(statements.size());
+			for (StatementStats stats : statements.values()) {
+				snapshot.add(new StatementStats(stats));
+			}
+			return new Report(snapshot, repeatThreshold);
+		}
+		
+		/**
+		 * Stops recording, and logs the report as a warning if it has problems
+		 */
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (sessions.get() == this) {
+				sessions.remove();
+			}
+			
+			Report report = getReport();
+			if (report.hasProblems()) {
+				logger.warn(report.toString());
+			}
+		}
+		
+		private void record(ExecutionEvent event) {
+			StatementStats stats = statements.get(event.getSql());
+			if (stats == null) {
+				stats = new StatementStats(event.getSql());
+				statements.put(event.getSql(), stats);
+			}
+			stats.add(event.getTotalNanos(), event.getTotalNanos() > slowThresholdNanos);
+		}
+	}
+	
+	public static class Report {
+		private final int repeatThreshold;
+		private final List<StatementStats> statements;
+		
+		public List<StatementStats> getRepeatedStatements() {
+			return statements.stream()
+					.filter(stats -> stats.getCount() >= repeatThreshold)
+					.collect(Collectors.toList());
+		}
+		public List<StatementStats> getSlowStatements() {
+			return statements.stream()
+					.filter(stats -> stats.getSlowCount() > 0)
+					.collect(Collectors.toList());
+		}
+		/**
+		 * 
+		 * @return every statement recorded, by descending total time
+		 */
+		public List<StatementStats> getStatements() { return statements; }
+		
+		Report(List<StatementStats> statements, int repeatThreshold) {
+			statements.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+			this.repeatThreshold = repeatThreshold;
+			this.statements = Collections.unmodifiableList(statements);
+		}
+		
+		public boolean hasProblems() {
+			for (StatementStats stats : statements) {
+				if (stats.getCount() >= repeatThreshold || stats.getSlowCount() > 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		/**
+		 * For integration tests to fail on N+1 queries or slow statements
+		 * @throws IllegalStateException with this report as its message if it has problems
+		 */
+		public void throwIfProblems() {
+			if (hasProblems()) {
+				throw new IllegalStateException(toString());
+			}
+		}
+		
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder("Query diagnostics:");
+			appendStatements(builder, "Repeated (possible N+1)", getRepeatedStatements());
+			appendStatements(builder, "Slow", getSlowStatements());
+			if (!hasProblems()) {
+				builder.append(" no problems in ").append(statements.size()).append(" statement(s)");
+			}
+			return builder.toString();
+		}
+		
+		private void appendStatements(StringBuilder builder, String title, List<StatementStats> statements) {
+			if (statements.isEmpty()) {
+				return;
+			}
+			builder.append(System.lineSeparator()).append(title).append(':');
+			for (StatementStats stats : statements) {
+				builder.append(System.lineSeparator())
+						.append("  ").append(stats.getCount()).append("x, ")
+						.append(TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos())).append(" ms total, ")
+						.append(TimeUnit.NANOSECONDS.toMillis(stats.getMaxNanos())).append(" ms max: ")
+						.append(stats.getSql());
+			}
+		}
+	}
+	
+	public static class StatementStats {
+		private int count;
+		private long maxNanos;
+		private int slowCount;
+		private final String sql;
+		private long totalNanos;
+		
+		public int getCount() { return count; }
+		public long getMaxNanos() { return maxNanos; }
+		/**
+		 * 
+		 * @return number of executions above the slow threshold
+		 */
+		public int getSlowCount() { return slowCount; }
+		public String getSql() { return sql; }
+		public long getTotalNanos() { return totalNanos; }
+		
+		StatementStats(String sql) {
+			this.sql = sql;
+		}
+		
+		StatementStats(StatementStats stats) {
+			count = stats.count;
+			maxNanos = stats.maxNanos;
+			slowCount = stats.slowCount;
+			sql = stats.sql;
+			totalNanos = stats.totalNanos;
+		}
+		
+		@Override
+		public String toString() {
+			return "StatementStats [sql=" + sql + ", count=" + count + ", totalNanos=" + totalNanos
+					+ ", maxNanos=" + maxNanos + ", slowCount=" + slowCount + "]";
+		}
+		
+		private void add(long nanos, boolean slow) {
+			count++;
+			maxNanos = Math.max(maxNanos, nanos);
+			if (slow) {
+				slowCount++;
+			}
+			totalNanos += nanos;
+		}
+	}
+}
@@ -229,7 +229,7 @@ public class RegisterClassMapper extends ClassRowMapper {
 		}
 		
 		return new FieldAccessMapping(
-				clazz,
+				idClass,
 				columnName,
 				null,
 				field,
@@ -277,7 +277,7 @@ public class RegisterClassMapper extends ClassRowMapper {
 		}
 		
 		return new PropertyAccessMapping(
-				clazz,
+				idClass,
 				columnName,
 				null,
 				propertyDescriptor,
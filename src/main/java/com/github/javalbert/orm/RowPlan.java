@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.github.javalbert.utils.jdbc.ResultSetHelper;
+
+/**
+ * Column mappings of a {@link ClassRowMapping} resolved once for a SELECT statement,
+ * in the same order as its select list, so that each row is mapped by
+ * iterating an array.<br>
+ * <br>
+ * If created with column readers, each column is read by a {@link ColumnReader} specialized
+ * to the column's JDBC type instead of {@link FieldColumnMapping#setFromResultSet(Object, ResultSetHelper, int)}
+ */
+final class RowPlan {
+	private final ClassRowMapping classRowMapping;
+	private final FieldColumnMapping[] columnMappings;
+	private final ColumnReader[] columnReaders;
+	private final Instantiator instantiator;
+	/**
+	 * Number of arguments passed to {@link Instantiator#newInstance(Object[])}
+	 */
+	private final int parameterCount;
+	/**
+	 * Argument position of each column, or -1 if the column is not a constructor argument
+	 */
+	private final int[] parameterIndices;
+	
+	public ClassRowMapping getClassRowMapping() { return classRowMapping; }
+	public FieldColumnMapping[] getColumnMappings() { return columnMappings; }
+	
+	public boolean hasColumnReaders() { return columnReaders != null; }
+	
+	public RowPlan(ClassRowMapping classRowMapping, List<FieldColumnMapping> columnMappings) {
+		this(classRowMapping, columnMappings, false);
+	}
+	
+	public RowPlan(
+			ClassRowMapping classRowMapping,
+			List<FieldColumnMapping> columnMappings,
+			boolean createColumnReaders) {
+		this.classRowMapping = classRowMapping;
+		this.columnMappings = columnMappings.toArray(new FieldColumnMapping[columnMappings.size()]);
+		
+		if (createColumnReaders) {
+			columnReaders = new ColumnReader[this.columnMappings.length];
+			for (int i = 0; i < columnReaders.length; i++) {
+				// Unmapped columns are left null just like in columnMappings
+				FieldColumnMapping columnMapping = this.columnMappings[i];
+				columnReaders[i] = columnMapping != null ? columnMapping.createColumnReader() : null;
+			}
+		} else {
+			columnReaders = null;
+		}
+		
+		instantiator = classRowMapping.getInstantiator();
+		List<String> parameterColumns = instantiator.getParameterColumns();
+		parameterCount = parameterColumns.size();
+		parameterIndices = new int[this.columnMappings.length];
+		for (int i = 0; i < parameterIndices.length; i++) {
+			FieldColumnMapping columnMapping = this.columnMappings[i];
+			parameterIndices[i] = columnMapping != null 
+					? parameterColumns.indexOf(columnMapping.getColumn()) : -1;
+		}
+	}
+	
+	public <T> T createObject(Class<T> clazz, ResultSetHelper rs) throws SQLException {
+		if (parameterCount == 0) {
+			Object instance = instantiator.newInstance();
+			setObjectProperties(instance, rs);
+			return clazz.cast(instance);
+		}
+		
+		Object[] args = new Object[parameterCount];
+		for (int i = 0; i < parameterIndices.length; i++) {
+			if (parameterIndices[i] != -1) {
+				args[parameterIndices[i]] = columnMappings[i].getFromResultSet(rs, i + 1);
+			}
+		}
+		
+		Object instance = instantiator.newInstance(args);
+		setObjectProperties(instance, rs, true);
+		return clazz.cast(instance);
+	}
+	
+	public void setObjectProperties(Object instance, ResultSetHelper rs) throws SQLException {
+		setObjectProperties(instance, rs, false);
+	}
+	
+	/**
+	 * 
+	 * @param instance
+	 * @param rs
+	 * @param skipArguments if true, columns passed as constructor arguments are not set
+	 * @throws SQLException
+	 */
+	private void setObjectProperties(Object instance, ResultSetHelper rs, boolean skipArguments) throws SQLException {
+		for (int i = 0; i < columnMappings.length; i++) {
+			if (skipArguments && parameterIndices[i] != -1) {
+				continue;
+			}
+			
+			if (columnReaders != null) {
+				columnReaders[i].read(instance, rs, i + 1);
+			} else {
+				columnMappings[i].setFromResultSet(instance, rs, i + 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of {@link RowPlan}s keyed by {@link ClassRowMapping} and SQL string, so that
+ * plans of a replaced mapping are never returned, even if they are put after it was replaced
+ */
+public class RowPlanCache {
+	public static final int DEFAULT_MAX_SIZE = 256;
+	
+	private long evictionCount;
+	private long hitCount;
+	private int maxSize;
+	private long missCount;
+	private final Map<Key, RowPlan> plans = new LinkedHashMap<Key, RowPlan>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, RowPlan> eldest) {
+			if (size() <= maxSize) {
+				return false;
+			}
+			evictionCount++;
+			return true;
+		}
+	};
+	
+	public synchronized long getEvictionCount() { return evictionCount; }
+	public synchronized long getHitCount() { return hitCount; }
+	public synchronized int getMaxSize() { return maxSize; }
+	public synchronized long getMissCount() { return missCount; }
+	
+	public RowPlanCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+	
+	public RowPlanCache(int maxSize) {
+		setMaxSize(maxSize);
+	}
+	
+	public synchronized void clear() {
+		plans.clear();
+	}
+	
+	public synchronized double getHitRatio() {
+		long requestCount = hitCount + missCount;
+		return requestCount > 0L ? (double)hitCount / requestCount : 0.0;
+	}
+	
+	/**
+	 * Evicts least recently used plans if the cache is larger than <b>maxSize</b>
+	 * @param maxSize
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		this.maxSize = maxSize;
+		
+		while (plans.size() > maxSize) {
+			Key eldest = plans.keySet().iterator().next();
+			plans.remove(eldest);
+			evictionCount++;
+		}
+	}
+	
+	public synchronized int size() {
+		return plans.size();
+	}
+	
+	synchronized RowPlan get(ClassRowMapping classRowMapping, String sql) {
+		RowPlan plan = plans.get(new Key(classRowMapping, sql));
+		if (plan != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return plan;
+	}
+	
+	synchronized void put(ClassRowMapping classRowMapping, String sql, RowPlan plan) {
+		plans.put(new Key(classRowMapping, sql), plan);
+	}
+	
+	private static class Key {
+		private final ClassRowMapping classRowMapping;
+		private final int hashCode;
+		private final String sql;
+		
+		public Key(ClassRowMapping classRowMapping, String sql) {
+			this.classRowMapping = classRowMapping;
+			this.sql = sql;
+			hashCode = 31 * System.identityHashCode(classRowMapping) + sql.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)obj;
+			return classRowMapping == other.classRowMapping && Objects.equals(sql, other.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.github.javalbert.sqlbuilder.SqlStatement;
+
+/**
+ * Thread-safe bounded LRU cache of {@link StatementSql}s of a {@link JdbcMapper}, and therefore of one vendor,
+ * keyed by immutable {@link SqlStatement}s (structurally equal statements share an entry), DSL statements
+ * (by identity) or SQL strings.<br>
+ * <br>
+ * Once the cache holds <code>maxSize</code> statements, the least recently used statement is evicted
+ * for every new one.
+ */
+public class SqlCache {
+	public static final int DEFAULT_MAX_SIZE = 1024;
+	
+	private long evictionCount;
+	private long hitCount;
+	private int maxSize;
+	private long missCount;
+	private final Map<Object, StatementSql> statements = new LinkedHashMap<Object, StatementSql>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, StatementSql> eldest) {
+			if (size() <= maxSize) {
+				return false;
+			}
+			evictionCount++;
+			return true;
+		}
+	};
+	
+	public synchronized long getEvictionCount() { return evictionCount; }
+	public synchronized long getHitCount() { return hitCount; }
+	public synchronized int getMaxSize() { return maxSize; }
+	public synchronized long getMissCount() { return missCount; }
+	
+	public SqlCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+	
+	public SqlCache(int maxSize) {
+		setMaxSize(maxSize);
+	}
+	
+	public synchronized void clear() {
+		statements.clear();
+	}
+	
+	public synchronized double getHitRatio() {
+		long requestCount = hitCount + missCount;
+		return requestCount > 0L ? (double)hitCount / requestCount : 0.0;
+	}
+	
+	/**
+	 * Evicts least recently used statements if the cache is larger than <b>maxSize</b>
+	 * @param maxSize
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		this.maxSize = maxSize;
+		
+		while (statements.size() > maxSize) {
+			Object eldest = statements.keySet().iterator().next();
+			statements.remove(eldest);
+			evictionCount++;
+		}
+	}
+	
+	public synchronized int size() {
+		return statements.size();
+	}
+	
+	/**
+	 * 
+	 * @param key an immutable {@link SqlStatement}, DSL statement or SQL string
+	 * @param factory creates the {@link StatementSql} if it's not cached, outside of the cache's lock
+	 * @return
+	 */
+	StatementSql get(Object key, Supplier<StatementSql> factory) {
+		synchronized (this) {
+			StatementSql statementSql = statements.get(key);
+			if (statementSql != null) {
+				hitCount++;
+				return statementSql;
+			}
+			missCount++;
+		}
+		
+		StatementSql statementSql = factory.get();
+		synchronized (this) {
+			StatementSql existing = statements.putIfAbsent(key, statementSql);
+			return existing != null ? existing : statementSql;
+		}
+	}
+}
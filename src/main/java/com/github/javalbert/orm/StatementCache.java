@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.javalbert.utils.jdbc.JdbcUtils;
+import com.github.javalbert.utils.jdbc.PreparedStatementImpl;
+
+/**
+ * Thread-safe pool of idle <code>PreparedStatement</code>s of each {@link Connection}, keyed by
+ * JDBC SQL and whether generated keys are returned, enabled with {@link JdbcMapper#enableStatementCache(int)}.<br>
+ * <br>
+ * A statement is taken out of the pool while in use, so the same SQL may run nested on one connection
+ * e.g. a query inside the consumer of {@link JdbcStatement#forEach(Connection, Class, java.util.function.Consumer)}.
+ * Closing the statement clears its parameters and returns it to the pool, where the least recently used
+ * statement of the connection is closed once there are more than <code>maxSize</code>.<br>
+ * <br>
+ * Statements of closed connections are discarded. Connection pools that hand out a new proxy per
+ * checkout, and close its statements on checkin, only share statements within a checkout.
+ */
+public class StatementCache {
+	public static final int DEFAULT_MAX_SIZE = 64;
+	
+	private final IdentityHashMap<Connection, LinkedHashMap<Key, PreparedStatement>> connections = new IdentityHashMap<>();
+	private final AtomicLong evictionCount = new AtomicLong();
+	private final AtomicLong hitCount = new AtomicLong();
+	private final int maxSize;
+	private final AtomicLong missCount = new AtomicLong();
+	/**
+	 * Misses since connections were last checked for being closed
+	 */
+	private int missesSincePurge;
+	
+	public long getEvictionCount() { return evictionCount.get(); }
+	public long getHitCount() { return hitCount.get(); }
+	/**
+	 * 
+	 * @return hits divided by lookups, or 0 if there were no lookups
+	 */
+	public double getHitRatio() {
+		long hits = hitCount.get();
+		long lookups = hits + missCount.get();
+		return lookups > 0 ? (double)hits / lookups : 0;
+	}
+	/**
+	 * 
+	 * @return maximum number of idle statements per connection
+	 */
+	public int getMaxSize() { return maxSize; }
+	public long getMissCount() { return missCount.get(); }
+	
+	public StatementCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+	
+	public StatementCache(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Closes every idle statement
+	 */
+	public void clear() {
+		List<PreparedStatement> statements = new ArrayList<>();
+		synchronized (this) {
+			for (Map<Key, PreparedStatement> connectionStatements : connections.values()) {
+				statements.addAll(connectionStatements.values());
+			}
+			connections.clear();
+		}
+		statements.forEach(JdbcUtils::closeQuietly);
+	}
+	
+	/**
+	 * 
+	 * @return number of idle statements of all connections
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for (Map<Key, PreparedStatement> connectionStatements : connections.values()) {
+			size += connectionStatements.size();
+		}
+		return size;
+	}
+	
+	/**
+	 * 
+	 * @param connection
+	 * @param sql JDBC SQL
+	 * @param autoGeneratedKeys
+	 * @return an idle statement of <b>connection</b> or a new one, either of which
+	 * returns to the pool when it is closed
+	 * @throws SQLException
+	 */
+	PreparedStatement prepareStatement(Connection connection, String sql, boolean autoGeneratedKeys) throws SQLException {
+		Key key = new Key(sql, autoGeneratedKeys);
+		PreparedStatement stmt = take(connection, key);
+		if (stmt == null) {
+			stmt = autoGeneratedKeys
+					? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+					: connection.prepareStatement(sql);
+		}
+		return new PooledPreparedStatement(stmt, connection, key);
+	}
+	
+	private void release(Connection connection, Key key, PreparedStatement stmt) {
+		try {
+			if (stmt.isClosed()) {
+				return;
+			}
+			stmt.clearParameters();
+			stmt.clearBatch();
+		} catch (SQLException e) {
+			JdbcUtils.closeQuietly(stmt);
+			return;
+		}
+		
+		PreparedStatement evicted = null;
+		synchronized (this) {
+			LinkedHashMap<Key, PreparedStatement> connectionStatements =
+					connections.computeIfAbsent(connection, c -> new LinkedHashMap<>(16, 0.75f, true));
+			
+			PreparedStatement existing = connectionStatements.putIfAbsent(key, stmt);
+			if (existing != null) {
+				// A statement of the same SQL that was in use at the same time
+				evicted = stmt;
+			} else if (connectionStatements.size() > maxSize) {
+				Iterator<PreparedStatement> iterator = connectionStatements.values().iterator();
+				evicted = iterator.next();
+				iterator.remove();
+				evictionCount.incrementAndGet();
+			}
+		}
+		JdbcUtils.closeQuietly(evicted);
+	}
+	
+	private PreparedStatement take(Connection connection, Key key) throws SQLException {
+		PreparedStatement stmt = null;
+		synchronized (this) {
+			Map<Key, PreparedStatement> connectionStatements = connections.get(connection);
+			if (connectionStatements != null) {
+				stmt = connectionStatements.remove(key);
+			}
+		}
+		
+		if (stmt != null && !stmt.isClosed()) {
+			hitCount.incrementAndGet();
+			return stmt;
+		}
+		missCount.incrementAndGet();
+		purgeClosedConnections();
+		return null;
+	}
+	
+	/**
+	 * Discards the statements of closed connections once every as many misses as there are connections
+	 */
+	private synchronized void purgeClosedConnections() {
+		if (++missesSincePurge < connections.size()) {
+			return;
+		}
+		missesSincePurge = 0;
+		
+		Iterator<Connection> iterator = connections.keySet().iterator();
+		while (iterator.hasNext()) {
+			Connection connection = iterator.next();
+			try {
+				if (!connection.isClosed()) {
+					continue;
+				}
+			} catch (SQLException e) {
+				// Treated as closed
+			}
+			iterator.remove();
+		}
+	}
+	
+	private static class Key {
+		final boolean autoGeneratedKeys;
+		final String sql;
+		
+		Key(String sql, boolean autoGeneratedKeys) {
+			this.autoGeneratedKeys = autoGeneratedKeys;
+			this.sql = sql;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)obj;
+			return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * sql.hashCode() + (autoGeneratedKeys ? 1 : 0);
+		}
+	}
+	
+	/**
+	 * Returns the statement to the pool instead of closing it
+	 */
+	private class PooledPreparedStatement extends PreparedStatementImpl {
+		private boolean closed;
+		private final Key key;
+		
+		PooledPreparedStatement(PreparedStatement statement, Connection connection, Key key) {
+			super(statement, connection);
+			this.key = key;
+		}
+		
+		@Override
+		public void close() throws SQLException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			closeResultSets();
+			release(connection, key, statement);
+		}
+		
+		@Override
+		public boolean isClosed() throws SQLException {
+			return closed || super.isClosed();
+		}
+	}
+}
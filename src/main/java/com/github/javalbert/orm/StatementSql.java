@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.orm;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SQL printed from a statement, its named parameters, the JDBC SQL layouts
+ * created from it for each combination of parameter sizes, and the {@link RowPlan}
+ * of the last entity class it was queried as
+ */
+final class StatementSql {
+	/**
+	 * Maximum number of layouts cached per statement, which bounds the number of
+	 * different IN list sizes that are cached
+	 */
+	public static final int MAX_LAYOUTS = 64;
+	/**
+	 * Size of a named parameter that is not set, leaving it as it is in the JDBC SQL
+	 */
+	public static final int PARAM_SIZE_NOT_SET = -1;
+	/**
+	 * Size of a named parameter that is not a collection
+	 */
+	public static final int PARAM_SIZE_SINGLE = 0;
+	
+	private final ConcurrentMap<ParamSizes, Layout> layouts = new ConcurrentHashMap<>();
+	private final String[] paramNames;
+	private final Set<String> paramNameSet;
+	private volatile RowPlan rowPlan;
+	private final String sql;
+	
+	public String[] getParamNames() { return paramNames; }
+	public Set<String> getParamNameSet() { return paramNameSet; }
+	public RowPlan getRowPlan() { return rowPlan; }
+	public void setRowPlan(RowPlan rowPlan) { this.rowPlan = rowPlan; }
+	public String getSql() { return sql; }
+	
+	public StatementSql(String sql, Set<String> paramNames) {
+		this.sql = sql;
+		this.paramNameSet = paramNames;
+		this.paramNames = paramNames.toArray(new String[paramNames.size()]);
+	}
+	
+	/**
+	 * 
+	 * @param paramSizes size of each parameter in {@link StatementSql#getParamNames()}
+	 * e.g. {@link StatementSql#PARAM_SIZE_SINGLE}
+	 * @return
+	 */
+	public Layout getLayout(int[] paramSizes) {
+		return layouts.get(new ParamSizes(paramSizes));
+	}
+	
+	public void putLayout(int[] paramSizes, Layout layout) {
+		if (layouts.size() < MAX_LAYOUTS) {
+			layouts.putIfAbsent(new ParamSizes(paramSizes), layout);
+		}
+	}
+	
+	/**
+	 * JDBC SQL where named parameters are replaced with placeholders, and the name of
+	 * the parameter of each placeholder (or IN list of placeholders) in order
+	 */
+	public static final class Layout {
+		private final String jdbcSql;
+		private final String[] paramNames;
+		
+		public String getJdbcSql() { return jdbcSql; }
+		public String[] getParamNames() { return paramNames; }
+		
+		public Layout(String jdbcSql, String[] paramNames) {
+			this.jdbcSql = jdbcSql;
+			this.paramNames = paramNames;
+		}
+	}
+	
+	private static final class ParamSizes {
+		private final int hashCode;
+		private final int[] sizes;
+		
+		public ParamSizes(int[] sizes) {
+			this.sizes = sizes;
+			hashCode = Arrays.hashCode(sizes);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (!(obj instanceof ParamSizes)) {
+				return false;
+			}
+			return Arrays.equals(sizes, ((ParamSizes)obj).sizes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -12,7 +12,12 @@
  *******************************************************************************/
 package com.github.javalbert.sqlbuilder;
 
-public class ImmutableDelete extends Delete {
+public class ImmutableDelete extends Delete implements MemoizedNode {
+	private final MemoizedSql memoizedSql = new MemoizedSql(this);
+	
+	@Override
+	public MemoizedSql getMemoizedSql() { return memoizedSql; }
+	
 	public ImmutableDelete(Delete delete) {
 		nodes = NodeUtils.immutableNodes(delete);
 	}
@@ -21,4 +26,21 @@ public class ImmutableDelete extends Delete {
 	public ImmutableDelete immutable() {
 		return this;
 	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		ImmutableDelete other = (ImmutableDelete)obj;
+		return memoizedSql.getStructuralHash() == other.memoizedSql.getStructuralHash()
+				&& NodeUtils.structurallyEquals(this, other);
+	}
+	
+	@Override
+	public int hashCode() {
+		return memoizedSql.getStructuralHash();
+	}
 }
\ No newline at end of file
@@ -12,7 +12,12 @@
  *******************************************************************************/
 package com.github.javalbert.sqlbuilder;
 
-public class ImmutableInsert extends Insert {
+public class ImmutableInsert extends Insert implements MemoizedNode {
+	private final MemoizedSql memoizedSql = new MemoizedSql(this);
+	
+	@Override
+	public MemoizedSql getMemoizedSql() { return memoizedSql; }
+	
 	public ImmutableInsert(Insert insert) {
 		nodes = NodeUtils.immutableNodes(insert);
 	}
@@ -21,4 +26,21 @@ public class ImmutableInsert extends Insert {
 	public ImmutableInsert immutable() {
 		return this;
 	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		ImmutableInsert other = (ImmutableInsert)obj;
+		return memoizedSql.getStructuralHash() == other.memoizedSql.getStructuralHash()
+				&& NodeUtils.structurallyEquals(this, other);
+	}
+	
+	@Override
+	public int hashCode() {
+		return memoizedSql.getStructuralHash();
+	}
 }
\ No newline at end of file
@@ -12,7 +12,12 @@
  *******************************************************************************/
 package com.github.javalbert.sqlbuilder;
 
-public class ImmutableMerge extends Merge {
+public class ImmutableMerge extends Merge implements MemoizedNode {
+	private final MemoizedSql memoizedSql = new MemoizedSql(this);
+	
+	@Override
+	public MemoizedSql getMemoizedSql() { return memoizedSql; }
+	
 	public ImmutableMerge(Merge merge) {
 		nodes = NodeUtils.immutableNodes(merge);
 	}
@@ -21,4 +26,21 @@ public class ImmutableMerge extends Merge {
 	public ImmutableMerge immutable() {
 		return this;
 	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		ImmutableMerge other = (ImmutableMerge)obj;
+		return memoizedSql.getStructuralHash() == other.memoizedSql.getStructuralHash()
+				&& NodeUtils.structurallyEquals(this, other);
+	}
+	
+	@Override
+	public int hashCode() {
+		return memoizedSql.getStructuralHash();
+	}
 }
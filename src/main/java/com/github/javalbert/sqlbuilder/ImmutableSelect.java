@@ -12,7 +12,11 @@
  *******************************************************************************/
 package com.github.javalbert.sqlbuilder;
 
-public class ImmutableSelect extends Select {
+public class ImmutableSelect extends Select implements MemoizedNode {
+	private final MemoizedSql memoizedSql = new MemoizedSql(this);
+	
+	@Override
+	public MemoizedSql getMemoizedSql() { return memoizedSql; }
 	@Override
 	public void setAlias(String alias) {
 		NodeUtils.throwImmutable();
@@ -27,4 +31,21 @@ public class ImmutableSelect extends Select {
 	public ImmutableSelect immutable() {
 		return this;
 	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		ImmutableSelect other = (ImmutableSelect)obj;
+		return memoizedSql.getStructuralHash() == other.memoizedSql.getStructuralHash()
+				&& NodeUtils.structurallyEquals(this, other);
+	}
+	
+	@Override
+	public int hashCode() {
+		return memoizedSql.getStructuralHash();
+	}
 }
\ No newline at end of file
@@ -12,7 +12,12 @@
  *******************************************************************************/
 package com.github.javalbert.sqlbuilder;
 
-public class ImmutableUpdate extends Update {
+public class ImmutableUpdate extends Update implements MemoizedNode {
+	private final MemoizedSql memoizedSql = new MemoizedSql(this);
+	
+	@Override
+	public MemoizedSql getMemoizedSql() { return memoizedSql; }
+	
 	public ImmutableUpdate(Update update) {
 		nodes = NodeUtils.immutableNodes(update);
 	}
@@ -21,4 +26,21 @@ public class ImmutableUpdate extends Update {
 	public ImmutableUpdate immutable() {
 		return this;
 	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		ImmutableUpdate other = (ImmutableUpdate)obj;
+		return memoizedSql.getStructuralHash() == other.memoizedSql.getStructuralHash()
+				&& NodeUtils.structurallyEquals(this, other);
+	}
+	
+	@Override
+	public int hashCode() {
+		return memoizedSql.getStructuralHash();
+	}
 }
\ No newline at end of file
@@ -17,6 +17,21 @@ import java.util.List;
 import java.util.Objects;
 
 public class Insert implements DMLStatement<Insert>, Node<Insert>, NodeHolder {
+	/**
+	 * Separates the name of a parameter from its row number in {@link Insert#multiRow(int)}
+	 */
+	public static final String ROW_PARAM_SEPARATOR = "__";
+	
+	/**
+	 * 
+	 * @param name name of a parameter in the row value constructor of a single row INSERT statement
+	 * @param row 0-based row number
+	 * @return name of the parameter in row <b>row</b> of {@link Insert#multiRow(int)}
+	 */
+	public static String rowParamName(String name, int row) {
+		return name + ROW_PARAM_SEPARATOR + row;
+	}
+	
 	@SuppressWarnings("rawtypes")
 	protected List<Node> nodes = new ArrayList<>();
 	
@@ -46,6 +61,44 @@ public class Insert implements DMLStatement<Insert>, Node<Insert>, NodeHolder {
 		return new ImmutableInsert(this);
 	}
 
+	/**
+	 * Creates an INSERT statement that inserts <b>rowCount</b> rows in one statement e.g.
+	 * <code>INSERT INTO t (a) VALUES (:a__0), (:a__1)</code>, by repeating the single row value
+	 * constructor of this statement and renaming each parameter with {@link Insert#rowParamName(String, int)}
+	 * @param rowCount
+	 * @return a new mutable INSERT statement
+	 * @throws IllegalStateException if this statement does not have exactly one row value constructor
+	 */
+	@SuppressWarnings("rawtypes")
+	public Insert multiRow(int rowCount) {
+		if (rowCount < 1) {
+			throw new IllegalArgumentException("rowCount must be greater than 0");
+		}
+		
+		Insert insert = new Insert();
+		boolean valuesFound = false;
+		
+		for (Node node : nodes) {
+			if (node.getType() != TYPE_COLUMN_VALUES) {
+				insert.nodes.add(node.mutable());
+				continue;
+			} else if (valuesFound) {
+				throw new IllegalStateException("INSERT statement has more than one row value constructor");
+			}
+			valuesFound = true;
+			
+			for (int row = 0; row < rowCount; row++) {
+				ColumnValues values = ((ColumnValues)node).mutable();
+				values.accept(new RowParamRenamer(row));
+				insert.nodes.add(values);
+			}
+		}
+		if (!valuesFound) {
+			throw new IllegalStateException("INSERT statement has no row value constructor");
+		}
+		return insert;
+	}
+
 	@Override
 	public Insert mutable() {
 		return new Insert(this);
@@ -79,4 +132,21 @@ public class Insert implements DMLStatement<Insert>, Node<Insert>, NodeHolder {
 	}
 	
 	/* END Fluent API */
+	
+	private static class RowParamRenamer implements NodeVisitor {
+		private final int row;
+		
+		public RowParamRenamer(int row) {
+			this.row = row;
+		}
+		
+		@Override
+		public boolean visit(@SuppressWarnings("rawtypes") Node node) {
+			if (node.getType() == TYPE_PARAM) {
+				Param param = (Param)node;
+				param.setName(rowParamName(param.getName(), row));
+			}
+			return true;
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.sqlbuilder;
+
+import java.util.Arrays;
+
+/**
+ * Printed SQL of an immutable node, memoized per vendor (by identity), and the structural hash code
+ * of the node, both computed lazily.<br>
+ * <br>
+ * Once <code>MAX_VENDORS</code> vendors have printed the node, SQL printed by further vendors
+ * is not memoized.
+ */
+public final class MemoizedSql {
+	public static final int MAX_VENDORS = 4;
+	
+	private static final Entry[] EMPTY = new Entry[0];
+	
+	@SuppressWarnings("rawtypes")
+	private final Node node;
+	/**
+	 * Copy-on-write so that a hit is a single volatile read of the array,
+	 * whose entries are published by the volatile write
+	 */
+	private volatile Entry[] entries = EMPTY;
+	/**
+	 * Like String.hashCode(), a racy write is harmless because every thread computes the same value
+	 */
+	private int structuralHash;
+	
+	public MemoizedSql(@SuppressWarnings("rawtypes") Node node) {
+		this.node = node;
+	}
+	
+	/**
+	 * 
+	 * @param vendor
+	 * @return SQL printed by <b>vendor</b>, or null if it's not memoized
+	 */
+	public String get(Object vendor) {
+		Entry[] entries = this.entries;
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i].vendor == vendor) {
+				return entries[i].sql;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * 
+	 * @return {@link NodeUtils#structuralHashCode(Node)} of the node, computed once
+	 */
+	public int getStructuralHash() {
+		int hash = structuralHash;
+		if (hash == 0) {
+			hash = NodeUtils.structuralHashCode(node);
+			structuralHash = hash;
+		}
+		return hash;
+	}
+	
+	/**
+	 * 
+	 * @param vendor
+	 * @param sql SQL printed by <b>vendor</b>
+	 * @return the SQL already memoized for <b>vendor</b> if another thread printed it first,
+	 * otherwise <b>sql</b>
+	 */
+	public synchronized String putIfAbsent(Object vendor, String sql) {
+		String existing = get(vendor);
+		if (existing != null) {
+			return existing;
+		}
+		if (entries.length < MAX_VENDORS) {
+			Entry[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+			newEntries[entries.length] = new Entry(vendor, sql);
+			entries = newEntries;
+		}
+		return sql;
+	}
+	
+	private static class Entry {
+		final String sql;
+		final Object vendor;
+		
+		Entry(Object vendor, String sql) {
+			this.sql = sql;
+			this.vendor = vendor;
+		}
+	}
+}
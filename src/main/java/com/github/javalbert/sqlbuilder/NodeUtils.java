@@ -45,6 +45,43 @@ public final class NodeUtils {
 		return nodes;
 	}
 	
+	/**
+	 * 
+	 * @param statement
+	 * @return true if <b>statement</b> is one of the immutable SQL statement classes,
+	 * which means its printed SQL never changes
+	 */
+	public static boolean isImmutable(@SuppressWarnings("rawtypes") SqlStatement statement) {
+		return statement instanceof ImmutableSelect
+				|| statement instanceof ImmutableInsert
+				|| statement instanceof ImmutableUpdate
+				|| statement instanceof ImmutableDelete
+				|| statement instanceof ImmutableMerge;
+	}
+	
+	/**
+	 * 
+	 * @param node
+	 * @return hash code of the types, classes and values of <b>node</b> and its recursive child nodes
+	 * in visiting order, which is equal for nodes that are {@link NodeUtils#structurallyEquals(Node, Node)}
+	 */
+	public static int structuralHashCode(@SuppressWarnings("rawtypes") Node node) {
+		return fingerprint(node).hashCode();
+	}
+	
+	/**
+	 * 
+	 * @param a
+	 * @param b
+	 * @return true if both nodes have the same types, classes and values
+	 * and recursive child nodes, and therefore print the same SQL
+	 */
+	public static boolean structurallyEquals(
+			@SuppressWarnings("rawtypes") Node a,
+			@SuppressWarnings("rawtypes") Node b) {
+		return a == b || a != null && b != null && fingerprint(a).equals(fingerprint(b));
+	}
+	
 	public static void throwImmutable() {
 		throw immutableException();
 	}
@@ -85,5 +122,76 @@ public final class NodeUtils {
 		}
 	}
 	
+	/**
+	 * Flattens the tree into the values of each node, in visiting order. The number of
+	 * child nodes of each holder is included so that different trees cannot flatten to the same list.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static List<Object> fingerprint(Node node) {
+		List<Object> values = new ArrayList<>();
+		node.accept(n -> {
+			values.add(n.getClass());
+			values.add(n.getType());
+			if (n instanceof NodeHolder) {
+				values.add(((NodeHolder)n).getNodes().size());
+			}
+			if (n instanceof Aliasable) {
+				values.add(((Aliasable)n).getAlias());
+			}
+			
+			switch (n.getType()) {
+				case Node.TYPE_BINARY_OPERATOR:
+				case Node.TYPE_ORDER_BY_SORT:
+				case Node.TYPE_TOKEN:
+					Token token = (Token)n;
+					values.add(token.getToken());
+					values.add(token.isNextNodeAnExpression());
+					break;
+				case Node.TYPE_COLUMN:
+					Column column = (Column)n;
+					values.add(column.getPrefix());
+					values.add(column.getPrefixValue());
+					values.add(column.getName());
+					break;
+				case Node.TYPE_COMMON_TABLE_EXPRESSION:
+					CommonTableExpression cte = (CommonTableExpression)n;
+					values.add(cte.getName());
+					values.add(cte.getColumns() != null ? new ArrayList<>(cte.getColumns()) : null);
+					values.add(cte.getSelect() != null);
+					break;
+				case Node.TYPE_FETCH:
+					values.add(((Fetch)n).getFetchCount());
+					break;
+				case Node.TYPE_FUNCTION:
+					Function function = (Function)n;
+					values.add(function.getName());
+					values.add(function.getMaxArguments());
+					break;
+				case Node.TYPE_LITERAL_BOOLEAN:
+				case Node.TYPE_LITERAL_NULL:
+				case Node.TYPE_LITERAL_NUMBER:
+				case Node.TYPE_LITERAL_STRING:
+					values.add(((Literal)n).getValue());
+					break;
+				case Node.TYPE_OFFSET:
+					values.add(((Offset)n).getSkipCount());
+					break;
+				case Node.TYPE_PARAM:
+					values.add(((Param)n).getName());
+					break;
+				case Node.TYPE_SET_OPERATOR:
+					SetOperator operator = (SetOperator)n;
+					values.add(operator.getOperator());
+					values.add(operator.getSelect() != null);
+					break;
+				case Node.TYPE_TABLE:
+					values.add(((Table)n).getName());
+					break;
+			}
+			return true;
+		});
+		return values;
+	}
+	
 	private NodeUtils() {}
 }
\ No newline at end of file
@@ -0,0 +1,1038 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.sqlbuilder.dsl;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.github.javalbert.sqlbuilder.ArithmeticOperator;
+import com.github.javalbert.sqlbuilder.BinaryOperator;
+import com.github.javalbert.sqlbuilder.Keywords;
+import com.github.javalbert.sqlbuilder.Merge;
+import com.github.javalbert.sqlbuilder.Node;
+import com.github.javalbert.sqlbuilder.Param;
+import com.github.javalbert.sqlbuilder.RelationalOperator;
+import com.github.javalbert.sqlbuilder.SqlStringUtils;
+import com.github.javalbert.sqlbuilder.vendor.ANSI;
+import com.github.javalbert.sqlbuilder.vendor.MSSQL;
+import com.github.javalbert.sqlbuilder.vendor.MySQL;
+import com.github.javalbert.sqlbuilder.vendor.Vendor;
+import com.github.javalbert.utils.string.Strings;
+
+/**
+ * Prints the internal DSL as defined in <code>dsl</code> package directly to SQL, without first
+ * building the parallel tree of <code>com.github.javalbert.sqlbuilder</code> nodes with {@link DSLTransformer}.
+ * The SQL is the same as <code>vendor.print(DSLTransformer.INSTANCE.build(stmt))</code>.<br>
+ * <br>
+ * Only {@link ANSI}, {@link MySQL} and {@link MSSQL} are printed directly, since other vendors
+ * may override how any node is printed, so statements of other vendors are still transformed first.
+ * Likewise, MySQL expressions with the concatenation operator are transformed because MySQL prints them
+ * as a CONCAT function.
+ * 
+ * @author Albert
+ *
+ */
+public class DSLRenderer {
+	private static final int FROM_START = 0;
+	/**
+	 * After a JOIN or a parenthesis, which is not followed by a comma
+	 */
+	private static final int FROM_JOIN = 1;
+	private static final int FROM_TABLE_REFERENCE = 2;
+	
+	private static boolean containsConcat(Expression expression) {
+		for (ExpressionNode node : expression.getNodes()) {
+			if (node == ExpressionOperatorNode.CONCAT) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 
+	 * @param dslNode
+	 * @return true if {@link DSLTransformer} adds a node for <b>dslNode</b>
+	 */
+	private static boolean isValue(DSLNode dslNode) {
+		switch (dslNode.getNodeType()) {
+			case DSLNode.NODE_CASE:
+			case DSLNode.NODE_EXPRESSION:
+			case DSLNode.NODE_FUNCTION:
+			case DSLNode.NODE_LITERAL_BOOLEAN:
+			case DSLNode.NODE_LITERAL_NULL:
+			case DSLNode.NODE_LITERAL_NUMBER:
+			case DSLNode.NODE_LITERAL_STRING:
+			case DSLNode.NODE_PARAMETER:
+			case DSLNode.NODE_SELECT_STATEMENT:
+			case DSLNode.NODE_TABLE_COLUMN:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	private final String booleanFalse;
+	private final String booleanTrue;
+	private final boolean concatFunction;
+	private final boolean direct;
+	private final Vendor vendor;
+	
+	public Vendor getVendor() { return vendor; }
+	
+	public DSLRenderer(Vendor vendor) {
+		this.vendor = Objects.requireNonNull(vendor, "vendor cannot be null");
+		Class<?> vendorClass = vendor.getClass();
+		concatFunction = vendorClass == MySQL.class;
+		direct = vendorClass == ANSI.class || vendorClass == MySQL.class || vendorClass == MSSQL.class;
+		booleanFalse = vendorClass == MSSQL.class ? MSSQL.LITERAL_BOOLEAN_FALSE : Keywords.FALSE;
+		booleanTrue = vendorClass == MSSQL.class ? MSSQL.LITERAL_BOOLEAN_TRUE : Keywords.TRUE;
+	}
+	
+	/* START Public methods */
+	
+	public String render(DMLStatement stmt) {
+		return render(stmt, null);
+	}
+	
+	/**
+	 * 
+	 * @param stmt
+	 * @param paramNames if not null, the names of the parameters of <b>stmt</b> are added to it
+	 * @return
+	 */
+	public String render(DMLStatement stmt, Set<String> paramNames) {
+		StringBuilder builder = new StringBuilder();
+		renderTo(stmt, builder, paramNames);
+		return builder.toString();
+	}
+	
+	/**
+	 * 
+	 * @param stmt
+	 * @param builder the SQL is appended to it
+	 * @param paramNames if not null, the names of the parameters of <b>stmt</b> are added to it
+	 */
+	public void renderTo(DMLStatement stmt, StringBuilder builder, Set<String> paramNames) {
+		Objects.requireNonNull(stmt, "stmt cannot be null");
+		if (!direct) {
+			printTransformed(DSLTransformer.INSTANCE.build(stmt), builder, paramNames);
+			return;
+		}
+		new Rendering(builder, paramNames).appendStatement(stmt);
+	}
+	
+	/* END Public methods */
+	
+	/* START Private methods */
+	
+	@SuppressWarnings("rawtypes")
+	private void printTransformed(Node node, StringBuilder builder, Set<String> paramNames) {
+		vendor.printTo(node, builder);
+		
+		if (paramNames != null) {
+			node.accept(n -> {
+				if (n.getType() == Node.TYPE_PARAM) {
+					paramNames.add(((Param)n).getName());
+				}
+				return true;
+			});
+		}
+	}
+	
+	/* END Private methods */
+	
+	/**
+	 * Appends to one <code>StringBuilder</code> what the {@link ANSI} <code>printTo</code> methods
+	 * append for the nodes built by {@link DSLTransformer}
+	 */
+	private class Rendering {
+		private final StringBuilder builder;
+		private final Set<String> paramNames;
+		
+		Rendering(StringBuilder builder, Set<String> paramNames) {
+			this.builder = builder;
+			this.paramNames = paramNames;
+		}
+		
+		void appendStatement(DMLStatement stmt) {
+			switch (stmt.getDmlType()) {
+				case DMLStatement.DML_SELECT:
+					appendSelect((SelectStatement)stmt, false);
+					break;
+				case DMLStatement.DML_INSERT:
+					appendInsert((InsertStatement)stmt);
+					break;
+				case DMLStatement.DML_UPDATE:
+					appendUpdate((UpdateStatement)stmt);
+					break;
+				case DMLStatement.DML_DELETE:
+					appendDelete((DeleteStatement)stmt);
+					break;
+				case DMLStatement.DML_MERGE:
+					appendMerge((MergeStatement)stmt);
+					break;
+			}
+		}
+		
+		/* BEGIN Statements */
+		
+		private void appendDelete(DeleteStatement stmt) {
+			appendWith(stmt);
+			builder.append(Keywords.DELETE_FROM);
+			
+			if (stmt.getTable() != null) {
+				builder.append(" ");
+				appendTable(stmt.getTable().getName(), null);
+			}
+			appendWhere(stmt.getWhereCondition());
+		}
+		
+		private void appendInsert(InsertStatement stmt) {
+			appendWith(stmt);
+			builder.append(Keywords.INSERT);
+			
+			if (stmt.getTable() != null) {
+				builder.append(" ")
+						.append(Keywords.INTO)
+						.append(" ");
+				appendTable(stmt.getTable().getName(), null);
+			}
+			
+			List<TableColumn> columns = stmt.getColumns();
+			if (!columns.isEmpty()) {
+				builder.append(" (");
+				for (int i = 0; i < columns.size(); i++) {
+					if (i > 0) {
+						builder.append(", ");
+					}
+					appendColumn(null, columns.get(i).getName(), null);
+				}
+				builder.append(")");
+			}
+			
+			if (!stmt.getValues().isEmpty()) {
+				builder.append(" ")
+						.append(Keywords.VALUES)
+						.append(" (");
+				appendCommaSeparated(stmt.getValues());
+				builder.append(")");
+			} else if (stmt.getSubselect() != null) {
+				builder.append(" ");
+				appendSelect(stmt.getSubselect(), false);
+			}
+		}
+		
+		private void appendMerge(MergeStatement stmt) {
+			builder.append(Keywords.MERGE)
+					.append(" ")
+					.append(Keywords.INTO)
+					.append(" ");
+			appendTable(stmt.getTargetTable().getName(), null);
+			
+			TableReference sourceTable = stmt.getSourceTable();
+			if (sourceTable.getTableType() == TableReference.TABLE_TABLE) {
+				builder.append(" ")
+						.append(Keywords.USING)
+						.append(" ");
+				appendTable(((Table)sourceTable).getName(), null);
+			} else if (sourceTable.getTableType() == TableReference.TABLE_INLINE_VIEW) {
+				builder.append(" ")
+						.append(Keywords.USING)
+						.append(" ");
+				appendSelect((SelectStatement)sourceTable, true);
+			}
+			
+			builder.append(" ")
+					.append(Keywords.ON)
+					.append(" ");
+			appendBooleanExpression(stmt.getSearchCondition());
+			
+			for (MergeAction action : stmt.getMergeActions()) {
+				builder.append(" ")
+						.append(action.isWhenMatched()
+								? Merge.WHEN_MATCHED.getToken()
+								: Merge.WHEN_NOT_MATCHED.getToken());
+				
+				if (action.getSearchCondition() != null) {
+					builder.append(" ")
+							.append(Keywords.AND)
+							.append(" ");
+					appendBooleanExpression(action.getSearchCondition());
+				}
+				builder.append(" ")
+						.append(Keywords.THEN);
+				
+				DMLStatement dmlAction = action.getDmlStatement();
+				if (dmlAction.getDmlType() == DMLStatement.DML_INSERT) {
+					builder.append(" ");
+					appendInsert((InsertStatement)dmlAction);
+				} else if (dmlAction.getDmlType() == DMLStatement.DML_UPDATE) {
+					builder.append(" ");
+					appendUpdate((UpdateStatement)dmlAction);
+				} else if (dmlAction.getDmlType() == DMLStatement.DML_DELETE) {
+					builder.append(" ")
+							.append(Keywords.DELETE);
+				}
+			}
+		}
+		
+		private void appendSelect(SelectStatement stmt, boolean subquery) {
+			if (subquery) {
+				builder.append("(");
+			}
+			
+			appendWith(stmt);
+			builder.append(Keywords.SELECT)
+					.append(" ");
+			appendSelectList(stmt);
+			
+			if (!stmt.getTables().isEmpty()) {
+				builder.append(" ")
+						.append(Keywords.FROM);
+				int previous = FROM_START;
+				for (TableReference tableReference : stmt.getTables()) {
+					previous = appendTableReference(tableReference, previous);
+				}
+			}
+			
+			appendWhere(stmt.getWhereCondition());
+			
+			List<TableColumn> groupByColumns = stmt.getGroupByColumns();
+			if (!groupByColumns.isEmpty()) {
+				builder.append(" ")
+						.append(Keywords.GROUP_BY);
+				for (int i = 0; i < groupByColumns.size(); i++) {
+					if (i > 0) {
+						builder.append(",");
+					}
+					builder.append(" ");
+					appendTableColumn(groupByColumns.get(i), null);
+				}
+			}
+			
+			if (stmt.getHavingCondition() != null) {
+				builder.append(" ")
+						.append(Keywords.HAVING)
+						.append(" ");
+				appendBooleanExpression(stmt.getHavingCondition());
+			}
+			
+			if (!stmt.getOrderByColumns().isEmpty()) {
+				appendOrderBy(stmt.getOrderByColumns());
+			}
+			
+			for (SetOperation setOperation : stmt.getSetOperations()) {
+				appendSetOperator(setOperation.getOperator());
+				builder.append(" ");
+				appendSelect(setOperation.getQuery(), false);
+			}
+			
+			if (subquery) {
+				builder.append(")");
+			}
+		}
+		
+		private void appendUpdate(UpdateStatement stmt) {
+			appendWith(stmt);
+			builder.append(Keywords.UPDATE);
+			
+			if (stmt.getTable() != null) {
+				builder.append(" ");
+				appendTable(stmt.getTable().getName(), null);
+			}
+			
+			if (!stmt.getValues().isEmpty()) {
+				builder.append(" ")
+						.append(Keywords.SET)
+						.append(" ");
+				
+				int start = builder.length();
+				for (SetValue value : stmt.getValues()) {
+					if (builder.length() > start) {
+						builder.append(", ");
+					}
+					appendColumn(null, value.getColumn().getName(), null);
+					builder.append(" = ");
+					appendValue(value.getValue(), null);
+				}
+			}
+			appendWhere(stmt.getWhereCondition());
+		}
+		
+		/* END Statements */
+		
+		/* BEGIN Clauses */
+		
+		private void appendOrderBy(List<OrderByColumn> orderByColumns) {
+			builder.append(" ")
+					.append(Keywords.ORDER_BY);
+			
+			boolean first = true;
+			for (OrderByColumn orderByColumn : orderByColumns) {
+				if (orderByColumn.getOrderByColumnType() == OrderByColumn.ORDER_TABLE_COLUMN) {
+					appendOrderByColumnSeparator(first);
+					appendTableColumn((TableColumn)orderByColumn, null);
+					first = false;
+				} else if (orderByColumn.getOrderByColumnType() == OrderByColumn.ORDER_COLUMN_ALIAS) {
+					appendOrderByColumnSeparator(first);
+					appendColumn(null, null, ((ColumnAlias)orderByColumn).getAlias());
+					first = false;
+				}
+				
+				if (orderByColumn.getSortType() == SortType.ASC) {
+					builder.append(" ")
+							.append(Keywords.ASC);
+					first = false;
+				} else if (orderByColumn.getSortType() == SortType.DESC) {
+					builder.append(" ")
+							.append(Keywords.DESC);
+					first = false;
+				}
+			}
+		}
+		
+		private void appendOrderByColumnSeparator(boolean first) {
+			if (!first) {
+				builder.append(",");
+			}
+			builder.append(" ");
+		}
+		
+		private void appendSelectList(SelectStatement stmt) {
+			int start = builder.length();
+			boolean appendComma = true;
+			
+			if (stmt.isDistinct()) {
+				builder.append(Keywords.DISTINCT);
+				appendComma = false;
+			}
+			
+			for (SelectColumn<?> selectColumn : stmt.getColumns()) {
+				if (!isValue(selectColumn)) {
+					continue;
+				}
+				if (builder.length() > start) {
+					if (appendComma) {
+						builder.append(",");
+					}
+					builder.append(" ");
+				}
+				appendComma = true;
+				
+				appendValue(selectColumn, selectColumn.getAlias());
+			}
+		}
+		
+		private void appendSetOperator(SetOperator operator) {
+			if (operator == null) {
+				return;
+			}
+			
+			builder.append(" ");
+			switch (operator) {
+				case EXCEPT: builder.append(Keywords.EXCEPT); break;
+				case INTERSECT: builder.append(Keywords.INTERSECT); break;
+				case UNION: builder.append(Keywords.UNION); break;
+				case UNION_ALL: builder.append(Keywords.UNION_ALL); break;
+			}
+		}
+		
+		private void appendWhere(BooleanExpression whereCondition) {
+			if (whereCondition == null) {
+				return;
+			}
+			
+			builder.append(" ")
+					.append(Keywords.WHERE)
+					.append(" ");
+			appendBooleanExpression(whereCondition);
+		}
+		
+		private void appendWith(WithClause stmt) {
+			CteList cteList = stmt.getCteList();
+			if (cteList.isEmpty()) {
+				return;
+			}
+			
+			builder.append(Keywords.WITH);
+			for (int i = 0; i < cteList.size(); i++) {
+				CommonTableExpression cte = cteList.get(i);
+				
+				if (i > 0) {
+					builder.append(",");
+				}
+				builder.append(" ")
+						.append(Strings.safeTrim(cte.getQueryName().getName()));
+				
+				List<TableColumn> columns = cte.getColumns();
+				if (!columns.isEmpty()) {
+					builder.append(" (");
+					for (int j = 0; j < columns.size(); j++) {
+						if (j > 0) {
+							builder.append(", ");
+						}
+						builder.append(Strings.safeTrim(columns.get(j).getName()));
+					}
+					builder.append(")");
+				}
+				
+				builder.append(" ")
+						.append(Keywords.AS)
+						.append(" ");
+				appendSelect(cte.getQuery(), true);
+			}
+			builder.append(" ");
+		}
+		
+		/* END Clauses */
+		
+		/* BEGIN Table references */
+		
+		private void appendTable(String name, String alias) {
+			int start = builder.length();
+			name = Strings.safeTrim(name);
+			alias = Strings.safeTrim(alias);
+			
+			if (!Strings.isNullOrEmpty(name)) {
+				builder.append(name);
+			}
+			if (!Strings.isNullOrEmpty(alias)) {
+				if (builder.length() > start) {
+					builder.append(" ");
+				}
+				builder.append(alias);
+			}
+		}
+		
+		/**
+		 * 
+		 * @param tableReference
+		 * @param previous what was appended before in the FROM clause
+		 * @return what was appended last
+		 */
+		private int appendTableReference(TableReference tableReference, int previous) {
+			if (tableReference.getTableType() == TableReference.TABLE_TABLE) {
+				Table table = (Table)tableReference;
+				if (previous == FROM_TABLE_REFERENCE) {
+					builder.append(",");
+				}
+				builder.append(" ");
+				appendTable(table.getName(), table.getTableAlias() != null ? table.getTableAlias().getAlias() : null);
+				return FROM_TABLE_REFERENCE;
+			} else if (tableReference.getTableType() == TableReference.TABLE_JOINED_TABLE) {
+				return appendJoinedTable((JoinedTable)tableReference, previous);
+			} else if (tableReference.getTableType() == TableReference.TABLE_INLINE_VIEW) {
+				SelectStatement inlineView = (SelectStatement)tableReference;
+				if (previous == FROM_TABLE_REFERENCE) {
+					builder.append(",");
+				}
+				builder.append(" ");
+				appendSelect(inlineView, true);
+				if (inlineView.getTableAlias() != null) {
+					// Select.setAlias(String) does not trim
+					appendAlias(inlineView.getTableAlias().getAlias());
+				}
+				return FROM_TABLE_REFERENCE;
+			}
+			return previous;
+		}
+		
+		private int appendJoinedTable(JoinedTable joinedTable, int previous) {
+			if (joinedTable.isNestedJoin()) {
+				builder.append(" (");
+				previous = FROM_JOIN;
+			}
+			
+			previous = appendTableReference(joinedTable.getLeftTable(), previous);
+			
+			if (joinedTable.getJoinType() != null) {
+				builder.append(" ");
+				switch (joinedTable.getJoinType()) {
+					case FULL: builder.append(Keywords.FULL_OUTER_JOIN); break;
+					case INNER: builder.append(Keywords.INNER_JOIN); break;
+					case LEFT: builder.append(Keywords.LEFT_OUTER_JOIN); break;
+					case RIGHT: builder.append(Keywords.RIGHT_OUTER_JOIN); break;
+				}
+				previous = FROM_JOIN;
+			}
+			
+			previous = appendTableReference(joinedTable.getRightTable(), previous);
+			
+			builder.append(" ")
+					.append(Keywords.ON)
+					.append(" ");
+			appendBooleanExpression(joinedTable.getJoinCondition());
+			previous = FROM_TABLE_REFERENCE;
+			
+			if (joinedTable.isNestedJoin()) {
+				builder.append(" )");
+				previous = FROM_JOIN;
+			}
+			return previous;
+		}
+		
+		/* END Table references */
+		
+		/* BEGIN Conditions */
+		
+		/**
+		 * Appends the nodes that {@link DSLTransformer} adds to a condition
+		 * for <b>booleanExpression</b>, separated by a space
+		 */
+		private void appendBooleanExpression(BooleanExpression booleanExpression) {
+			switch (booleanExpression.getNodeType()) {
+				case DSLNode.NODE_CONDITION:
+					Condition condition = (Condition)booleanExpression;
+					if (condition.isGrouped()) {
+						builder.append("(");
+					}
+					
+					appendBooleanExpression(condition.getLeftExpression());
+					if (condition.getLogicalOperator() == LogicalOperator.AND) {
+						builder.append(" ")
+								.append(Keywords.AND);
+					} else if (condition.getLogicalOperator() == LogicalOperator.OR) {
+						builder.append(" ")
+								.append(Keywords.OR);
+					}
+					builder.append(" ");
+					appendBooleanExpression(condition.getRightExpression());
+					
+					if (condition.isGrouped()) {
+						builder.append(")");
+					}
+					break;
+				case DSLNode.NODE_PREDICATE:
+					appendPredicate((Predicate)booleanExpression);
+					break;
+				case DSLNode.NODE_PREDICATE_BETWEEN:
+					appendBetweenPredicate((BetweenPredicate)booleanExpression);
+					break;
+				case DSLNode.NODE_PREDICATE_EXISTS:
+					appendExistsPredicate((ExistsPredicate)booleanExpression);
+					break;
+				case DSLNode.NODE_PREDICATE_IN:
+					appendInPredicate((InPredicate)booleanExpression);
+					break;
+			}
+		}
+		
+		private void appendBetweenPredicate(BetweenPredicate predicate) {
+			int start = builder.length();
+			appendValue(predicate.getLeftPredicand(), null);
+			
+			if (predicate.getOperator() == PredicateOperator.BETWEEN) {
+				appendPredicateToken(start, Keywords.BETWEEN);
+			} else if (predicate.getOperator() == PredicateOperator.NOT_BETWEEN) {
+				appendPredicateToken(start, Keywords.NOT_BETWEEN);
+			}
+			
+			appendPredicateValue(start, predicate.getValue1());
+			appendPredicateToken(start, Keywords.AND);
+			appendPredicateValue(start, predicate.getValue2());
+		}
+		
+		private void appendExistsPredicate(ExistsPredicate predicate) {
+			int start = builder.length();
+			
+			if (predicate.getOperator() == PredicateOperator.EXISTS) {
+				appendPredicateToken(start, Keywords.EXISTS);
+			} else if (predicate.getOperator() == PredicateOperator.NOT_EXISTS) {
+				appendPredicateToken(start, Keywords.NOT_EXISTS);
+			}
+			
+			appendPredicateValue(start, predicate.getSubquery());
+		}
+		
+		private void appendInPredicate(InPredicate predicate) {
+			int start = builder.length();
+			appendValue(predicate.getLeftPredicand(), null);
+			
+			if (predicate.getOperator() == PredicateOperator.IN) {
+				appendPredicateToken(start, Keywords.IN);
+			} else if (predicate.getOperator() == PredicateOperator.NOT_IN) {
+				appendPredicateToken(start, Keywords.NOT_IN);
+			}
+			
+			List<ValueExpression> values = predicate.getValues();
+			if (values.size() == 1
+					&& values.get(0).getNodeType() == DSLNode.NODE_SELECT_STATEMENT) {
+				appendPredicateValue(start, values.get(0));
+				return;
+			}
+			
+			appendPredicateToken(start, "(");
+			appendCommaSeparated(values);
+			builder.append(")");
+		}
+		
+		/**
+		 * Except for BETWEEN, EXISTS, and IN
+		 */
+		@SuppressWarnings("incomplete-switch")
+		private void appendPredicate(Predicate predicate) {
+			int start = builder.length();
+			appendValue(predicate.getLeftPredicand(), null);
+			
+			switch (predicate.getOperator()) {
+				case EQ:
+					appendPredicateToken(start, RelationalOperator.EQ);
+					break;
+				case GT:
+					appendPredicateToken(start, RelationalOperator.GT);
+					break;
+				case GT_EQ:
+					appendPredicateToken(start, RelationalOperator.GT_EQ);
+					break;
+				case IS_NOT_NULL:
+					appendPredicateToken(start, Keywords.IS_NOT_NULL);
+					return;
+				case IS_NULL:
+					appendPredicateToken(start, Keywords.IS_NULL);
+					return;
+				case LIKE:
+					appendPredicateToken(start, Keywords.LIKE);
+					break;
+				case LT:
+					appendPredicateToken(start, RelationalOperator.LT);
+					break;
+				case LT_EQ:
+					appendPredicateToken(start, RelationalOperator.LT_EQ);
+					break;
+				case NOT_EQ:
+					appendPredicateToken(start, RelationalOperator.NOT_EQ);
+					break;
+				case NOT_LIKE:
+					appendPredicateToken(start, Keywords.NOT_LIKE);
+					break;
+			}
+			
+			appendPredicateValue(start, predicate.getRightPredicand());
+		}
+		
+		/**
+		 * Like ANSI.printTo(Predicate, StringBuilder), nodes of a predicate are separated
+		 * by a space only if something was appended before
+		 */
+		private void appendPredicateToken(int start, String token) {
+			if (builder.length() > start) {
+				builder.append(" ");
+			}
+			builder.append(token);
+		}
+		
+		private void appendPredicateValue(int start, DSLNode value) {
+			if (!isValue(value)) {
+				return;
+			}
+			if (builder.length() > start) {
+				builder.append(" ");
+			}
+			appendValue(value, null);
+		}
+		
+		/* END Conditions */
+		
+		/* BEGIN Values */
+		
+		private void appendAlias(String alias) {
+			if (Strings.isNullOrEmpty(alias)) {
+				return;
+			}
+			
+			builder.append(" ")
+					.append(Keywords.AS)
+					.append(" ")
+					.append(SqlStringUtils.createLiteralToken(alias));
+		}
+		
+		private void appendCase(Case dslCase, String alias) {
+			builder.append(Keywords.CASE);
+			
+			boolean simpleCase = dslCase.getSimpleCaseExpression() != LiteralNull.INSTANCE;
+			if (simpleCase) {
+				appendCaseValue(dslCase.getSimpleCaseExpression());
+			}
+			
+			for (When when : dslCase.getWhenClauses()) {
+				builder.append(" ")
+						.append(Keywords.WHEN);
+				
+				if (simpleCase) {
+					appendCaseValue(when.getSimpleExpression());
+				} else {
+					builder.append(" ");
+					appendBooleanExpression(when.getBooleanExpression());
+				}
+				
+				builder.append(" ")
+						.append(Keywords.THEN);
+				appendCaseValue(when.getThen());
+			}
+			
+			if (dslCase.getElseExpression() != null) {
+				builder.append(" ")
+						.append(Keywords.ELSE);
+				appendCaseValue(dslCase.getElseExpression());
+			}
+			
+			builder.append(" ")
+					.append(Keywords.END);
+			appendAlias(Strings.safeTrim(alias));
+		}
+		
+		private void appendCaseValue(DSLNode value) {
+			if (isValue(value)) {
+				builder.append(" ");
+				appendValue(value, null);
+			}
+		}
+		
+		private void appendColumn(String prefixValue, String name, String alias) {
+			prefixValue = Strings.safeTrim(prefixValue);
+			name = Strings.safeTrim(name);
+			alias = Strings.safeTrim(alias);
+			
+			if (!Strings.isNullOrEmpty(prefixValue)) {
+				builder.append(prefixValue).append(".");
+			}
+			if (!Strings.isNullOrEmpty(name)) {
+				builder.append(name);
+				appendAlias(alias);
+			} else if (!Strings.isNullOrEmpty(alias)) {
+				builder.append(SqlStringUtils.createLiteralToken(alias));
+			}
+		}
+		
+		/**
+		 * Like ANSI.printCommaSeparatedTo(ExpressionBuilder, StringBuilder), values are separated
+		 * only if something was appended before
+		 */
+		private void appendCommaSeparated(List<? extends DSLNode> values) {
+			int start = builder.length();
+			
+			for (DSLNode value : values) {
+				if (!isValue(value)) {
+					continue;
+				}
+				if (builder.length() > start) {
+					builder.append(", ");
+				}
+				appendValue(value, null);
+			}
+		}
+		
+		/**
+		 * 
+		 * @param expression
+		 * @param alias
+		 * @see ANSI#printTo(com.github.javalbert.sqlbuilder.Expression, boolean, StringBuilder)
+		 */
+		private void appendExpression(Expression expression, String alias) {
+			if (concatFunction && containsConcat(expression)) {
+				com.github.javalbert.sqlbuilder.Expression sqlExpression = DSLTransformer.INSTANCE.buildExpression(expression);
+				sqlExpression.setAlias(alias);
+				printThroughAppendExpression(sqlExpression);
+				return;
+			}
+			
+			appendExpressionNodes(expression);
+			appendAlias(Strings.safeTrim(alias));
+		}
+		
+		private void appendExpressionNodes(Expression expression) {
+			boolean first = true;
+			
+			for (ExpressionNode node : expression.getNodes()) {
+				if (node.getExpressionType() == ExpressionNode.EXPRESSION_OPERAND) {
+					DSLNode operand = (DSLNode)node;
+					if (!isValue(operand)) {
+						continue;
+					}
+					if (!first) {
+						builder.append(" ");
+					}
+					
+					if (operand.getNodeType() == DSLNode.NODE_CASE) {
+						builder.append("(");
+						appendCase((Case)operand, null);
+						builder.append(")");
+					} else {
+						appendValue(operand, null);
+					}
+				} else if (node.getExpressionType() == ExpressionNode.EXPRESSION_OPERATOR) {
+					if (!first) {
+						builder.append(" ");
+					}
+					appendExpressionOperator(((ExpressionOperatorNode)node).getExpressionOperator());
+				} else if (node.getExpressionType() == ExpressionNode.EXPRESSION_EXPRESSION) {
+					if (!first) {
+						builder.append(" ");
+					}
+					appendNestedExpression((Expression)node);
+				} else {
+					continue;
+				}
+				first = false;
+			}
+		}
+		
+		private void appendExpressionOperator(ExpressionOperator operator) {
+			switch (operator) {
+				case CONCAT: vendor.printTo(BinaryOperator.CONCAT, builder); break;
+				case DIVIDE: builder.append(ArithmeticOperator.STRING_DIVIDE); break;
+				case MINUS: builder.append(ArithmeticOperator.STRING_MINUS); break;
+				case MOD: builder.append(ArithmeticOperator.STRING_MOD); break;
+				case MULTIPLY: builder.append(ArithmeticOperator.STRING_MULTIPLY); break;
+				case PLUS: builder.append(ArithmeticOperator.STRING_PLUS); break;
+			}
+		}
+		
+		private void appendFunction(Function function, String alias) {
+			builder.append(Strings.safeTrim(function.getName()))
+					.append("(");
+			
+			boolean first = true;
+			for (ValueExpression parameter : function.getParameters()) {
+				if (!isValue(parameter)) {
+					continue;
+				}
+				if (!first) {
+					builder.append(", ");
+				}
+				appendValue(parameter, null);
+				first = false;
+			}
+			
+			builder.append(")");
+			appendAlias(Strings.safeTrim(alias));
+		}
+		
+		/**
+		 * {@link DSLTransformer} wraps a nested expression in another expression,
+		 * both of which are printed as subexpressions
+		 */
+		private void appendNestedExpression(Expression expression) {
+			builder.append("(");
+			
+			if (concatFunction && containsConcat(expression)) {
+				com.github.javalbert.sqlbuilder.Expression wrapper = new com.github.javalbert.sqlbuilder.Expression()
+						.expression(DSLTransformer.INSTANCE.buildExpression(expression));
+				printThroughAppendExpression(wrapper);
+			} else {
+				builder.append("(");
+				appendExpressionNodes(expression);
+				builder.append(")");
+			}
+			
+			builder.append(")");
+		}
+		
+		private void appendParameter(Parameter parameter, String alias) {
+			String name = Strings.safeTrim(parameter.getName());
+			builder.append(":").append(name);
+			appendAlias(Strings.safeTrim(alias));
+			
+			if (paramNames != null) {
+				paramNames.add(name);
+			}
+		}
+		
+		private void appendTableColumn(TableColumn tableColumn, String alias) {
+			String prefixValue = null;
+			if (tableColumn.getTableAlias() != null) {
+				prefixValue = tableColumn.getTableAlias().getAlias();
+			} else if (!Strings.isNullOrEmpty(tableColumn.getTableName())) {
+				prefixValue = tableColumn.getTableName();
+			}
+			appendColumn(prefixValue, tableColumn.getName(), alias);
+		}
+		
+		/**
+		 * Appends a value outside of an expression
+		 * @param value
+		 * @param alias of a column of the SELECT list, otherwise null
+		 */
+		private void appendValue(DSLNode value, String alias) {
+			switch (value.getNodeType()) {
+				case DSLNode.NODE_CASE:
+					appendCase((Case)value, alias);
+					break;
+				case DSLNode.NODE_EXPRESSION:
+					appendExpression((Expression)value, alias);
+					break;
+				case DSLNode.NODE_FUNCTION:
+					appendFunction((Function)value, alias);
+					break;
+				case DSLNode.NODE_LITERAL_BOOLEAN:
+					Boolean bool = ((LiteralBoolean)value).getValue();
+					if (bool != null) {
+						builder.append(bool ? booleanTrue : booleanFalse);
+						appendAlias(Strings.safeTrim(alias));
+					} else {
+						appendNull(alias);
+					}
+					break;
+				case DSLNode.NODE_LITERAL_NULL:
+					appendNull(alias);
+					break;
+				case DSLNode.NODE_LITERAL_NUMBER:
+					Number number = ((LiteralNumber)value).getValue();
+					if (number != null) {
+						builder.append(number.toString());
+						appendAlias(Strings.safeTrim(alias));
+					} else {
+						appendNull(alias);
+					}
+					break;
+				case DSLNode.NODE_LITERAL_STRING:
+					String str = ((LiteralString)value).getValue();
+					if (str != null) {
+						builder.append(SqlStringUtils.createLiteralToken(str, false));
+						appendAlias(Strings.safeTrim(alias));
+					} else {
+						appendNull(alias);
+					}
+					break;
+				case DSLNode.NODE_PARAMETER:
+					appendParameter((Parameter)value, alias);
+					break;
+				case DSLNode.NODE_SELECT_STATEMENT:
+					appendSelect((SelectStatement)value, true);
+					// Select.setAlias(String) does not trim
+					appendAlias(alias);
+					break;
+				case DSLNode.NODE_TABLE_COLUMN:
+					appendTableColumn((TableColumn)value, alias);
+					break;
+			}
+		}
+		
+		private void appendNull(String alias) {
+			builder.append(Keywords.NULL);
+			appendAlias(Strings.safeTrim(alias));
+		}
+		
+		/**
+		 * A predicate of only the expression is printed like the expression itself, but through
+		 * the vendor's appendExpression(StringBuilder, Expression) e.g. MySQL's CONCAT function
+		 */
+		private void printThroughAppendExpression(com.github.javalbert.sqlbuilder.Expression expression) {
+			printTransformed(new com.github.javalbert.sqlbuilder.Predicate().expression(expression), builder, paramNames);
+		}
+		
+		/* END Values */
+	}
+}
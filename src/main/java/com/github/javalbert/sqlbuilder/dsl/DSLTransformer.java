@@ -313,7 +313,7 @@ public class DSLTransformer {
 		return predicate.subquery(buildSelect(dslPredicate.getSubquery()));
 	}
 
-	private com.github.javalbert.sqlbuilder.Expression buildExpression(Expression dslExpression) {
+	com.github.javalbert.sqlbuilder.Expression buildExpression(Expression dslExpression) {
 		com.github.javalbert.sqlbuilder.Expression expression = new com.github.javalbert.sqlbuilder.Expression();
 		
 		for (ExpressionNode node : dslExpression.getNodes()) {
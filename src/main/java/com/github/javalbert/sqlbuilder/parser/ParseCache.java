@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.sqlbuilder.parser;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.github.javalbert.sqlbuilder.Keywords;
+import com.github.javalbert.sqlbuilder.RelationalOperator;
+import com.github.javalbert.sqlbuilder.SqlStatement;
+
+/**
+ * Thread-safe, bounded LRU cache of immutable {@link SqlStatement}s parsed by {@link SqlParser},
+ * keyed by the SQL with its tokens separated by single spaces, so SQL differing only in whitespace
+ * or comments share an entry.<br>
+ * <br>
+ * If literals are normalized, string and number literals compared with =, &lt;&gt;, &lt;, &lt;=, &gt;, &gt;=,
+ * LIKE or BETWEEN, or in IN lists or VALUES, are replaced by parameters named
+ * {@value #LITERAL_PARAM_PREFIX}1, {@value #LITERAL_PARAM_PREFIX}2, etc. so SQL differing only
+ * in those literals share an entry, and their values are returned by {@link ParsedSql#getLiterals()}.
+ */
+public class ParseCache {
+	public static final int DEFAULT_MAX_SIZE = 256;
+	public static final String LITERAL_PARAM_PREFIX = "literal";
+	
+	private static final ParsedSql NOT_A_STATEMENT = new ParsedSql(null, Collections.emptyMap());
+	
+	private long evictionCount;
+	private long hitCount;
+	private int maxSize;
+	private long missCount;
+	private boolean normalizeLiterals;
+	private final Map<String, SqlStatement<?>> statements = new LinkedHashMap<String, SqlStatement<?>>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SqlStatement<?>> eldest) {
+			if (size() <= maxSize) {
+				return false;
+			}
+			evictionCount++;
+			return true;
+		}
+	};
+	
+	public synchronized long getEvictionCount() { return evictionCount; }
+	public synchronized long getHitCount() { return hitCount; }
+	public synchronized int getMaxSize() { return maxSize; }
+	public synchronized long getMissCount() { return missCount; }
+	public synchronized boolean isNormalizeLiterals() { return normalizeLiterals; }
+	
+	public ParseCache() {
+		this(DEFAULT_MAX_SIZE, false);
+	}
+	
+	public ParseCache(int maxSize, boolean normalizeLiterals) {
+		setMaxSize(maxSize);
+		this.normalizeLiterals = normalizeLiterals;
+	}
+	
+	public synchronized void clear() {
+		statements.clear();
+	}
+	
+	public synchronized double getHitRatio() {
+		long requestCount = hitCount + missCount;
+		return requestCount > 0L ? (double)hitCount / requestCount : 0.0;
+	}
+	
+	/**
+	 * Evicts least recently used statements if the cache is larger than <b>maxSize</b>
+	 * @param maxSize
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		this.maxSize = maxSize;
+		
+		while (statements.size() > maxSize) {
+			String eldest = statements.keySet().iterator().next();
+			statements.remove(eldest);
+			evictionCount++;
+		}
+	}
+	
+	/**
+	 * Clears the cache since its keys depend on whether literals are normalized
+	 * @param normalizeLiterals
+	 */
+	public synchronized void setNormalizeLiterals(boolean normalizeLiterals) {
+		if (this.normalizeLiterals != normalizeLiterals) {
+			this.normalizeLiterals = normalizeLiterals;
+			statements.clear();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param sql
+	 * @return the cached statement of <b>sql</b>, parsed and made immutable if it's not cached.
+	 * The statement is null if <b>sql</b> is not a DELETE, INSERT, MERGE, SELECT or UPDATE statement.
+	 */
+	public ParsedSql parse(String sql) {
+		SqlLexer lexer = new SqlLexer(Objects.requireNonNull(sql, "sql cannot be null"));
+		if (lexer.size() == 0) {
+			return NOT_A_STATEMENT;
+		}
+		
+		Map<String, Object> literals = isNormalizeLiterals() && !hasLiteralParam(lexer)
+				? new LinkedHashMap<>() : null;
+		String key = normalize(lexer, literals);
+		
+		SqlStatement<?> sqlStatement = get(key);
+		if (sqlStatement == null) {
+			sqlStatement = parseImmutable(key);
+			if (sqlStatement == null) {
+				return NOT_A_STATEMENT;
+			}
+			put(key, sqlStatement);
+		}
+		return new ParsedSql(sqlStatement, literals != null
+				? Collections.unmodifiableMap(literals) : Collections.emptyMap());
+	}
+	
+	public synchronized int size() {
+		return statements.size();
+	}
+	
+	/* BEGIN Private methods */
+	
+	private synchronized SqlStatement<?> get(String key) {
+		SqlStatement<?> sqlStatement = statements.get(key);
+		if (sqlStatement != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return sqlStatement;
+	}
+	
+	/**
+	 * 
+	 * @param lexer
+	 * @return true if <b>lexer</b> has a parameter that could be confused for a normalized literal
+	 */
+	private boolean hasLiteralParam(SqlLexer lexer) {
+		String paramPrefix = ":" + LITERAL_PARAM_PREFIX;
+		for (int i = 0; i < lexer.size(); i++) {
+			if (lexer.getType(i) == SqlLexer.TYPE_WORD
+					&& lexer.getLength(i) > paramPrefix.length()
+					&& lexer.getToken(i).regionMatches(true, 0, paramPrefix, 0, paramPrefix.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 
+	 * @param lexer
+	 * @param i
+	 * @param inList true if the token at <b>i</b> is directly in the parentheses of an IN list or VALUES
+	 * @param betweenAnd true if the token before <b>i</b> is the AND of a BETWEEN predicate
+	 * @return
+	 */
+	private boolean isNormalizedLiteral(SqlLexer lexer, int i, boolean inList, boolean betweenAnd) {
+		if (lexer.getType(i) == SqlLexer.TYPE_WORD) {
+			boolean number = StringUtils.isNumeric(lexer.getToken(i))
+					// Neither part of a decimal number like 1.5
+					&& !(i > 0 && lexer.matches(i - 1, "."))
+					&& !(i + 1 < lexer.size() && lexer.matches(i + 1, "."));
+			if (!number) {
+				return false;
+			}
+		} else if (lexer.getType(i) != SqlLexer.TYPE_STRING_LITERAL) {
+			return false;
+		}
+		
+		if (i == 0) {
+			return false;
+		} else if (inList) {
+			return lexer.matches(i - 1, "(") || lexer.matches(i - 1, ",");
+		}
+		int previous = i - 1;
+		return betweenAnd
+				|| lexer.matches(previous, RelationalOperator.EQ)
+				|| lexer.matches(previous, RelationalOperator.NOT_EQ)
+				|| lexer.matches(previous, RelationalOperator.LT)
+				|| lexer.matches(previous, RelationalOperator.LT_EQ)
+				|| lexer.matches(previous, RelationalOperator.GT)
+				|| lexer.matches(previous, RelationalOperator.GT_EQ)
+				|| lexer.matches(previous, Keywords.LIKE)
+				|| lexer.matches(previous, Keywords.BETWEEN);
+	}
+	
+	/**
+	 * 
+	 * @param lexer
+	 * @param literals if not null, literals are replaced by parameters and their values added to it
+	 * @return the tokens of <b>lexer</b> separated by a space
+	 */
+	private String normalize(SqlLexer lexer, Map<String, Object> literals) {
+		CharSequence sql = lexer.getSql();
+		StringBuilder key = new StringBuilder(sql.length());
+		
+		int depth = 0;
+		// Parentheses depths of IN lists and VALUES
+		BitSet lists = new BitSet();
+		// Depth of the rows of VALUES, which may be more than one
+		int valuesDepth = -1;
+		boolean between = false;
+		boolean betweenAnd = false;
+		
+		for (int i = 0; i < lexer.size(); i++) {
+			if (i > 0) {
+				key.append(" ");
+			}
+			
+			if (literals != null) {
+				if (lexer.matches(i, "(")) {
+					if (i > 0 && lexer.matches(i - 1, Keywords.VALUES)) {
+						valuesDepth = depth;
+					}
+					depth++;
+					if (i > 0 && (lexer.matches(i - 1, Keywords.IN)
+							|| depth - 1 == valuesDepth
+								&& (lexer.matches(i - 1, Keywords.VALUES) || lexer.matches(i - 1, ",")))) {
+						lists.set(depth);
+					}
+				} else if (lexer.matches(i, ")") && depth > 0) {
+					lists.clear(depth);
+					depth--;
+				} else if (depth == valuesDepth && !lexer.matches(i, ",")) {
+					valuesDepth = -1;
+				}
+				
+				if (isNormalizedLiteral(lexer, i, lists.get(depth), betweenAnd)) {
+					String name = LITERAL_PARAM_PREFIX + (literals.size() + 1);
+					literals.put(name, lexer.getType(i) == SqlLexer.TYPE_STRING_LITERAL
+							? lexer.getStringLiteralValue(i)
+							: new BigDecimal(lexer.getToken(i)));
+					key.append(":").append(name);
+					betweenAnd = false;
+					continue;
+				}
+				
+				betweenAnd = between && lexer.matches(i, Keywords.AND);
+				if (lexer.matches(i, Keywords.BETWEEN)) {
+					between = true;
+				} else if (betweenAnd) {
+					between = false;
+				}
+			}
+			
+			int offset = lexer.getOffset(i);
+			key.append(sql, offset, offset + lexer.getLength(i));
+		}
+		return key.toString();
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private SqlStatement<?> parseImmutable(String sql) {
+		SqlStatement sqlStatement = new SqlParser().parse(sql).getSqlStatement();
+		return sqlStatement != null ? (SqlStatement<?>)sqlStatement.immutable() : null;
+	}
+	
+	private synchronized void put(String key, SqlStatement<?> sqlStatement) {
+		statements.putIfAbsent(key, sqlStatement);
+	}
+	
+	/* END Private methods */
+	
+	public static final class ParsedSql {
+		private final Map<String, Object> literals;
+		@SuppressWarnings("rawtypes")
+		private final SqlStatement sqlStatement;
+		
+		/**
+		 * 
+		 * @return values of the normalized literals, <code>String</code> or <code>BigDecimal</code>,
+		 * by the names of the parameters that replaced them, in order of appearance
+		 */
+		public Map<String, Object> getLiterals() { return literals; }
+		@SuppressWarnings("rawtypes")
+		public SqlStatement getSqlStatement() { return sqlStatement; }
+		
+		private ParsedSql(SqlStatement<?> sqlStatement, Map<String, Object> literals) {
+			this.sqlStatement = sqlStatement;
+			this.literals = literals;
+		}
+	}
+}
@@ -84,6 +84,10 @@ public class ParseTree {
 	private ParseToken currentParseToken;
 	private String currentToken;
 	private int currentTokenIndex = -1;
+	/**
+	 * Not null if the tokens are from a {@link SqlLexer}, whose string literals are single tokens
+	 */
+	private final SqlLexer lexer;
 	private final Deque<Integer> parenthesesStack = new ArrayDeque<>();
 	private final ParseToken rootToken;
 	private StringBuilder stringLiteral;
@@ -93,10 +97,19 @@ public class ParseTree {
 	public ParseTree(List<String> tokens) {
 		rootToken = new ParseToken(TOKEN_ROOT);
 		currentParseToken = rootToken;
+		lexer = null;
 		this.tokens = Collections.unmodifiableList(new ArrayList<>(tokens));
 		tokenStack.push(currentParseToken);
 	}
 	
+	public ParseTree(SqlLexer lexer) {
+		rootToken = new ParseToken(TOKEN_ROOT);
+		currentParseToken = rootToken;
+		this.lexer = lexer;
+		tokens = lexer.getTokens();
+		tokenStack.push(currentParseToken);
+	}
+	
 	public ParseToken parseTokens() {
 		while (parseNextToken());
 		return rootToken;
@@ -176,7 +189,10 @@ public class ParseTree {
 	}
 	
 	private void parseCurrentToken() {
-		if (handleStringLiteral()) {
+		if (lexer != null && lexer.getType(currentTokenIndex) == SqlLexer.TYPE_STRING_LITERAL) {
+			currentParseToken.addNode(new StringLiteralParseToken(lexer.getStringLiteralValue(currentTokenIndex)));
+			return;
+		} else if (handleStringLiteral()) {
 			return;
 		}
 		
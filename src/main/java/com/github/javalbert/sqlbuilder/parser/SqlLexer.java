@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.sqlbuilder.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Single-pass, character-level lexer that splits SQL into the same tokens as {@link SqlParser#REGEX_SPLIT}
+ * except that string literals, quoted identifiers and comments are recognized as a whole.<br>
+ * <br>
+ * Tokens are stored as spans (offset, length, and type) into the original <code>CharSequence</code>,
+ * so no string is created for a token until {@link SqlLexer#getToken(int)} is called.
+ * 
+ * @author Albert
+ *
+ */
+public class SqlLexer {
+	/**
+	 * Keyword, identifier, number or parameter, e.g. <code>SELECT</code>, <code>c1</code>,
+	 * <code>10</code> or <code>:id</code>
+	 */
+	public static final int TYPE_WORD = 1;
+	/**
+	 * Identifier in double quotes, backticks or brackets, including the quotes
+	 */
+	public static final int TYPE_QUOTED_IDENTIFIER = 2;
+	/**
+	 * String literal including the enclosing single quotes, where <code>''</code> is an escaped quote
+	 */
+	public static final int TYPE_STRING_LITERAL = 3;
+	/**
+	 * Operator or punctuation, e.g. <code>(</code>, <code>,</code> or <code>&lt;=</code>
+	 */
+	public static final int TYPE_DELIMITER = 4;
+	
+	private static final int SPAN_OFFSET = 0;
+	private static final int SPAN_LENGTH = 1;
+	private static final int SPAN_TYPE = 2;
+	private static final int SPAN_SIZE = 3;
+	
+	/**
+	 * 
+	 * @param c
+	 * @return true if <b>c</b> is a single-character delimiter of {@link SqlParser#REGEX_SPLIT}
+	 */
+	private static boolean isDelimiter(char c) {
+		switch (c) {
+			case '%':
+			case '(':
+			case ')':
+			case '*':
+			case '+':
+			case ',':
+			case '-':
+			case '.':
+			case '/':
+			case '<':
+			case '=':
+			case '>':
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Same characters as <code>\s</code> in a regular expression
+	 */
+	private static boolean isWhitespace(char c) {
+		switch (c) {
+			case ' ':
+			case '\t':
+			case '\n':
+			case '\u000B':
+			case '\f':
+			case '\r':
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	private static boolean isWordEnd(char c) {
+		return isWhitespace(c) || isDelimiter(c) || c == '\'' || c == '"' || c == '`' || c == '[';
+	}
+	
+	private int size;
+	private int[] spans;
+	private final CharSequence sql;
+	private String[] tokens;
+	
+	public int size() { return size; }
+	public CharSequence getSql() { return sql; }
+	
+	public SqlLexer(CharSequence sql) {
+		this.sql = Objects.requireNonNull(sql, "sql cannot be null");
+		// Estimates a token every 4 characters, grows if there are more
+		spans = new int[Math.max(16, sql.length() / 4) * SPAN_SIZE];
+		lex();
+	}
+	
+	/* START Public methods */
+	
+	public int getLength(int index) {
+		return spans[checkIndex(index) * SPAN_SIZE + SPAN_LENGTH];
+	}
+	
+	public int getOffset(int index) {
+		return spans[checkIndex(index) * SPAN_SIZE + SPAN_OFFSET];
+	}
+	
+	/**
+	 * 
+	 * @param index
+	 * @return the value of the string literal at <b>index</b> without the enclosing quotes and with
+	 * escaped quotes unescaped
+	 */
+	public String getStringLiteralValue(int index) {
+		if (getType(index) != TYPE_STRING_LITERAL) {
+			throw new IllegalArgumentException("token at " + index + " is not a string literal");
+		}
+		int start = getOffset(index) + 1;
+		int end = start + getLength(index) - 2;
+		
+		StringBuilder value = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			char c = sql.charAt(i);
+			value.append(c);
+			if (c == '\'') {
+				// Skips the second quote of ''
+				i++;
+			}
+		}
+		return value.toString();
+	}
+	
+	/**
+	 * 
+	 * @param index
+	 * @return the text of the token at <b>index</b>, created once
+	 */
+	public String getToken(int index) {
+		if (tokens == null) {
+			tokens = new String[size];
+		}
+		String token = tokens[checkIndex(index)];
+		if (token == null) {
+			int offset = getOffset(index);
+			token = sql.subSequence(offset, offset + getLength(index)).toString();
+			tokens[index] = token;
+		}
+		return token;
+	}
+	
+	/**
+	 * 
+	 * @return an unmodifiable view of the text of every token, see {@link SqlLexer#getToken(int)}
+	 */
+	public List<String> getTokens() {
+		return new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				return getToken(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+	
+	public int getType(int index) {
+		return spans[checkIndex(index) * SPAN_SIZE + SPAN_TYPE];
+	}
+	
+	/**
+	 * 
+	 * @param index
+	 * @param token
+	 * @return true if the token at <b>index</b> is <b>token</b> ignoring case, without creating its text
+	 */
+	public boolean matches(int index, String token) {
+		int length = getLength(index);
+		if (length != token.length()) {
+			return false;
+		}
+		int offset = getOffset(index);
+		for (int i = 0; i < length; i++) {
+			if (Character.toUpperCase(sql.charAt(offset + i)) != Character.toUpperCase(token.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/* END Public methods */
+	
+	/* BEGIN Private methods */
+	
+	private void addSpan(int offset, int length, int type) {
+		int i = size * SPAN_SIZE;
+		if (i == spans.length) {
+			spans = Arrays.copyOf(spans, spans.length * 2);
+		}
+		spans[i + SPAN_OFFSET] = offset;
+		spans[i + SPAN_LENGTH] = length;
+		spans[i + SPAN_TYPE] = type;
+		size++;
+	}
+	
+	private int checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+		return index;
+	}
+	
+	private void lex() {
+		final int length = sql.length();
+		int i = 0;
+		
+		while (i < length) {
+			char c = sql.charAt(i);
+			char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+			
+			if (isWhitespace(c)) {
+				i++;
+			} else if (c == '-' && next == '-') {
+				i = skipLineComment(i + 2);
+			} else if (c == '/' && next == '*') {
+				i = skipBlockComment(i);
+			} else if (c == '\'') {
+				i = lexQuoted(i, '\'', TYPE_STRING_LITERAL);
+			} else if (c == '"') {
+				i = lexQuoted(i, '"', TYPE_QUOTED_IDENTIFIER);
+			} else if (c == '`') {
+				i = lexQuoted(i, '`', TYPE_QUOTED_IDENTIFIER);
+			} else if (c == '[') {
+				i = lexQuoted(i, ']', TYPE_QUOTED_IDENTIFIER);
+			} else if (c == '<' && (next == '=' || next == '>')
+					|| c == '>' && next == '=') {
+				addSpan(i, 2, TYPE_DELIMITER);
+				i += 2;
+			} else if (isDelimiter(c)) {
+				addSpan(i, 1, TYPE_DELIMITER);
+				i++;
+			} else {
+				int start = i;
+				do {
+					i++;
+				} while (i < length && !isWordEnd(sql.charAt(i)));
+				addSpan(start, i - start, TYPE_WORD);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param start index of the opening quote
+	 * @param closingQuote
+	 * @param type
+	 * @return index after the closing quote
+	 */
+	private int lexQuoted(int start, char closingQuote, int type) {
+		final int length = sql.length();
+		int i = start + 1;
+		
+		while (i < length) {
+			if (sql.charAt(i) == closingQuote) {
+				if (i + 1 < length && sql.charAt(i + 1) == closingQuote) {
+					// Escaped quote
+					i += 2;
+					continue;
+				}
+				addSpan(start, i + 1 - start, type);
+				return i + 1;
+			}
+			i++;
+		}
+		throw new IllegalArgumentException("Missing " + closingQuote + " to close "
+				+ (type == TYPE_STRING_LITERAL ? "string literal" : "quoted identifier")
+				+ " at offset " + start);
+	}
+	
+	private int skipBlockComment(int start) {
+		final int length = sql.length();
+		for (int i = start + 2; i + 1 < length; i++) {
+			if (sql.charAt(i) == '*' && sql.charAt(i + 1) == '/') {
+				return i + 2;
+			}
+		}
+		throw new IllegalArgumentException("Missing */ to close comment at offset " + start);
+	}
+	
+	private int skipLineComment(int i) {
+		final int length = sql.length();
+		while (i < length && sql.charAt(i) != '\n') {
+			i++;
+		}
+		return i;
+	}
+	
+	/* END Private methods */
+}
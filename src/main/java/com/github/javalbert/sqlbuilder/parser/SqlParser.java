@@ -1101,7 +1101,8 @@ public class SqlParser {
 							String inValueUpperCase = inValueNode.getToken().toUpperCase();
 							
 							parseColumnParenthesesGroup = inValueUpperCase.equals(Keywords.SELECT) 
-									|| inValueUpperCase.startsWith(":"); /* : for Param object */
+									/* : for a Param object of a collection, unless it's one of a list of values */
+									|| inValueUpperCase.startsWith(":") && inValueNodes.size() == 1;
 						}
 						
 						if (parseColumnParenthesesGroup) {
@@ -1743,6 +1744,13 @@ public class SqlParser {
 
 	/* START Protected methods */
 	
+	/**
+	 * Splits <b>sql</b> with {@link SqlParser#REGEX_SPLIT}, string literals being split into
+	 * quotes and the tokens between them.<br>
+	 * No longer used by the parser, which tokenizes with {@link SqlLexer}
+	 * @param sql
+	 * @return
+	 */
 	List<String> tokenize(String sql) {
 		tokens.clear();
 		
@@ -1870,7 +1878,7 @@ public class SqlParser {
 	}
 
 	private ParseToken sqlToParseTree(String sql) {
-		return new ParseTree(tokenize(sql)).parseTokens();
+		return new ParseTree(new SqlLexer(sql)).parseTokens();
 	}
 	
 	/* END Private methods */
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright 2016 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.utils.jdbc;
+
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Wraps a {@link SQLException} where checked exceptions cannot be thrown, such as in an
+ * {@link java.util.Iterator} or {@link java.util.stream.Stream}
+ */
+public class UncheckedSQLException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public UncheckedSQLException(SQLException cause) {
+		super(Objects.requireNonNull(cause, "cause cannot be null"));
+	}
+	
+	public UncheckedSQLException(String message, SQLException cause) {
+		super(message, Objects.requireNonNull(cause, "cause cannot be null"));
+	}
+	
+	@Override
+	public SQLException getCause() {
+		return (SQLException)super.getCause();
+	}
+}
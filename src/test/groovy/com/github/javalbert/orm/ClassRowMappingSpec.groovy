@@ -1,10 +1,13 @@
 package com.github.javalbert.orm
 
+import java.sql.ResultSet
+
 import com.github.javalbert.orm.ClassRowMapping
 
 import com.github.javalbert.domain.BookPage
 import com.github.javalbert.domain.BookPagePK
 import com.github.javalbert.domain.Person
+import com.github.javalbert.utils.jdbc.ResultSetHelper
 import spock.lang.Specification
 
 class ClassRowMappingSpec extends Specification {
@@ -84,4 +87,35 @@ class ClassRowMappingSpec extends Specification {
 		pk.isbn == '1234567890'
 		pk.pageNumber == 321
 	}
+	
+	def 'Read composite PK object from the primary key columns of a row'() {
+		given: 'ClassRowMapping of BookPage'
+		ClassRowMapping mapping = new ClassRowMapping(BookPage.class)
+		
+		and: 'a row with page number 321 in column 3 and ISBN 1234567890 in column 4'
+		List<FieldColumnMapping> fieldColumnMappings = [
+			mapping.fieldColumnMappings['page_number'],
+			mapping.fieldColumnMappings['isbn']
+		]
+		ResultSet rs = Stub(ResultSet) {
+			getInt(3) >> 321
+			getString(4) >> '1234567890'
+		}
+		
+		when: 'reading the composite PK object from the primary key columns'
+		int[] primaryKeyColumns = mapping.getPrimaryKeyColumns(fieldColumnMappings, 3)
+		BookPagePK pk = mapping.getIdFromResultSet(new ResultSetHelper(rs), primaryKeyColumns)
+		
+		then: 'primary key object contains ISBN 1234567890 and page number 321'
+		pk.isbn == '1234567890'
+		pk.pageNumber == 321
+	}
+	
+	def 'No primary key columns when a primary key is not selected'() {
+		given: 'ClassRowMapping of BookPage'
+		ClassRowMapping mapping = new ClassRowMapping(BookPage.class)
+		
+		expect: 'null primary key columns if ISBN is not selected'
+		mapping.getPrimaryKeyColumns([mapping.fieldColumnMappings['page_number']], 1) == null
+	}
 }
\ No newline at end of file
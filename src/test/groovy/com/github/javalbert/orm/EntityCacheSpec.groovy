@@ -0,0 +1,89 @@
+package com.github.javalbert.orm
+
+import java.util.concurrent.TimeUnit
+import java.util.function.LongSupplier
+
+import com.github.javalbert.domain.User
+import com.github.javalbert.sqlbuilder.vendor.ANSI
+
+import spock.lang.Specification
+
+class EntityCacheSpec extends Specification {
+	private ClassRowMapping userMapping = new ClassRowMapping(User.class, new ANSI())
+	private long now = 0
+	
+	def 'Get a new instance of a cached entity until it expires'() {
+		given: 'a cache whose entries expire after 10 seconds'
+		EntityCache cache = new EntityCache(10, TimeUnit.SECONDS.toNanos(10), { now } as LongSupplier)
+		
+		when: 'caching a User'
+		User user = new User(1, 'Albert')
+		cache.put(userMapping, user)
+		user.name = 'Changed'
+		
+		then: 'a copy of the User as it was cached is returned'
+		User cached = cache.get(userMapping, 1)
+		!cached.is(user)
+		cached == new User(1, 'Albert')
+		
+		when: '10 seconds pass'
+		now = TimeUnit.SECONDS.toNanos(10)
+		
+		then: 'the User has expired'
+		cache.get(userMapping, 1) == null
+		cache.hitCount == 1
+		cache.missCount == 1
+		cache.evictionCount == 1
+	}
+	
+	def 'Keep frequently used entities when the cache is full'() {
+		given: 'a full cache of 2 Users, of which User 1 was used more often'
+		EntityCache cache = new EntityCache(2, TimeUnit.MINUTES.toNanos(1), { now } as LongSupplier)
+		cache.put(userMapping, new User(1, 'User 1'))
+		cache.put(userMapping, new User(2, 'User 2'))
+		3.times { cache.get(userMapping, 1) }
+		cache.get(userMapping, 2)
+		cache.get(userMapping, 1)
+		
+		when: 'caching User 3 after one miss, whose entry would replace the least recently used User 2'
+		cache.get(userMapping, 3)
+		cache.put(userMapping, new User(3, 'User 3'))
+		
+		then: 'User 2 was evicted, since it was used as rarely as User 3'
+		cache.get(userMapping, 2) == null
+		cache.get(userMapping, 3) != null
+		cache.evictionCount == 1
+		
+		when: 'caching User 4 once, whose entry would replace User 1'
+		cache.put(userMapping, new User(4, 'User 4'))
+		
+		then: 'User 4 was not cached, since User 1 was used more often'
+		cache.get(userMapping, 1) != null
+		cache.get(userMapping, 4) == null
+		cache.size() == 2
+	}
+	
+	def 'Do not cache versions older than the version of an updated entity'() {
+		given: 'a cache of User 1 with version 0'
+		EntityCache cache = new EntityCache(10, TimeUnit.MINUTES.toNanos(1), { now } as LongSupplier)
+		User user = new User(1, 'Albert')
+		cache.put(userMapping, user)
+		
+		when: 'User 1 is updated to version 1'
+		cache.invalidate(1, 1)
+		
+		and: 'version 0 is read by a transaction that started before the update'
+		cache.put(userMapping, user)
+		
+		then: 'User 1 is not cached'
+		cache.get(userMapping, 1) == null
+		cache.invalidationCount == 1
+		
+		when: 'version 1 is read'
+		user.version = 1
+		cache.put(userMapping, user)
+		
+		then: 'User 1 is cached'
+		cache.get(userMapping, 1).version == 1
+	}
+}
@@ -0,0 +1,173 @@
+package com.github.javalbert.orm
+
+import java.sql.Connection
+import java.util.concurrent.TimeUnit
+
+import com.github.javalbert.domain.Customer
+import com.github.javalbert.domain.Order
+import com.github.javalbert.domain.Store
+import com.github.javalbert.domain.User
+import com.github.javalbert.h2.H2
+import com.github.javalbert.utils.DateUtils
+import com.github.javalbert.utils.jdbc.JdbcUtils
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ExecutionListenerSpec extends Specification {
+	private Connection conn
+	private List<ExecutionEvent> events
+	private JdbcMapper mapper
+	
+	def setupSpec() {
+		H2.createTables()
+	}
+	
+	def setup() {
+		H2.deleteRecords()
+		mapper = new JdbcMapper()
+		mapper.register(User.class)
+		conn = H2.getConnection()
+		
+		events = []
+		mapper.executionListener = [afterExecution: { events << it }] as ExecutionListener
+	}
+	
+	def cleanup() {
+		JdbcUtils.closeQuietly(conn)
+	}
+	
+	def 'Report the rows and timings of a query, an update and a batch'() {
+		when: 'saving 3 Users in a batch, updating one and querying them'
+		mapper.saveAll(conn, (1..3).collect { new User(it, 'User ' + it, true) })
+		int updated = mapper.createQuery('UPDATE User SET active = :active WHERE user_id = :userId')
+				.setBoolean('active', false)
+				.setInteger('userId', 2)
+				.executeUpdate(conn)
+		List<User> users = mapper.createQuery('SELECT user_id, name FROM User WHERE user_id IN :userIds')
+				.setIntegers('userIds', [1, 2, 3])
+				.toList(conn, User.class)
+		
+		then: 'an event was reported for each statement'
+		events*.type == [ExecutionEvent.TYPE_BATCH, ExecutionEvent.TYPE_UPDATE, ExecutionEvent.TYPE_QUERY]
+		events*.rowCount == [3L, 1L, 3L]
+		events*.error == [null, null, null]
+		
+		and: 'the query event has the JDBC SQL with the parameters bound'
+		ExecutionEvent query = events[2]
+		query.sql == 'SELECT user_id, name FROM User WHERE user_id IN (?, ?, ?)'
+		query.parameterCount == 3
+		
+		and: 'its total is the sum of its phases'
+		query.executeNanos > 0L
+		query.mapNanos > 0L
+		query.totalNanos == query.printNanos + query.bindNanos + query.executeNanos + query.mapNanos
+	}
+	
+	def 'Report a failed execution with its exception'() {
+		given: 'a User'
+		mapper.save(conn, new User(1, 'Albert', true))
+		
+		when: 'inserting a User with the same ID'
+		mapper.save(conn, new User(1, 'Albert', true))
+		
+		then: 'the exception is thrown and reported'
+		thrown(java.sql.SQLException)
+		events*.type == [ExecutionEvent.TYPE_UPDATE, ExecutionEvent.TYPE_UPDATE]
+		events[1].error instanceof java.sql.SQLException
+	}
+	
+	def 'Report the resolution of an object graph after its queries'() {
+		given: 'a Customer with 2 Orders'
+		mapper.register(Customer.class)
+		mapper.register(Order.class)
+		mapper.register(Store.class)
+		mapper.save(conn, new Customer('Albert'))
+		mapper.save(conn, new Store('Amazon.ca'))
+		mapper.save(conn, new Order(1L, 1L, new BigDecimal('36.33'), DateUtils.newDate(2014, 6, 18)))
+		mapper.save(conn, new Order(1L, 1L, new BigDecimal('159.83'), DateUtils.newDate(2014, 6, 27)))
+		events.clear()
+		
+		and: 'a GraphEntity of Customer with its Orders'
+		GraphEntity<Customer> customerEntity = new GraphEntity<>(Customer.class, 'cus')
+		customerEntity.isRelatedToMany(new GraphEntity<>(Order.class, 'ord'))
+			.inList('orderList')
+			.joinedBy('customer_id')
+			.build()
+		
+		when: 'getting the Customer with a BatchResolver'
+		Customer customer = mapper.get(conn, customerEntity, 1L, new BatchResolver(mapper))
+		
+		then: 'the queries of the Customer and Orders were reported before the graph'
+		customer.orders.size() == 2
+		events*.type == [ExecutionEvent.TYPE_QUERY, ExecutionEvent.TYPE_QUERY, ExecutionEvent.TYPE_GRAPH]
+		events*.rowCount == [1L, 2L, 1L]
+		
+		and: 'the graph event spans its queries'
+		ExecutionEvent graph = events[2]
+		graph.sql == null
+		graph.resultClass == Customer.class
+		graph.totalNanos >= events[0].totalNanos + events[1].totalNanos
+	}
+	
+	def 'Notify a listener once before and once after each execution'() {
+		given: 'a listener recording both callbacks'
+		List<ExecutionEvent> before = []
+		List<ExecutionEvent> after = []
+		mapper.executionListener = new ExecutionListener() {
+			@Override
+			void beforeExecution(ExecutionEvent event) {
+				before << event
+			}
+			
+			@Override
+			void afterExecution(ExecutionEvent event) {
+				after << event
+			}
+		}
+		
+		when: 'saving a User and getting it'
+		mapper.save(conn, new User(1, 'Albert', true))
+		mapper.get(conn, User.class, 1)
+		
+		then: 'each execution was notified exactly once before and once after'
+		before*.type == [ExecutionEvent.TYPE_UPDATE, ExecutionEvent.TYPE_QUERY]
+		after*.type == [ExecutionEvent.TYPE_UPDATE, ExecutionEvent.TYPE_QUERY]
+	}
+	
+	def 'Record latencies per SQL shape'() {
+		given: 'a LatencyRecorder'
+		LatencyRecorder recorder = new LatencyRecorder()
+		mapper.executionListener = recorder
+		mapper.saveAll(conn, (1..3).collect { new User(it, 'User ' + it, true) })
+		
+		when: 'getting Users 10 times'
+		10.times { mapper.get(conn, User.class, 1) }
+		
+		then: 'the latencies of the SELECT were recorded in one histogram'
+		recorder.histograms.size() == 2
+		LatencyRecorder.Histogram histogram = recorder.histograms.find { it.key.startsWith('SELECT') }.value
+		histogram.count == 10L
+		histogram.getValueAtPercentile(50) <= histogram.getValueAtPercentile(100)
+		histogram.getValueAtPercentile(100) == histogram.maxNanos
+	}
+	
+	@Unroll
+	def 'Record #nanos ns at most 1/32 above its value'() {
+		given: 'a histogram with a latency'
+		LatencyRecorder.Histogram histogram = new LatencyRecorder.Histogram()
+		histogram.record(nanos)
+		histogram.record(TimeUnit.HOURS.toNanos(2))
+		
+		expect: 'the median is the highest value of its bucket'
+		histogram.getValueAtPercentile(50) >= nanos
+		histogram.getValueAtPercentile(50) <= nanos + nanos.intdiv(32)
+		
+		and: 'a latency above the highest trackable value still has an exact maximum'
+		histogram.getValueAtPercentile(100) == TimeUnit.HOURS.toNanos(2)
+		histogram.maxNanos == TimeUnit.HOURS.toNanos(2)
+		
+		where:
+		nanos << [0L, 63L, 64L, 1000L, 123456789L]
+	}
+}
@@ -1,14 +1,19 @@
 package com.github.javalbert.orm
 
 import java.sql.Connection
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
 
 import com.github.javalbert.domain.Customer
+import com.github.javalbert.domain.ImmutableOrder
 import com.github.javalbert.domain.Order
 import com.github.javalbert.domain.Product
 import com.github.javalbert.domain.Store
 import com.github.javalbert.h2.H2
 import com.github.javalbert.orm.Relationship.Builder
 import com.github.javalbert.utils.DateUtils
+import com.github.javalbert.utils.jdbc.ConnectionSupplier
 import com.github.javalbert.utils.jdbc.JdbcUtils
 
 import spock.lang.Specification
@@ -104,6 +109,45 @@ class GraphEntitySpec extends Specification {
 		store.orders.size() == 2
 	}
 	
+	@Unroll
+	def 'Fetch child objects created by their constructor with @Column parameters with #resolverClass.simpleName'() {
+		given: 'a Store record with 2 Orders'
+		mapper.register(ImmutableOrder.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new Customer('Albert'))
+			mapper.save(conn, new Store('Amazon.ca'))
+			mapper.save(conn, new Order(1L, 1L, new BigDecimal('36.33'), DateUtils.newDate(2014, 6, 18)))
+			mapper.save(conn, new Order(1L, 1L, new BigDecimal('159.83'), DateUtils.newDate(2014, 6, 27)))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'a Relationship is built between Store and ImmutableOrder, which has no default constructor'
+		GraphEntity<Store> storeEntity = new GraphEntity<>(Store.class, 's')
+		storeEntity.isRelatedToMany(new GraphEntity<>(ImmutableOrder.class, 'ord'))
+			.inList('orders')
+			.joinedBy('store_key', 'store_id')
+			.build()
+		
+		and: 'get the Store object with ImmutableOrders'
+		Store store = null
+		try {
+			conn = H2.getConnection()
+			store = mapper.get(conn, storeEntity, 1L, resolverClass.newInstance(mapper))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the ImmutableOrders were created with the values of their columns'
+		store.orders*.salesAmount.sort() == [new BigDecimal('36.33'), new BigDecimal('159.83')]
+		store.orders*.storeId == [1L, 1L]
+		
+		where:
+		resolverClass << [BatchResolver.class, CartesianProductResolver.class, NPlusOneResolver.class]
+	}
+	
 	@Unroll('Fetch child container and expect its implementation is #implementationClass')
 	def 'Fetch different implementations for holding child objects'() {
 		given: 'GraphEntity objects for Order and Product tables'
@@ -331,4 +375,70 @@ class GraphEntitySpec extends Specification {
 		order.productList[2].productId == 4L
 		order.productList[3].productId == 3L
 	}
+	
+	def 'Fetch sibling relationships in parallel with a connection for each batch'() {
+		given: 'GraphEntity objects for Order, Store and Product tables'
+		GraphEntity<Order> orderEntity = new GraphEntity<>(Order.class, 'ord')
+		GraphEntity<Store> storeEntity = new GraphEntity<>(Store.class, 's')
+		GraphEntity<Product> productEntity = new GraphEntity<>(Product.class, 'prod')
+		
+		and: '4 Orders in 2 Stores with 2 Products each'
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new Customer('Albert'))
+			mapper.save(conn, new Store('Store 1'))
+			mapper.save(conn, new Store('Store 2'))
+			(1..4).each { long orderId ->
+				mapper.save(conn, new Order(1L, orderId <= 2 ? 1L : 2L))
+				mapper.save(conn, new Product(orderId, 'Product A', new BigDecimal('1.00')))
+				mapper.save(conn, new Product(orderId, 'Product B', new BigDecimal('2.00')))
+			}
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		and: 'a BatchResolver that resolves relationships on 2 threads and counts the connections it opens'
+		AtomicInteger connectionCount = new AtomicInteger()
+		ConnectionSupplier connectionSupplier = {
+			connectionCount.incrementAndGet()
+			return H2.getConnection()
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(2)
+		BatchResolver resolver = new BatchResolver(mapper, connectionSupplier, executor)
+		
+		when: 'an Order has one Store and many Products, one owner per batch'
+		orderEntity.isRelatedToOne(storeEntity)
+			.inField('store')
+			.joinedBy('store_id', 'store_key')
+			.batchSize(1)
+			.build()
+		orderEntity.isRelatedToMany(productEntity)
+			.inList('productList')
+			.joinedBy('order_id')
+			.batchSize(1)
+			.build()
+		
+		and: 'Orders are retrieved'
+		List<Order> orders = new ArrayList<>()
+		try {
+			conn = H2.getConnection()
+			mapper.createQuery(mapper.selectFrom(Order.class))
+				.toCollection(conn, orderEntity, orders, resolver)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+			executor.shutdown()
+		}
+		
+		then: 'every Order has its Store and Products'
+		orders.every { it.store != null && it.productList.size() == 2 }
+		
+		and: 'Orders of the same Store share the Store object'
+		orders[0].store.is(orders[1].store)
+		orders[2].store.is(orders[3].store)
+		!orders[0].store.is(orders[2].store)
+		
+		and: 'a connection was opened for each of the 8 batches'
+		connectionCount.get() == 8
+	}
 }
\ No newline at end of file
@@ -7,8 +7,13 @@ import com.github.javalbert.orm.JdbcMapper
 import com.github.javalbert.sqlbuilder.ColumnList
 import com.github.javalbert.sqlbuilder.ColumnValues
 import com.github.javalbert.sqlbuilder.Insert
+import com.github.javalbert.sqlbuilder.vendor.ANSI
+import com.github.javalbert.utils.ClassUtils
 import com.github.javalbert.utils.jdbc.JdbcUtils
 
+import com.github.javalbert.domain.BookPage
+import com.github.javalbert.domain.BookPagePK
+import com.github.javalbert.domain.ImmutableUser
 import com.github.javalbert.domain.User
 import com.github.javalbert.domain.User2
 import com.github.javalbert.h2.H2
@@ -44,6 +49,41 @@ class JdbcMapperSpec extends Specification {
 		mapper.getMappings().get(User2.class) != null
 	}
 	
+	def 'Register entity classes concurrently from multiple threads'() {
+		given: 'all entity classes in com.github.javalbert.domain'
+		List<Class<?>> classes = ClassUtils.getClasses('com.github.javalbert.domain')
+		
+		when: 'each of 8 threads registers every class'
+		List<Thread> threads = (1..8).collect {
+			Thread.start { classes.each { mapper.register(it) } }
+		}
+		threads*.join()
+		
+		then: 'each entity class was registered once'
+		mapper.getMappings().size() == classes.count { it.isAnnotationPresent(Entity.class) }
+		mapper.getMappings().get(User.class) != null
+	}
+	
+	def 'Cannot register a new entity class after freezing the mapper'() {
+		given: 'a frozen mapper with User class registered'
+		mapper.register(User.class)
+		mapper.freeze()
+		
+		when: 'registering User class again'
+		mapper.register(User.class)
+		
+		then: 'nothing happens'
+		notThrown(IllegalStateException)
+		mapper.frozen
+		
+		when: 'registering User2 class'
+		mapper.register(User2.class)
+		
+		then: 'an error is thrown'
+		thrown(IllegalStateException)
+		mapper.getMappings().get(User2.class) == null
+	}
+	
 	def 'Execute JdbcStatement object representing INSERT statement and verifying entity was inserted'() {
 		given: "Insert object for inserting into User (1, 'Albert')"
 		mapper.register(User.class)
@@ -384,4 +424,314 @@ class JdbcMapperSpec extends Specification {
 		then: "User2 object's auto-increment ID is set to 1"
 		user.userId == 1
 	}
-}
\ No newline at end of file
+	
+	def 'Get entity created by its constructor with @Column parameters'() {
+		given: 'a User in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		mapper.register(ImmutableUser.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new User(11, 'Albert', true))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'getting the same row as ImmutableUser, which has no default constructor'
+		ImmutableUser user = null
+		try {
+			conn = H2.getConnection()
+			user = mapper.get(conn, ImmutableUser.class, 11)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the ImmutableUser was created with the values of its columns'
+		user.userId == 11
+		user.name == 'Albert'
+		user.active
+	}
+	
+	def 'Create entity with custom instantiator of a class registration'() {
+		given: 'User registered with an instantiator that counts instances'
+		H2.deleteRecords()
+		int instances = 0
+		mapper.register(new ClassRowRegistration(User.class)
+			.table('User')
+			.columnInField('userId', 'user_id', null, ClassRowRegistration.FLAG_ID)
+			.columnInField('name', 'name', null, 0)
+			.instantiator([newInstance: { instances++; new User() }] as Instantiator))
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new User(12, 'Albert'))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'getting the User'
+		User user = null
+		try {
+			conn = H2.getConnection()
+			user = mapper.get(conn, User.class, 12)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the User was created by the instantiator'
+		user.name == 'Albert'
+		instances == 1
+	}
+	
+	def 'Save, update and delete entities in batches'() {
+		given: 'five User2 objects and batches of at most 2 rows'
+		H2.deleteRecords()
+		mapper.register(User2.class)
+		mapper.batchChunkSize = 2
+		List<User2> users = (1..5).collect { new User2('User ' + it) }
+		Connection conn = null
+		
+		when: 'saving all User2 objects'
+		int[] savedRows = null
+		try {
+			conn = H2.getConnection()
+			savedRows = mapper.saveAll(conn, users)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'each object was inserted and got its auto-increment ID'
+		savedRows as List == [1, 1, 1, 1, 1]
+		users*.userId == [1, 2, 3, 4, 5]
+		
+		when: 'renaming and updating all User2 objects'
+		users.each { it.name = it.name + ' Updated' }
+		int[] updatedRows = null
+		List<User2> updatedUsers = null
+		try {
+			conn = H2.getConnection()
+			updatedRows = mapper.updateAll(conn, users)
+			updatedUsers = users.collect { mapper.get(conn, User2.class, it.userId) }
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'each row was updated and each version was incremented'
+		updatedRows as List == [1, 1, 1, 1, 1]
+		users*.version == [1, 1, 1, 1, 1]
+		updatedUsers*.name == (1..5).collect { 'User ' + it + ' Updated' }
+		updatedUsers*.version == [1, 1, 1, 1, 1]
+		
+		when: 'deleting all User2 objects'
+		int[] deletedRows = null
+		List<User2> deletedUsers = null
+		try {
+			conn = H2.getConnection()
+			deletedRows = mapper.deleteAll(conn, users)
+			deletedUsers = users.collect { mapper.get(conn, User2.class, it.userId) }
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'each row was deleted'
+		deletedRows as List == [1, 1, 1, 1, 1]
+		deletedUsers == [null, null, null, null, null]
+	}
+	
+	def 'Save entities with multi-row INSERT statements'() {
+		given: 'seven Users, a vendor allowing 2 rows per INSERT statement, and batches of at most 4 rows'
+		H2.deleteRecords()
+		mapper = new JdbcMapper(new ANSI() {
+			@Override
+			int getMaxInsertRows() { 2 }
+		})
+		mapper.register(User.class)
+		mapper.multiRowInsert = true
+		mapper.batchChunkSize = 4
+		List<User> users = (1..7).collect { new User(it, 'User ' + it) }
+		
+		when: 'saving all Users'
+		int[] savedRows = null
+		List<User> savedUsers = null
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			savedRows = mapper.saveAll(conn, users)
+			savedUsers = mapper.createQuery(mapper.selectFrom(User.class)).toList(conn, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'each User was inserted'
+		savedRows as List == [1, 1, 1, 1, 1, 1, 1]
+		savedUsers.sort { it.userId } == users
+	}
+	
+	def 'Get entities by a list of IDs in padded chunks'() {
+		given: '600 Users in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, (1..600).collect { new User(it, 'User ' + it) })
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'getting 550 existing and 1 missing IDs, which take a chunk of 512 IDs and a chunk of the other 39 IDs'
+		List<ExecutionEvent> events = []
+		mapper.executionListener = [afterExecution: { events << it }] as ExecutionListener
+		List<Integer> ids = (1..550).toList() + [1000]
+		Map<Integer, User> users = null
+		try {
+			conn = H2.getConnection()
+			users = mapper.getAll(conn, User.class, ids)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'every existing User was returned by its ID'
+		users.size() == 550
+		users.keySet() == (1..550).toSet()
+		users[550] == new User(550, 'User 550')
+		
+		and: 'the chunk of 39 IDs was padded to 128 IDs'
+		events*.parameterCount == [512, 128]
+	}
+	
+	def 'Get entities by a list of composite IDs'() {
+		given: 'BookPage registered with BookPagePK as its ID class, and 3 pages in the database'
+		H2.deleteRecords()
+		mapper.register(new ClassRowRegistration(BookPage.class)
+				.table('Book_Page')
+				.idClass(BookPagePK.class)
+				.idClassColumnInField('isbn', 'isbn')
+				.idClassColumnInField('pageNumber', 'page_number')
+				.columnInField('isbn', 'isbn', null, ClassRowRegistration.FLAG_ID)
+				.columnInField('pageNumber', 'page_number', null, ClassRowRegistration.FLAG_ID))
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, [
+				new BookPage(isbn: '1234567890', pageNumber: 1),
+				new BookPage(isbn: '1234567890', pageNumber: 2),
+				new BookPage(isbn: '0987654321', pageNumber: 1)
+			])
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'getting 2 existing pages and 1 missing page'
+		Map<BookPagePK, BookPage> pages = null
+		try {
+			conn = H2.getConnection()
+			pages = mapper.getAll(conn, BookPage.class, [
+				new BookPagePK('1234567890', 2),
+				new BookPagePK('0987654321', 1),
+				new BookPagePK('0987654321', 2)
+			])
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the existing pages were returned by their IDs'
+		pages.keySet() == [ new BookPagePK('1234567890', 2), new BookPagePK('0987654321', 1) ] as Set
+		pages[new BookPagePK('0987654321', 1)].isbn == '0987654321'
+	}
+	
+	def 'Throw an error when updating stale objects in a batch'() {
+		given: 'a saved User and a stale copy of it'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		User user = new User(1, 'Albert')
+		User staleUser = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, user)
+			staleUser = mapper.get(conn, User.class, 1)
+			mapper.update(conn, user)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'updating the stale copy in a batch'
+		try {
+			conn = H2.getConnection()
+			mapper.updateAll(conn, [staleUser])
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'throw error and leave the version unchanged'
+		thrown(IllegalStateException)
+		staleUser.version == 0
+	}
+	
+	def 'Get entities from the entity cache until they are written'() {
+		given: 'a cache of Users and 3 Users in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		EntityCache cache = mapper.enableEntityCache(User.class, 100, 1, java.util.concurrent.TimeUnit.MINUTES)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, (1..3).collect { new User(it, 'User ' + it) })
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'getting User 1 twice, then Users 1 to 3'
+		User first = null
+		User second = null
+		Map<Integer, User> users = null
+		try {
+			conn = H2.getConnection()
+			first = mapper.get(conn, User.class, 1)
+			second = mapper.get(conn, User.class, 1)
+			users = mapper.getAll(conn, User.class, [1, 2, 3])
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'User 1 was read from the database once, but each get returned a new instance'
+		cache.missCount == 3
+		cache.hitCount == 2
+		!first.is(second)
+		first == second
+		users.keySet() == [1, 2, 3] as Set
+		
+		when: 'User 1 is updated, then read again'
+		User updated = null
+		try {
+			conn = H2.getConnection()
+			first.name = 'Albert'
+			mapper.update(conn, first)
+			updated = mapper.get(conn, User.class, 1)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the updated User was read from the database'
+		cache.invalidationCount == 1
+		cache.missCount == 4
+		updated.name == 'Albert'
+		updated.version == 1
+		
+		when: 'User 2 is deleted'
+		User deleted = null
+		try {
+			conn = H2.getConnection()
+			mapper.delete(conn, users[2])
+			deleted = mapper.get(conn, User.class, 2)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'User 2 is no longer found'
+		deleted == null
+		cache.invalidationCount == 2
+	}
+}
@@ -9,7 +9,16 @@ import java.sql.Timestamp
 import java.sql.Types
 import java.time.LocalDate
 import java.time.LocalDateTime
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinWorkerThread
+import java.util.concurrent.TimeUnit
 import java.util.function.BiConsumer
+import java.util.stream.Collectors
+import java.util.stream.Stream
 
 import com.github.javalbert.orm.JdbcMapper
 import com.github.javalbert.orm.JdbcStatement
@@ -18,6 +27,7 @@ import com.github.javalbert.sqlbuilder.ColumnValues
 import com.github.javalbert.sqlbuilder.Condition
 import com.github.javalbert.sqlbuilder.From
 import com.github.javalbert.sqlbuilder.Insert
+import com.github.javalbert.sqlbuilder.OrderBy
 import com.github.javalbert.sqlbuilder.Predicate
 import com.github.javalbert.sqlbuilder.Select
 import com.github.javalbert.sqlbuilder.SelectList
@@ -26,6 +36,11 @@ import com.github.javalbert.sqlbuilder.SetValues
 import com.github.javalbert.sqlbuilder.Update
 import com.github.javalbert.sqlbuilder.Where
 import com.github.javalbert.sqlbuilder.With
+import com.github.javalbert.sqlbuilder.dsl.DSL
+import com.github.javalbert.sqlbuilder.dsl.Table
+import com.github.javalbert.sqlbuilder.dsl.TableColumn
+import com.github.javalbert.sqlbuilder.vendor.MySQL
+import com.github.javalbert.utils.jdbc.ConnectionSupplier
 import com.github.javalbert.utils.jdbc.JdbcUtils
 import com.github.javalbert.utils.jdbc.ResultSetHelper
 import com.google.gson.Gson
@@ -778,4 +793,592 @@ class JdbcStatementSpec extends Specification {
 		then: 'the DataTypeHolder is returned'
 		holder.id == 1
 	}
-}
\ No newline at end of file
+	
+	def 'Reuse the row plan of a Select statement that was already executed'() {
+		given: 'a User in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new User(9, 'Albert'))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'executing equivalent Select statements twice'
+		List<User> users = null
+		try {
+			conn = H2.getConnection()
+			mapper.createQuery(mapper.selectFrom(User.class)).toList(conn, User.class)
+			users = mapper.createQuery(mapper.selectFrom(User.class)).toList(conn, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the row plan was created once and reused'
+		users == [ new User(9, 'Albert') ]
+		mapper.rowPlanCache.missCount == 1
+		mapper.rowPlanCache.hitCount == 1
+		mapper.rowPlanCache.size() == 1
+	}
+	
+	def 'Memoize the row plan of an immutable statement on its cached SQL'() {
+		given: 'a User in the database and an immutable Select statement'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Select select = mapper.selectFrom(User.class).immutable()
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new User(9, 'Albert'))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'executing the statement three times'
+		List<User> users = null
+		try {
+			conn = H2.getConnection()
+			3.times { users = mapper.createQuery(select).toList(conn, User.class) }
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the row plan cache was only looked up the first time'
+		users == [ new User(9, 'Albert') ]
+		mapper.rowPlanCache.missCount == 1
+		mapper.rowPlanCache.hitCount == 0
+		
+		when: 'registering User again and executing the statement'
+		mapper.register(new ClassRowRegistration(User.class)
+			.table('User')
+			.columnInField('userId', 'user_id', null, ClassRowRegistration.FLAG_ID)
+			.columnInField('name', 'name', null, 0)
+			.columnInField('active', 'active', null, 0)
+			.columnInField('version', 'version', null, 0))
+		try {
+			conn = H2.getConnection()
+			users = mapper.createQuery(select).toList(conn, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'a row plan was created for the new mapping'
+		users == [ new User(9, 'Albert') ]
+		mapper.rowPlanCache.missCount == 2
+	}
+	
+	def 'Evict least recently used row plan when row plan cache is full'() {
+		given: 'row plan cache that holds only one plan'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		mapper.rowPlanCache.maxSize = 1
+		Connection conn = null
+		
+		when: 'executing two different Select statements'
+		try {
+			conn = H2.getConnection()
+			mapper.createQuery(mapper.selectFrom(User.class)).toList(conn, User.class)
+			mapper.createQuery(mapper.selectById(User.class)).setInteger('user_id', 1).toList(conn, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the first plan was evicted'
+		mapper.rowPlanCache.size() == 1
+		mapper.rowPlanCache.evictionCount == 1
+	}
+	
+	def 'Reuse the SQL of an immutable statement and a JDBC SQL layout per IN list size'() {
+		given: 'Users in the database and an immutable Select statement with an IN parameter'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new User(1, 'Albert'))
+			mapper.save(conn, new User(2, 'Patrick'))
+			mapper.save(conn, new User(3, 'Raymond'))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		Select select = new Select()
+		.list(new SelectList().column('user_id').column('name'))
+		.from(new From().tableName('User'))
+		.where(new Where().predicate(new Predicate().column('user_id').in().param('ids')))
+		.immutable()
+		
+		when: 'executing the statement with IN lists of different sizes'
+		List<List<User>> results = []
+		try {
+			conn = H2.getConnection()
+			results << mapper.createQuery(select).setIntegers('ids', [1, 2]).toList(conn, User.class)
+			results << mapper.createQuery(select).setIntegers('ids', [3]).toList(conn, User.class)
+			results << mapper.createQuery(select).setIntegers('ids', [2, 3]).toList(conn, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'SQL was printed once and each IN list got the right Users'
+		mapper.sqlCache.missCount == old(mapper.sqlCache.missCount) + 1
+		mapper.sqlCache.hitCount == old(mapper.sqlCache.hitCount) + 2
+		results.collect { it*.userId.sort() } == [ [1, 2], [3], [2, 3] ]
+	}
+	
+	def 'Evict least recently used SQL when SQL cache is full'() {
+		given: 'SQL cache that holds only two statements'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		mapper.sqlCache.maxSize = 2
+		Connection conn = null
+		
+		when: 'executing a query, another query, the first one again and a third one'
+		try {
+			conn = H2.getConnection()
+			['user_id', 'name', 'user_id', 'active'].each {
+				mapper.createQuery("SELECT $it FROM User".toString()).toList(conn, User.class)
+			}
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the second query was evicted and the recently used first query is still cached'
+		mapper.sqlCache.size() == 2
+		mapper.sqlCache.evictionCount == old(mapper.sqlCache.evictionCount) + 1
+		mapper.sqlCache.hitCount == old(mapper.sqlCache.hitCount) + 1
+		
+		when: 'executing the first query again'
+		try {
+			conn = H2.getConnection()
+			mapper.createQuery('SELECT user_id FROM User').toList(conn, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'its SQL was found in the cache'
+		mapper.sqlCache.hitCount == old(mapper.sqlCache.hitCount) + 1
+	}
+	
+	def 'Pad IN lists of different sizes to the same JDBC SQL'() {
+		given: 'Users in the database and a mapper that pads IN lists'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		mapper.paddedInLists = true
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, (1..5).collect { new User(it, 'User ' + it) })
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		Select select = new Select()
+		.list(new SelectList().column('user_id').column('name'))
+		.from(new From().tableName('User'))
+		.where(new Where().predicate(new Predicate().column('user_id').in().param('ids')))
+		
+		when: 'executing the statement with IN lists of 3 and 4 IDs'
+		List<String> jdbcSqls = []
+		List<List<User>> results = []
+		try {
+			conn = H2.getConnection()
+			Connection connection = conn
+			Connection spy = [
+				prepareStatement: { String sql -> jdbcSqls << sql; connection.prepareStatement(sql) }
+			] as Connection
+			
+			results << mapper.createQuery(select).setIntegers('ids', [1, 2, 3]).toList(spy, User.class)
+			results << mapper.createQuery(select).setIntegers('ids', [2, 3, 4, 5]).toList(spy, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'both IN lists were padded to 4 placeholders and got the right Users'
+		jdbcSqls[0] == jdbcSqls[1]
+		jdbcSqls[0].endsWith('IN (?, ?, ?, ?)')
+		results.collect { it*.userId.sort() } == [ [1, 2, 3], [2, 3, 4, 5] ]
+	}
+	
+	@Unroll('Map every JDBC type of an entity when typed column readers is #typedColumnReaders')
+	def 'Map entity with or without typed column readers'() {
+		given: 'a DataTypeHolder in the database'
+		H2.deleteRecords()
+		mapper.register(DataTypeHolder.class)
+		mapper.typedColumnReaders = typedColumnReaders
+		DataTypeHolder holder = new DataTypeHolder()
+		holder.setId(1)
+		holder.setIntVal(Integer.MAX_VALUE)
+		holder.setBooleanVal(true)
+		holder.setBigintVal(Long.MAX_VALUE)
+		holder.setDecimalVal(new BigDecimal('10.00'))
+		holder.setDoubleVal(Double.MAX_VALUE)
+		holder.setRealVal(Float.MAX_VALUE)
+		holder.setDateVal(java.sql.Date.valueOf(LocalDate.of(2017, 3, 5)))
+		holder.setTimestampVal(Timestamp.valueOf(LocalDateTime.of(2017, 3, 5, 20, 45)))
+		holder.setVarcharVal('Wing Street')
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, holder)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'getting the DataTypeHolder by ID'
+		DataTypeHolder holder2 = null
+		try {
+			conn = H2.getConnection()
+			holder2 = mapper.get(conn, DataTypeHolder.class, 1)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'all columns were mapped'
+		holder2 == holder
+		mapper.createQuery(mapper.selectById(DataTypeHolder.class))
+				.getRowPlan(DataTypeHolder.class)
+				.hasColumnReaders() == typedColumnReaders
+		
+		where:
+		typedColumnReaders << [true, false]
+	}
+	
+	def 'Stream entities from a query and close the statement after the last row'() {
+		given: 'three Users in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new User(21, 'Albert'))
+			mapper.save(conn, new User(22, 'Javalbert'))
+			mapper.save(conn, new User(23, 'Chan'))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'streaming all Users ordered by ID with a fetch size of 2'
+		List<User> users = null
+		PreparedStatement stmt = null
+		int fetchSize = 0
+		try {
+			conn = H2.getConnection()
+			Connection connection = conn
+			Connection spy = [
+				prepareStatement: { String sql -> stmt = connection.prepareStatement(sql); stmt }
+			] as Connection
+			
+			users = mapper.createQuery("SELECT user_id, name, active, version FROM User ORDER BY user_id")
+				.fetchSize(2)
+				.stream(spy, User.class)
+				.peek({ fetchSize = stmt.fetchSize })
+				.collect(Collectors.toList())
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'all Users were mapped and the PreparedStatement was closed'
+		users*.userId == [21, 22, 23]
+		fetchSize == 2
+		stmt.isClosed()
+	}
+	
+	def 'Close a stream of entities before reading all rows'() {
+		given: 'two Users in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.save(conn, new User(24, 'Albert'))
+			mapper.save(conn, new User(25, 'Javalbert'))
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'reading only the first User and then closing the stream'
+		User user = null
+		PreparedStatement stmt = null
+		boolean closedBeforeStreamClosed = false
+		try {
+			conn = H2.getConnection()
+			Connection connection = conn
+			Connection spy = [
+				prepareStatement: { String sql -> stmt = connection.prepareStatement(sql); stmt }
+			] as Connection
+			
+			Stream<User> stream = mapper.createQuery(mapper.selectFrom(User.class)).stream(spy, User.class)
+			user = stream.findFirst().get()
+			closedBeforeStreamClosed = stmt.isClosed()
+			stream.close()
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the PreparedStatement was closed only by closing the stream'
+		user != null
+		!closedBeforeStreamClosed
+		stmt.isClosed()
+	}
+	
+	def 'Run asynchronous statements on a pool of daemon threads of the mapper by default'() {
+		when: 'running a task on the default async executor of a mapper'
+		Thread thread = CompletableFuture.supplyAsync({ Thread.currentThread() }, mapper.asyncExecutor)
+				.get(10, TimeUnit.SECONDS)
+		
+		then: 'the executor was created once and is not the common pool'
+		mapper.asyncExecutor.is(mapper.asyncExecutor)
+		!mapper.asyncExecutor.is(ForkJoinPool.commonPool())
+		!new JdbcMapper().asyncExecutor.is(mapper.asyncExecutor)
+		
+		and: 'the task ran on a daemon thread'
+		thread.daemon
+		!(thread instanceof ForkJoinWorkerThread)
+	}
+	
+	def 'Execute independent statements in parallel on the async executor'() {
+		given: 'three Users in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, (26..28).collect { new User(it, 'User ' + it) })
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		and: 'an async executor of 3 threads and a supplier of new connections'
+		ExecutorService executor = Executors.newFixedThreadPool(3)
+		mapper.asyncExecutor = executor
+		List<Connection> connections = Collections.synchronizedList([])
+		ConnectionSupplier connectionSupplier = {
+			Connection connection = H2.getConnection()
+			connections << connection
+			return connection
+		}
+		
+		when: 'selecting every User, selecting User 26 and updating User 27 at the same time'
+		CompletableFuture<List<User>> users = mapper.createQuery(mapper.selectFrom(User.class))
+				.toListAsync(connectionSupplier, User.class)
+		CompletableFuture<User> user = mapper.createQuery(mapper.selectById(User.class))
+				.setInteger('user_id', 26)
+				.uniqueResultAsync(connectionSupplier, User.class)
+		CompletableFuture<Integer> updatedRows = mapper.createQuery("UPDATE User SET name = 'Albert' WHERE user_id = 27")
+				.executeUpdateAsync(connectionSupplier)
+		CompletableFuture.allOf(users, user, updatedRows).get(10, TimeUnit.SECONDS)
+		executor.shutdown()
+		
+		then: 'each statement completed on its own connection, which was closed afterwards'
+		users.get()*.userId.sort() == [26, 27, 28]
+		user.get().name == 'User 26'
+		updatedRows.get() == 1
+		connections.size() == 3
+		connections.every { it.isClosed() }
+	}
+	
+	def 'Cancel the running statement of a cancelled future'() {
+		given: 'a connection whose queries run until they are cancelled'
+		CountDownLatch executing = new CountDownLatch(1)
+		CountDownLatch cancelled = new CountDownLatch(1)
+		PreparedStatement stmt = [
+			executeQuery: {
+				executing.countDown()
+				cancelled.await(10, TimeUnit.SECONDS)
+				throw new SQLException('query was cancelled')
+			},
+			cancel: { cancelled.countDown() }
+		] as PreparedStatement
+		Connection connection = [prepareStatement: { String sql -> stmt }] as Connection
+		
+		when: 'cancelling the future of a running query'
+		CompletableFuture<List<User>> users = mapper.createQuery('SELECT user_id FROM User')
+				.toListAsync({ connection } as ConnectionSupplier, User.class)
+		executing.await(10, TimeUnit.SECONDS)
+		users.cancel(true)
+		
+		then: 'the statement was cancelled'
+		cancelled.await(10, TimeUnit.SECONDS)
+		users.isCancelled()
+	}
+	
+	def 'Do not execute the statement of a future cancelled before its execution'() {
+		given: 'a connection that prepares its statement until the future is cancelled'
+		CountDownLatch preparing = new CountDownLatch(1)
+		CountDownLatch cancelled = new CountDownLatch(1)
+		CountDownLatch closed = new CountDownLatch(1)
+		boolean executed = false
+		PreparedStatement stmt = [
+			executeUpdate: { executed = true; 1 },
+			// Like most drivers, cancelling a statement that is not executing does nothing
+			cancel: {},
+			close: { closed.countDown() }
+		] as PreparedStatement
+		Connection connection = [
+			prepareStatement: { Object... args ->
+				preparing.countDown()
+				cancelled.await(10, TimeUnit.SECONDS)
+				stmt
+			},
+			close: {}
+		] as Connection
+		
+		when: 'cancelling the future of an update while its statement is prepared'
+		CompletableFuture<Integer> updated = mapper.createQuery("UPDATE User SET name = 'Albert'")
+				.executeUpdateAsync({ connection } as ConnectionSupplier)
+		preparing.await(10, TimeUnit.SECONDS)
+		updated.cancel(true)
+		cancelled.countDown()
+		
+		then: 'the statement was closed without being executed'
+		closed.await(10, TimeUnit.SECONDS)
+		updated.isCancelled()
+		!executed
+	}
+	
+	def 'Process entities in reusable chunks'() {
+		given: 'five Users in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, (29..33).collect { new User(it, 'User ' + it) })
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		when: 'processing Users in chunks of 2'
+		List<List<Integer>> chunkIds = []
+		Set<List<User>> chunkLists = Collections.newSetFromMap(new IdentityHashMap<>())
+		try {
+			conn = H2.getConnection()
+			mapper.createQuery(mapper.selectFrom(User.class).orderBy(new OrderBy().column('user_id')))
+				.streaming(true)
+				.forEachChunk(conn, User.class, 2, { List<User> chunk ->
+					chunkIds << chunk*.userId
+					chunkLists << chunk
+				})
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the Users were passed in chunks of at most 2 in the same list'
+		chunkIds == [[29, 30], [31, 32], [33]]
+		chunkLists.size() == 1
+	}
+	
+	def 'Create forward-only statements with the streaming fetch size of the vendor'() {
+		given: 'a MySQL mapper, and a connection that records how its statement was created'
+		mapper = new JdbcMapper(new MySQL())
+		List<Integer> resultSetOptions = null
+		Integer fetchDirection = null
+		Integer fetchSize = null
+		PreparedStatement stmt = [
+			setFetchDirection: { int direction -> fetchDirection = direction },
+			setFetchSize: { int rows -> fetchSize = rows }
+		] as PreparedStatement
+		Connection connection = [
+			prepareStatement: { String sql, int resultSetType, int resultSetConcurrency ->
+				resultSetOptions = [resultSetType, resultSetConcurrency]
+				stmt
+			}
+		] as Connection
+		
+		when: 'creating the statement of a streaming query'
+		mapper.createQuery('SELECT user_id FROM User')
+			.fetchSize(100)
+			.streaming(true)
+			.createPreparedStatement(connection)
+		
+		then: 'the result set is forward-only and read-only, and streamed by the MySQL driver'
+		resultSetOptions == [ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY]
+		fetchDirection == ResultSet.FETCH_FORWARD
+		fetchSize == Integer.MIN_VALUE
+	}
+	
+	def 'Query with a DSL statement rendered to SQL without transforming it'() {
+		given: 'two Users in the database'
+		H2.deleteRecords()
+		mapper.register(User.class)
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, [new User(34, 'User 34'), new User(35, 'User 35')])
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		and: 'a DSL statement selecting a User by name'
+		Table userTable = new Table('User')
+		TableColumn userId = new TableColumn('user_id')
+		com.github.javalbert.sqlbuilder.dsl.SelectStatement stmt = DSL.select(
+				userId, new TableColumn('name'), new TableColumn('active'), new TableColumn('version'))
+				.from(userTable)
+				.where(new TableColumn('name').eq(DSL.param('name')))
+		int cachedSqlCount = mapper.sqlCache.size()
+		
+		when: 'querying twice with the DSL statement'
+		List<User> users = null
+		List<User> usersAgain = null
+		try {
+			conn = H2.getConnection()
+			users = mapper.createQuery(stmt)
+				.setString('name', 'User 34')
+				.toList(conn, User.class)
+			usersAgain = mapper.createQuery(stmt)
+				.setString('name', 'User 35')
+				.toList(conn, User.class)
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the Users were mapped, and the SQL of the statement was not cached'
+		users*.userId == [34]
+		usersAgain*.userId == [35]
+		mapper.sqlCache.size() == cachedSqlCount
+		
+		and: 'the statement is transformed only when asked for'
+		mapper.createQuery(stmt).sqlStatement instanceof Select
+	}
+	
+	def 'Cache the SQL of a reused DSL statement if the mapper is told to'() {
+		given: 'a mapper caching the SQL of DSL statements'
+		mapper.cachedDslSql = true
+		
+		and: 'a DSL statement selecting a User by name'
+		com.github.javalbert.sqlbuilder.dsl.SelectStatement stmt = DSL.select(new TableColumn('user_id'))
+				.from(new Table('User'))
+				.where(new TableColumn('name').eq(DSL.param('name')))
+		
+		when: 'querying twice with the DSL statement'
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			2.times {
+				mapper.createQuery(stmt)
+					.setString('name', 'User 34')
+					.toResultList(conn)
+			}
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'the SQL was rendered once'
+		mapper.sqlCache.size() == 1
+		mapper.sqlCache.hitCount == 1
+	}
+	
+	def 'Parse the SQL string of a query once'() {
+		given: 'a mapper whose parse cache normalizes literals'
+		mapper.parseCache.normalizeLiterals = true
+		
+		when: 'creating queries differing only in whitespace and literals'
+		JdbcStatement first = mapper.createQuery("SELECT user_id FROM User WHERE name = 'A'")
+		JdbcStatement second = mapper.createQuery("SELECT user_id\nFROM User\nWHERE name = 'B'")
+		
+		then: 'both queries share the parsed statement'
+		second.sqlStatement.is(first.sqlStatement)
+		mapper.parseCache.hitCount == 1
+	}
+}
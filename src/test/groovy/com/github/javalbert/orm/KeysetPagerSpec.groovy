@@ -0,0 +1,126 @@
+package com.github.javalbert.orm
+
+import java.sql.Connection
+
+import com.github.javalbert.domain.User
+import com.github.javalbert.h2.H2
+import com.github.javalbert.sqlbuilder.OrderBy
+import com.github.javalbert.sqlbuilder.Predicate
+import com.github.javalbert.sqlbuilder.Select
+import com.github.javalbert.sqlbuilder.Where
+import com.github.javalbert.sqlbuilder.vendor.ANSI
+import com.github.javalbert.sqlbuilder.vendor.MSSQL
+import com.github.javalbert.utils.jdbc.JdbcUtils
+
+import spock.lang.Specification
+
+class KeysetPagerSpec extends Specification {
+	private JdbcMapper mapper
+	
+	def setupSpec() {
+		H2.createTables()
+	}
+	
+	def setup() {
+		H2.deleteRecords()
+		mapper = new JdbcMapper()
+		mapper.register(User.class)
+		
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			mapper.saveAll(conn, (1..7).collect { new User(it, 'User ' + (it % 3), it % 2 == 0) })
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+	}
+	
+	def 'Page through entities by a row value comparison of the ORDER BY columns'() {
+		given: 'a pager of 3 Users ordered by name and ID'
+		KeysetPager<User> pager = new KeysetPager<>(mapper, User.class, 
+				mapper.selectFrom(User.class).orderBy(new OrderBy().column('name').column('user_id')), 3)
+		
+		when: 'getting every page'
+		List<KeysetPage<User>> pages = getPages(pager, null)
+		
+		then: 'the next pages seek past the last User with a row value comparison'
+		new ANSI().print(pager.nextPageSelect).contains('WHERE (name, user_id) > (:keyset_0, :keyset_1)')
+		
+		and: 'the pages have every User in order'
+		pages*.items*.size() == [3, 3, 1]
+		pages.collectMany { it.items*.userId } == [3, 6, 1, 4, 7, 2, 5]
+		pages*.hasNext() == [true, true, false]
+	}
+	
+	def 'Page through entities sorted in different directions, filtered by a parameter'() {
+		given: 'a pager of 2 active Users ordered by name descending and ID'
+		KeysetPager<User> pager = new KeysetPager<>(mapper, User.class, 
+				mapper.selectFrom(User.class)
+						.where(new Where().predicate(new Predicate().column('active').eq().param('active')))
+						.orderBy(new OrderBy().column('name').desc().column('user_id')),
+				2)
+		
+		when: 'getting every page'
+		List<KeysetPage<User>> pages = getPages(pager, { it.setBoolean('active', true) })
+		
+		then: 'the next pages seek past the last User with an OR expansion'
+		new ANSI().print(pager.nextPageSelect).contains(
+				'WHERE (active = :active) AND ((name < :keyset_0) OR (name = :keyset_0 AND user_id > :keyset_1))')
+		
+		and: 'the pages have every active User in order'
+		pages.collectMany { it.items*.userId } == [2, 4, 6]
+	}
+	
+	def 'Seek with an OR expansion for vendors without row value comparisons'() {
+		when: 'creating a pager for MSSQL'
+		mapper = new JdbcMapper(new MSSQL())
+		mapper.register(User.class)
+		KeysetPager<User> pager = new KeysetPager<>(mapper, User.class, 
+				mapper.selectFrom(User.class).orderBy(new OrderBy().column('name').column('user_id')), 3)
+		
+		then: 'the next pages seek with an OR expansion'
+		new MSSQL().print(pager.nextPageSelect).contains(
+				'WHERE (name > :keyset_0) OR (name = :keyset_0 AND user_id > :keyset_1)')
+	}
+	
+	def 'Reject invalid continuation tokens and selects without ORDER BY'() {
+		given: 'a pager ordered by ID'
+		KeysetPager<User> pager = new KeysetPager<>(mapper, User.class, 
+				mapper.selectFrom(User.class).orderBy(new OrderBy().column('user_id')), 3)
+		
+		when: 'getting a page with a token that was not returned by the pager'
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			pager.getPage(conn, 'bm90IGEgdG9rZW4')
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		
+		then: 'throw error'
+		thrown(IllegalArgumentException)
+		
+		when: 'creating a pager of a select without ORDER BY'
+		new KeysetPager<>(mapper, User.class, mapper.selectFrom(User.class), 3)
+		
+		then: 'throw error'
+		thrown(IllegalArgumentException)
+	}
+	
+	private List<KeysetPage<User>> getPages(KeysetPager<User> pager, Closure parameters) {
+		List<KeysetPage<User>> pages = []
+		Connection conn = null
+		try {
+			conn = H2.getConnection()
+			String token = null
+			while (pages.empty || token != null) {
+				KeysetPage<User> page = pager.getPage(conn, token, parameters)
+				pages << page
+				token = page.continuationToken
+			}
+		} finally {
+			JdbcUtils.closeQuietly(conn)
+		}
+		return pages
+	}
+}
@@ -0,0 +1,105 @@
+package com.github.javalbert.orm
+
+import com.github.javalbert.domain.BookPage
+import com.github.javalbert.domain.BookPagePK
+import com.github.javalbert.domain.Customer
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ObjectCacheSpec extends Specification {
+	@Unroll('Add objects by ID to #cacheClass.simpleName and get the first object added for each ID')
+	def 'Add objects by ID and get the first object added for each ID'() {
+		given: 'an empty cache'
+		ObjectCache cache = cacheClass.newInstance()
+		
+		when: '1000 Customers are added twice by ID'
+		List<Customer> customers = (0..<1000).collect { new Customer('Customer ' + it) }
+		for (long id = 0; id < 1000; id++) {
+			cache.addIfAbsent(customers[(int)id], id)
+		}
+		List<Object> existing = (0..<1000).collect { long id -> cache.addIfAbsent(new Customer('Duplicate'), id) }
+		
+		then: 'the first Customer added for each ID is returned'
+		existing.indices.every { existing[it].is(customers[it]) }
+		cache.get(Customer.class, 999L).is(customers[999])
+		cache.get(Customer.class, 1000L) == null
+		
+		and: '1000 objects are cached'
+		cache.size() == 1000
+		
+		where: 'the cache is a HashObjectCache or a LongKeyObjectCache'
+		cacheClass << [HashObjectCache.class, LongKeyObjectCache.class]
+	}
+	
+	@Unroll('Add object by composite ID to #cacheClass.simpleName')
+	def 'Add object by composite ID'() {
+		given: 'an empty cache'
+		ObjectCache cache = cacheClass.newInstance()
+		
+		and: 'a BookPage with ISBN 1234567890 and page number 321'
+		BookPage page = new BookPage()
+		page.setIsbn('1234567890')
+		page.setPageNumber(321)
+		
+		when: 'the BookPage is added by its composite ID'
+		cache.add(page, new BookPagePK('1234567890', 321))
+		
+		then: 'the BookPage is found by an equal composite ID'
+		cache.get(BookPage.class, new BookPagePK('1234567890', 321)).is(page)
+		cache.get(BookPage.class, new BookPagePK('1234567890', 322)) == null
+		
+		where: 'the cache is a HashObjectCache or a LongKeyObjectCache'
+		cacheClass << [HashObjectCache.class, LongKeyObjectCache.class]
+	}
+	
+	def 'Cache objects by long keys in less memory than a HashMap'() {
+		given: 'a HashObjectCache and a LongKeyObjectCache with the same 10000 objects'
+		ObjectCache hashCache = new HashObjectCache()
+		ObjectCache longKeyCache = new LongKeyObjectCache()
+		(1..10000).each { long id ->
+			Customer customer = new Customer('Customer ' + id)
+			hashCache.add(customer, id)
+			longKeyCache.add(customer, id)
+		}
+		
+		expect: 'LongKeyObjectCache is estimated to use less memory'
+		longKeyCache.estimateMemoryUsage() < hashCache.estimateMemoryUsage()
+	}
+	
+	@Unroll('Add objects to a synchronized #cacheClass.simpleName from many threads')
+	def 'Add objects to a synchronized cache from many threads'() {
+		given: 'a synchronized cache'
+		ObjectCache cache = ObjectCache.synchronizedCache(cacheClass.newInstance())
+		
+		when: '4 threads add a Customer for each of the same 1000 IDs'
+		List<List<Object>> added = Collections.synchronizedList([])
+		List<Thread> threads = (0..<4).collect {
+			Thread.start {
+				added << (0..<1000).collect { long id -> cache.addIfAbsent(new Customer('Customer ' + id), id) }
+			}
+		}
+		threads*.join()
+		
+		then: 'every thread got the same Customer for each ID'
+		added.size() == 4
+		(0..<1000).every { int id -> added.every { it[id].is(added[0][id]) } }
+		cache.size() == 1000
+		
+		and: 'the cache is not wrapped twice'
+		ObjectCache.synchronizedCache(cache).is(cache)
+		
+		where: 'the cache is a HashObjectCache or a LongKeyObjectCache'
+		cacheClass << [HashObjectCache.class, LongKeyObjectCache.class]
+	}
+	
+	def 'Create object caches with the object cache factory of a JdbcMapper'() {
+		given: 'a JdbcMapper with LongKeyObjectCache as its object cache factory'
+		JdbcMapper mapper = new JdbcMapper()
+		mapper.setObjectCacheFactory({ new LongKeyObjectCache() })
+		
+		expect: 'a new LongKeyObjectCache is created'
+		mapper.createObjectCache() instanceof LongKeyObjectCache
+		!mapper.createObjectCache().is(mapper.createObjectCache())
+	}
+}
@@ -0,0 +1,133 @@
+package com.github.javalbert.orm
+
+import java.sql.Connection
+import java.util.concurrent.TimeUnit
+
+import com.github.javalbert.domain.User
+import com.github.javalbert.h2.H2
+import com.github.javalbert.utils.jdbc.JdbcUtils
+
+import spock.lang.Specification
+
+class QueryDiagnosticsSpec extends Specification {
+	private Connection conn
+	private JdbcMapper mapper
+	
+	def setupSpec() {
+		H2.createTables()
+	}
+	
+	def setup() {
+		H2.deleteRecords()
+		mapper = new JdbcMapper()
+		mapper.register(User.class)
+		conn = H2.getConnection()
+		mapper.saveAll(conn, (1..5).collect { new User(it, 'User ' + it, true) })
+	}
+	
+	def cleanup() {
+		JdbcUtils.closeQuietly(conn)
+	}
+	
+	def 'Detect an entity got in a loop as a possible N+1'() {
+		given: 'diagnostics flagging 3 executions of the same SQL'
+		QueryDiagnostics diagnostics = new QueryDiagnostics(3, 1, TimeUnit.HOURS)
+		mapper.executionListener = diagnostics
+		
+		when: 'getting 5 Users one by one, and all Users at once, in a session'
+		QueryDiagnostics.Report report = null
+		QueryDiagnostics.Session session = diagnostics.beginSession()
+		try {
+			(1..5).each { mapper.get(conn, User.class, it) }
+			mapper.getAll(conn, User.class, [1, 2, 3, 4, 5])
+			report = session.getReport()
+		} finally {
+			session.close()
+		}
+		
+		then: 'only the SQL of the loop is repeated'
+		report.statements.size() == 2
+		report.repeatedStatements.size() == 1
+		report.repeatedStatements[0].count == 5
+		report.repeatedStatements[0].sql.contains('WHERE')
+		report.slowStatements.isEmpty()
+		
+		and: 'the report has the repeated SQL'
+		report.hasProblems()
+		report.toString().contains('5x')
+		
+		when: 'failing on problems'
+		report.throwIfProblems()
+		
+		then:
+		IllegalStateException e = thrown()
+		e.message == report.toString()
+		
+		and: 'the session is closed'
+		diagnostics.currentSession == null
+	}
+	
+	def 'Detect slow statements'() {
+		given: 'diagnostics flagging any execution as slow'
+		QueryDiagnostics diagnostics = new QueryDiagnostics(10, 0, TimeUnit.NANOSECONDS)
+		
+		and: 'a LatencyRecorder as well'
+		LatencyRecorder recorder = new LatencyRecorder()
+		mapper.executionListener = ExecutionListener.of(recorder, diagnostics)
+		
+		when: 'getting a User in a session'
+		QueryDiagnostics.Report report = null
+		QueryDiagnostics.Session session = diagnostics.beginSession()
+		try {
+			mapper.get(conn, User.class, 1)
+			report = session.getReport()
+		} finally {
+			session.close()
+		}
+		
+		then: 'the statement is slow but not repeated'
+		report.slowStatements*.slowCount == [1]
+		report.repeatedStatements.isEmpty()
+		
+		and: 'both listeners were notified'
+		recorder.histograms.size() == 1
+	}
+	
+	def 'Record only the statements of the current thread in a session'() {
+		given: 'diagnostics with a session'
+		QueryDiagnostics diagnostics = new QueryDiagnostics(2, 1, TimeUnit.HOURS)
+		mapper.executionListener = diagnostics
+		QueryDiagnostics.Session session = diagnostics.beginSession()
+		
+		when: 'another thread gets Users'
+		Thread thread = Thread.start {
+			Connection otherConn = H2.getConnection()
+			try {
+				(1..3).each { mapper.get(otherConn, User.class, it) }
+			} finally {
+				otherConn.close()
+			}
+		}
+		thread.join()
+		session.close()
+		
+		then: 'nothing was recorded'
+		session.report.statements.isEmpty()
+		!session.report.hasProblems()
+	}
+	
+	def 'Begin only one session per thread'() {
+		given:
+		QueryDiagnostics diagnostics = new QueryDiagnostics(2, 1, TimeUnit.HOURS)
+		QueryDiagnostics.Session session = diagnostics.beginSession()
+		
+		when:
+		diagnostics.beginSession()
+		
+		then:
+		thrown(IllegalStateException)
+		
+		cleanup:
+		session.close()
+	}
+}
@@ -0,0 +1,105 @@
+package com.github.javalbert.orm
+
+import java.sql.Connection
+import java.sql.PreparedStatement
+
+import com.github.javalbert.domain.User
+import com.github.javalbert.h2.H2
+import com.github.javalbert.utils.jdbc.JdbcUtils
+
+import spock.lang.Specification
+
+class StatementCacheSpec extends Specification {
+	private Connection conn
+	private JdbcMapper mapper
+	
+	def setupSpec() {
+		H2.createTables()
+	}
+	
+	def setup() {
+		H2.deleteRecords()
+		mapper = new JdbcMapper()
+		mapper.register(User.class)
+		conn = H2.getConnection()
+		mapper.saveAll(conn, (1..3).collect { new User(it, 'User ' + it, true) })
+	}
+	
+	def cleanup() {
+		JdbcUtils.closeQuietly(conn)
+	}
+	
+	def 'Reuse the statement of the same SQL on the same connection'() {
+		given: 'a statement cache'
+		StatementCache cache = mapper.enableStatementCache(8)
+		
+		when: 'getting Users by ID 4 times'
+		List<User> users = (1..3).collect { mapper.get(conn, User.class, it) } + mapper.get(conn, User.class, 1)
+		
+		then: 'the Users are read'
+		users*.userId == [1, 2, 3, 1]
+		
+		and: 'the statement was prepared once and reused 3 times'
+		cache.missCount == 1
+		cache.hitCount == 3
+		cache.hitRatio == 0.75d
+		cache.size() == 1
+	}
+	
+	def 'Prepare another statement of the same SQL while the first is in use'() {
+		given: 'a statement cache'
+		StatementCache cache = mapper.enableStatementCache(8)
+		JdbcStatement statement = mapper.createQuery('SELECT user_id FROM User')
+		
+		when: 'preparing the same SQL twice before closing either'
+		PreparedStatement first = statement.createPreparedStatement(conn)
+		PreparedStatement second = statement.createPreparedStatement(conn)
+		first.close()
+		second.close()
+		
+		then: 'neither is reused, and only one statement is kept'
+		cache.missCount == 2
+		cache.size() == 1
+		
+		and: 'closing a pooled statement again has no effect'
+		first.closed
+		first.close() == null
+		cache.size() == 1
+	}
+	
+	def 'Evict the least recently used statement of a connection'() {
+		given: 'a statement cache of 1 statement per connection'
+		StatementCache cache = mapper.enableStatementCache(1)
+		
+		when: 'alternating between 2 SQL statements'
+		mapper.get(conn, User.class, 1)
+		mapper.createQuery('SELECT user_id FROM User').toList(conn, User.class)
+		mapper.get(conn, User.class, 1)
+		
+		then: 'each statement evicted the other'
+		cache.hitCount == 0
+		cache.evictionCount == 2
+		cache.size() == 1
+	}
+	
+	def 'Discard the statements of closed connections'() {
+		given: 'a statement cache with a statement of a closed connection'
+		StatementCache cache = mapper.enableStatementCache(8)
+		Connection closedConn = H2.getConnection()
+		mapper.get(closedConn, User.class, 1)
+		closedConn.close()
+		
+		when: 'getting a User with another connection'
+		mapper.get(conn, User.class, 1)
+		
+		then: 'only the statement of the open connection is kept'
+		cache.size() == 1
+		
+		when: 'disabling the statement cache'
+		mapper.disableStatementCache()
+		
+		then: 'the idle statements are closed'
+		cache.size() == 0
+		mapper.statementCache == null
+	}
+}
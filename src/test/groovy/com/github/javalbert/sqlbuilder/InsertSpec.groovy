@@ -0,0 +1,35 @@
+package com.github.javalbert.sqlbuilder
+
+import com.github.javalbert.sqlbuilder.ColumnList
+import com.github.javalbert.sqlbuilder.ColumnValues
+import com.github.javalbert.sqlbuilder.Insert
+import com.github.javalbert.sqlbuilder.vendor.ANSI
+
+import spock.lang.Specification
+
+class InsertSpec extends Specification {
+	def 'Create multi-row Insert with a row value constructor and renamed parameters per row'() {
+		given: 'Insert with parameters a and b, and literal 0'
+		Insert insert = new Insert('tbl').columns(new ColumnList()
+			.column('a').column('b').column('c')
+		).values(new ColumnValues().param('a').param('b').literal(0)
+		).immutable()
+		
+		when: 'creating a 3 row Insert'
+		String sql = new ANSI().print(insert.multiRow(3))
+		
+		then: 'each row has parameters suffixed with its row number'
+		sql == 'INSERT INTO tbl (a, b, c) VALUES (:a__0, :b__0, 0), (:a__1, :b__1, 0), (:a__2, :b__2, 0)'
+	}
+	
+	def 'Cannot create multi-row Insert from an Insert without a row value constructor'() {
+		given: 'Insert without VALUES'
+		Insert insert = new Insert('tbl').columns(new ColumnList().column('a'))
+		
+		when: 'creating a 2 row Insert'
+		insert.multiRow(2)
+		
+		then: 'throw error'
+		thrown(IllegalStateException)
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.javalbert.sqlbuilder
+
+import com.github.javalbert.sqlbuilder.vendor.ANSI
+import com.github.javalbert.sqlbuilder.vendor.MySQL
+
+import spock.lang.Specification
+
+class MemoizedSqlSpec extends Specification {
+	private static Select createSelect(String name) {
+		return new Select()
+		.list(new SelectList().column('user_id').column('name'))
+		.from(new From().tableName('User'))
+		.where(new Where().predicate(new Predicate().column('name').eq().param(name)))
+		.offset(0)
+		.fetch(10)
+	}
+	
+	def 'Print an immutable Select once per vendor'() {
+		given: 'an immutable Select, ANSI and MySQL'
+		Select select = createSelect('name').immutable()
+		ANSI ansi = new ANSI()
+		MySQL mySql = new MySQL()
+		
+		when: 'the Select is printed twice by each vendor'
+		String ansiSql = ansi.print(select)
+		String mySqlSql = mySql.print(select)
+		
+		then: 'the same String instance is returned each time, which is different per vendor'
+		ansi.print(select).is(ansiSql)
+		ansi.print((Node)select).is(ansiSql)
+		mySql.print(select).is(mySqlSql)
+		ansiSql == 'SELECT user_id, name FROM User WHERE name = :name OFFSET 0 ROWS FETCH FIRST 10 ROWS ONLY'
+		mySqlSql == 'SELECT user_id, name FROM User WHERE name = :name LIMIT 10 OFFSET 0'
+		ansi.print(select, true) == "(${ansiSql})"
+		select.memoizedSql.get(ansi).is(ansiSql)
+	}
+	
+	def 'Immutable statements with the same structure are equal'() {
+		given: 'two immutable Selects built the same way, and one with a different parameter'
+		Select select = createSelect('name').immutable()
+		Select sameSelect = createSelect('name').immutable()
+		Select otherSelect = createSelect('other').immutable()
+		
+		expect: 'the Selects with the same structure are equal and have the same hash code'
+		select == sameSelect
+		select.hashCode() == sameSelect.hashCode()
+		select != otherSelect
+		select != createSelect('name')
+		!NodeUtils.structurallyEquals(
+				new Condition().group(new Condition().predicate(new Predicate().column('a')))
+						.predicate(new Predicate().column('b')),
+				new Condition().group(new Condition().predicate(new Predicate().column('a'))
+						.predicate(new Predicate().column('b'))))
+	}
+	
+	def 'Memoize SQL of a bounded number of vendors'() {
+		given: 'an immutable Select'
+		Select select = createSelect('name').immutable()
+		
+		when: 'the Select is printed by more vendor instances than are memoized'
+		List<ANSI> vendors = (0..MemoizedSql.MAX_VENDORS).collect { new ANSI() }
+		vendors.each { it.print(select) }
+		
+		then: 'only the SQL of the first vendors is memoized'
+		vendors.take(MemoizedSql.MAX_VENDORS).every { select.memoizedSql.get(it) != null }
+		select.memoizedSql.get(vendors.last()) == null
+		vendors.last().print(select) == vendors.first().print(select)
+	}
+}
@@ -0,0 +1,125 @@
+package com.github.javalbert.sqlbuilder.dsl
+
+import static com.github.javalbert.sqlbuilder.dsl.DSL.*
+
+import com.github.javalbert.sqlbuilder.vendor.ANSI
+import com.github.javalbert.sqlbuilder.vendor.MSSQL
+import com.github.javalbert.sqlbuilder.vendor.MySQL
+import com.github.javalbert.sqlbuilder.vendor.Vendor
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class DSLRendererSpec extends Specification {
+	private static final Table Foo = new Table("Foo");
+	
+	private static final FooTableAlias f = new FooTableAlias();
+	
+	private static final TableColumn bar = new TableColumn("bar")
+	
+	public static class FooTableAlias extends TableAlias {
+		public final TableColumn bar = of(new TableColumn("bar"));
+		public final TableColumn baz = of(new TableColumn("baz"));
+		
+		public FooTableAlias() {
+			super("f");
+		}
+	}
+	
+	private static final List<DMLStatement> STATEMENTS = [
+		delete(Foo).where(f.bar.eq(1)),
+		delete(Foo).where(f.bar.between(1, 2).or(f.bar.notBetween(param('lo'), param('hi')))),
+		delete(Foo).where(exists(select().from(Foo).where(Foo.of(bar).gt(bar)))),
+		delete(Foo).where(bar.in('Started', 'Completed')),
+		insert(Foo).columns(f.bar, f.baz).values(literal('foo'), param('baz')),
+		insert(Foo).columns(f.bar).subselect(select(f.bar).from(Foo)),
+		update(Foo).set(f.bar.to('foo'), f.baz.to(param('baz'))).where(f.bar.eq(1)),
+		merge(Foo)
+				.using(Foo)
+				.on(f.bar.eq(f.bar))
+				.whenMatched()
+				.then(update().set(f.bar.to(1)))
+				.whenNotMatched()
+				.then(insert().columns(f.bar).values(literal('foo'))),
+		merge(Foo)
+				.using(select(f.bar).from(Foo))
+				.on(f.bar.eq(f.bar))
+				.whenMatchedAnd(f.bar.gt(1))
+				.thenDelete(),
+		select(sqlCase(f.bar).when(1).then('One').when(2).then('Two').ifElse('Zero').as('word')),
+		select(sqlCase().when(f.bar.gt(9)).then('> 9').when(f.bar.lt(0)).then('< 1')),
+		select(f.bar.concat(' ').concat(f.bar).as('bars')).from(Foo),
+		select(f.bar.multiply(literal(1).plus(f.bar))).from(Foo),
+		select(f.bar.concat(literal('x').concat(f.baz)).as('nested')).from(Foo),
+		select(f.bar).from(Foo, Foo.innerJoin(Foo).on(f.bar.eq(f.bar)), select(f.bar).as(f)),
+		select(f.bar).from(Foo.leftOuterJoin(nest(Foo.innerJoin(Foo).on(f.bar.eq(f.bar)))).on(f.bar.eq(f.bar))),
+		select(new Function('COALESCE').call(f.bar, literal('Foobar')).as('c'), literal(true), literalNull()).from(Foo),
+		select(f.bar).from(Foo).where(f.bar.notIn(select(f.bar).from(Foo))),
+		select(f.bar).from(Foo).orderBy(f.bar.asc(), new ColumnAlias('Foobar').desc()),
+		select(f.bar.as('Foobar'), f.baz).from(Foo).distinct(true),
+		with(Foo).columns(f.bar).as(select(f.bar).from(Foo)).select(f.bar).from(Foo),
+		select(f.bar).from(Foo).where(f.bar.eq('').and(f.bar.isNull().or(f.bar.eq('')))),
+		select(f.bar, count(f.baz)).from(Foo).groupBy(f.bar).having(count(f.baz).gt(param('min'))),
+		select(f.bar).from(Foo)
+				.except(select(f.bar).from(Foo))
+				.intersect(select(f.bar).from(Foo))
+				.union(select(f.bar).from(Foo))
+				.unionAll(select(f.bar).from(Foo)),
+		select(f.bar).from(Foo).where(f.bar.like('a%').and(f.baz.notLike('b%')).and(f.bar.noteq(param('bar'))))
+	]
+	
+	@Unroll
+	def 'Render dsl statement #index the same as DSLTransformer and #vendor.class.simpleName'() {
+		given: 'a renderer for the vendor'
+		DSLRenderer renderer = new DSLRenderer(vendor)
+		DMLStatement stmt = STATEMENTS[index]
+		
+		when: 'statement is rendered directly and transformed then printed'
+		Set<String> paramNames = new HashSet<>()
+		String sql = renderer.render(stmt, paramNames)
+		String expected = vendor.print(DSLTransformer.INSTANCE.build(stmt))
+		
+		then: 'the SQL is the same'
+		sql == expected
+		
+		and: 'parameter names are the ones in the SQL'
+		paramNames.every { sql.contains(':' + it) }
+		
+		where:
+		[vendor, index] << [[new ANSI(), new MySQL(), new MSSQL()], (0..<STATEMENTS.size())].combinations()
+	}
+	
+	def 'Collect parameter names while rendering'() {
+		given: 'a statement with parameters'
+		SelectStatement stmt = select(f.bar)
+				.from(Foo)
+				.where(f.bar.eq(param('bar')).and(f.baz.in(param('baz1'), param('baz2'))))
+		
+		when: 'rendered'
+		Set<String> paramNames = new HashSet<>()
+		new DSLRenderer(new ANSI()).render(stmt, paramNames)
+		
+		then: 'all parameter names were collected'
+		paramNames == ['bar', 'baz1', 'baz2'] as Set
+	}
+	
+	def 'Vendors other than ANSI, MySQL, and MSSQL are transformed before printing'() {
+		given: 'a vendor subclass that prints boolean literals differently'
+		Vendor vendor = new ANSI() {
+			@Override
+			void printTo(com.github.javalbert.sqlbuilder.Literal literal, StringBuilder builder) {
+				if (literal.type == com.github.javalbert.sqlbuilder.Node.TYPE_LITERAL_BOOLEAN) {
+					builder.append(literal.value ? 'Y' : 'N')
+					return
+				}
+				super.printTo(literal, builder)
+			}
+		}
+		
+		when: 'a statement with a boolean literal is rendered'
+		String sql = new DSLRenderer(vendor).render(select(literal(true)).from(Foo))
+		
+		then: "the subclass's printing is used"
+		sql == 'SELECT Y FROM Foo'
+	}
+}
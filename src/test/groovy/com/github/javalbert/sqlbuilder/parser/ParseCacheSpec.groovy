@@ -0,0 +1,105 @@
+package com.github.javalbert.sqlbuilder.parser
+
+import com.github.javalbert.sqlbuilder.ImmutableSelect
+import com.github.javalbert.sqlbuilder.ImmutableUpdate
+import com.github.javalbert.sqlbuilder.vendor.ANSI
+
+import spock.lang.Specification
+
+class ParseCacheSpec extends Specification {
+	def 'Share the immutable statement of SQL differing only in whitespace and comments'() {
+		given: 'a parse cache'
+		ParseCache cache = new ParseCache()
+		
+		when: 'parsing the same query 3 times with different whitespace'
+		ParseCache.ParsedSql first = cache.parse('SELECT user_id, name FROM User WHERE user_id = :id')
+		ParseCache.ParsedSql second = cache.parse('SELECT user_id,name\n\tFROM User -- by ID\nWHERE user_id=:id')
+		ParseCache.ParsedSql third = cache.parse('  SELECT  user_id , name FROM /* users */ User WHERE user_id = :id  ')
+		
+		then: 'the statement is immutable and parsed once'
+		first.sqlStatement instanceof ImmutableSelect
+		second.sqlStatement.is(first.sqlStatement)
+		third.sqlStatement.is(first.sqlStatement)
+		first.literals.isEmpty()
+		
+		and: 'the hit ratio counts the 2 hits'
+		cache.missCount == 1
+		cache.hitCount == 2
+		cache.hitRatio == 2 / 3d
+		cache.size() == 1
+	}
+	
+	def 'Share the statement of SQL differing only in literals if literals are normalized'() {
+		given: 'a parse cache normalizing literals'
+		ParseCache cache = new ParseCache(ParseCache.DEFAULT_MAX_SIZE, true)
+		
+		when: 'parsing queries differing only in literals'
+		ParseCache.ParsedSql first = cache.parse(
+				"SELECT name FROM User WHERE name LIKE 'A%' AND user_id IN (1, 2) AND version BETWEEN 1 AND 5 ORDER BY 1")
+		ParseCache.ParsedSql second = cache.parse(
+				"SELECT name FROM User WHERE name LIKE 'It''s%' AND user_id IN (3, 4) AND version BETWEEN 0 AND 9 ORDER BY 1")
+		
+		then: 'the statement is shared'
+		second.sqlStatement.is(first.sqlStatement)
+		cache.hitCount == 1
+		
+		and: 'the statement has parameters instead of the literals, except for ORDER BY 1'
+		new ANSI().print(first.sqlStatement) ==
+				'SELECT name FROM User WHERE name LIKE :literal1 AND user_id IN (:literal2, :literal3) AND version BETWEEN :literal4 AND :literal5 ORDER BY 1'
+		
+		and: 'the literals are returned by parameter name'
+		first.literals == [literal1: 'A%', literal2: 1G, literal3: 2G, literal4: 1G, literal5: 5G]
+		second.literals == [literal1: "It's%", literal2: 3G, literal3: 4G, literal4: 0G, literal5: 9G]
+	}
+	
+	def 'Normalize literals of SET and every row of VALUES'() {
+		given: 'a parse cache normalizing literals'
+		ParseCache cache = new ParseCache(ParseCache.DEFAULT_MAX_SIZE, true)
+		
+		expect: 'literals of SET and VALUES to be normalized'
+		cache.parse("UPDATE User SET name = 'Albert' WHERE user_id = 1").with {
+			sqlStatement instanceof ImmutableUpdate && literals == [literal1: 'Albert', literal2: 1G]
+		}
+		cache.parse("INSERT INTO User (user_id, name) VALUES (1, 'A'), (2, 'B')").literals ==
+				[literal1: 1G, literal2: 'A', literal3: 2G, literal4: 'B']
+	}
+	
+	def 'Do not normalize literals of SQL with parameters named like normalized literals'() {
+		given: 'a parse cache normalizing literals'
+		ParseCache cache = new ParseCache(ParseCache.DEFAULT_MAX_SIZE, true)
+		
+		when: 'parsing SQL with a :literal1 parameter'
+		ParseCache.ParsedSql parsed = cache.parse("SELECT name FROM User WHERE user_id = :literal1 AND name = 'A'")
+		
+		then: 'the literal was kept'
+		parsed.literals.isEmpty()
+		new ANSI().print(parsed.sqlStatement) == "SELECT name FROM User WHERE user_id = :literal1 AND name = 'A'"
+	}
+	
+	def 'Evict the least recently used statement'() {
+		given: 'a parse cache of 2 statements'
+		ParseCache cache = new ParseCache(2, false)
+		
+		when: 'parsing 3 queries, using the first again before the third'
+		ParseCache.ParsedSql first = cache.parse('SELECT a FROM T')
+		cache.parse('SELECT b FROM T')
+		cache.parse('SELECT a FROM T')
+		cache.parse('SELECT c FROM T')
+		
+		then: 'the second query was evicted'
+		cache.evictionCount == 1
+		cache.size() == 2
+		cache.parse('SELECT a FROM T').sqlStatement.is(first.sqlStatement)
+		cache.missCount == 3
+	}
+	
+	def 'Do not cache SQL that is not a statement'() {
+		given: 'a parse cache'
+		ParseCache cache = new ParseCache()
+		
+		expect: 'no statement is returned or cached'
+		cache.parse('CREATE TABLE T (a INT)').sqlStatement == null
+		cache.parse('  ').sqlStatement == null
+		cache.size() == 0
+	}
+}
@@ -0,0 +1,86 @@
+package com.github.javalbert.sqlbuilder.parser
+
+import com.github.javalbert.sqlbuilder.LiteralString
+import com.github.javalbert.sqlbuilder.Select
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SqlLexerSpec extends Specification {
+	@Unroll
+	def 'Split SQL without quotes into the same tokens as SqlParser.REGEX_SPLIT: #sql'() {
+		expect: 'lexer tokens are the same as the regex tokens'
+		new SqlLexer(sql).tokens == new SqlParser().tokenize(sql)
+		
+		where:
+		sql << [
+			'SELECT a.c1, (a.c4 + a.c5) * a.c6, a.* FROM catalog.schema.tableA a',
+			'SELECT c1 FROM t WHERE c1<=1 AND c2<>2 AND c3>=3 AND c4<4 AND c5>5 AND c6=6',
+			'UPDATE t SET c1 = c1 % 2 / 3 - 4 WHERE id IN (:ids)',
+			'\tDELETE\r\nFROM t\fWHERE   id = :id  ',
+			'SELECT COUNT(*) FROM t GROUP BY c1 HAVING COUNT(*) > 1 ORDER BY c1 DESC'
+		]
+	}
+	
+	def 'Lex string literals as single tokens with escaped quotes'() {
+		given: "SQL with the string literals 'a' and ''' a b '''"
+		String sql = "WHERE (a.c2 = 'a' OR a.c2 <> ''' a b ''')"
+		
+		when: 'lexed'
+		SqlLexer lexer = new SqlLexer(sql)
+		
+		then: 'each string literal is one token'
+		lexer.tokens == ['WHERE', '(', 'a', '.', 'c2', '=', "'a'", 'OR', 'a', '.', 'c2', '<>', "''' a b '''", ')']
+		lexer.getType(6) == SqlLexer.TYPE_STRING_LITERAL
+		lexer.getType(12) == SqlLexer.TYPE_STRING_LITERAL
+		
+		and: 'the values of the string literals are unescaped'
+		lexer.getStringLiteralValue(6) == 'a'
+		lexer.getStringLiteralValue(12) == "' a b '"
+		
+		and: 'the span of a token is its offset and length in the SQL'
+		lexer.getOffset(12) == sql.indexOf("'''")
+		lexer.getLength(12) == "''' a b '''".length()
+	}
+	
+	def 'Lex quoted identifiers as single tokens and skip comments'() {
+		given: 'SQL with quoted identifiers and comments'
+		String sql = '''SELECT "first name", `last name`, [middle name] -- names
+FROM /* all
+people */ Person'''
+		
+		when: 'lexed'
+		SqlLexer lexer = new SqlLexer(sql)
+		
+		then: 'quoted identifiers are tokens, and comments are not'
+		lexer.tokens == ['SELECT', '"first name"', ',', '`last name`', ',', '[middle name]', 'FROM', 'Person']
+		lexer.getType(1) == SqlLexer.TYPE_QUOTED_IDENTIFIER
+		lexer.getType(2) == SqlLexer.TYPE_DELIMITER
+		lexer.getType(7) == SqlLexer.TYPE_WORD
+	}
+	
+	@Unroll
+	def 'Reject unterminated #what'() {
+		when: 'lexing SQL that ends inside a quote or comment'
+		new SqlLexer(sql)
+		
+		then: 'IllegalArgumentException is thrown'
+		thrown(IllegalArgumentException)
+		
+		where:
+		what	|	sql
+		'string literal'	|	"SELECT 'abc"
+		'string literal ending in an escaped quote'	|	"SELECT 'abc''"
+		'quoted identifier'	|	'SELECT "abc'
+		'comment'	|	'SELECT abc /* comment'
+	}
+	
+	def 'Parse string literals with spaces and escaped quotes'() {
+		when: 'parsing a SELECT of a string literal'
+		Select select = new SqlParser().parse("SELECT 'it''s  here' FROM t").sqlStatement
+		
+		then: 'the string literal keeps its spaces and one quote'
+		LiteralString literal = select.nodes[0].nodes[0]
+		literal.value == "it's  here"
+	}
+}
@@ -39,4 +39,39 @@ public class BookPagePK implements Serializable {
 	public void setPageNumber(int pageNumber) {
 		this.pageNumber = pageNumber;
 	}
-}
\ No newline at end of file
+	
+	public BookPagePK() {}
+	
+	public BookPagePK(String isbn, int pageNumber) {
+		this.isbn = isbn;
+		this.pageNumber = pageNumber;
+	}
+	
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((isbn == null) ? 0 : isbn.hashCode());
+		result = prime * result + pageNumber;
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		BookPagePK other = (BookPagePK) obj;
+		if (isbn == null) {
+			if (other.isbn != null)
+				return false;
+		} else if (!isbn.equals(other.isbn))
+			return false;
+		if (pageNumber != other.pageNumber)
+			return false;
+		return true;
+	}
+}
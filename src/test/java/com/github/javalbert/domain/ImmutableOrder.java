@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.domain;
+
+import java.math.BigDecimal;
+
+import com.github.javalbert.orm.Column;
+import com.github.javalbert.orm.Entity;
+import com.github.javalbert.orm.Id;
+import com.github.javalbert.orm.Table;
+
+@Entity
+@Table(name = "Orders")
+public class ImmutableOrder {
+	@Id
+	@Column("order_id")
+	private long orderId;
+	@Column("store_id")
+	private Long storeId;
+	@Column("sales_amount")
+	private BigDecimal salesAmount;
+	
+	public long getOrderId() {
+		return orderId;
+	}
+	public Long getStoreId() {
+		return storeId;
+	}
+	public BigDecimal getSalesAmount() {
+		return salesAmount;
+	}
+	
+	public ImmutableOrder(
+			@Column("order_id") long orderId,
+			@Column("store_id") Long storeId,
+			@Column("sales_amount") BigDecimal salesAmount) {
+		this.orderId = orderId;
+		this.storeId = storeId;
+		this.salesAmount = salesAmount;
+	}
+}
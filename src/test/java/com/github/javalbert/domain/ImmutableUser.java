@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2017 Albert Shun-Dat Chan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See
+ * the License for the specific language governing permissions and limitations under the License.
+ *******************************************************************************/
+package com.github.javalbert.domain;
+
+import com.github.javalbert.orm.Column;
+import com.github.javalbert.orm.Entity;
+import com.github.javalbert.orm.Id;
+import com.github.javalbert.orm.Table;
+
+@Entity
+@Table(name = "User")
+public class ImmutableUser {
+	@Id
+	@Column("user_id")
+	private int userId;
+	@Column("name")
+	private String name;
+	@Column("active")
+	private Boolean active;
+	
+	public int getUserId() {
+		return userId;
+	}
+	public String getName() {
+		return name;
+	}
+	public Boolean isActive() {
+		return active;
+	}
+	
+	public ImmutableUser(
+			@Column("user_id") int userId,
+			@Column("name") String name,
+			@Column("active") Boolean active) {
+		this.userId = userId;
+		this.name = name;
+		this.active = active;
+	}
+}
@@ -36,6 +36,11 @@ public final class H2 {
 				+ "timestamp_val TIMESTAMP,"
 				+ "varchar_val VARCHAR(255)"
 				+ ")",
+				"CREATE TABLE IF NOT EXISTS Book_Page ("
+				+ "isbn VARCHAR(20),"
+				+ "page_number INT,"
+				+ "PRIMARY KEY (isbn, page_number)"
+				+ ")",
 				"CREATE TABLE IF NOT EXISTS Java8DateHolder ("
 				+ "id IDENTITY,"
 				+ "local_date DATE,"
@@ -93,6 +98,7 @@ public final class H2 {
 		try {
 			executeStatements(
 					"DELETE FROM DataTypeHolder",
+					"DELETE FROM Book_Page",
 					"DELETE FROM Java8DateHolder",
 					"ALTER TABLE Java8DateHolder ALTER COLUMN id RESTART WITH 1",
 					"DELETE FROM User",
@@ -139,6 +145,7 @@ public final class H2 {
 	public static void dropTables() throws ClassNotFoundException, SQLException {
 		executeStatements(
 				"DROP TABLE IF EXISTS DataTypeHolder",
+				"DROP TABLE IF EXISTS Book_Page",
 				"DROP TABLE IF EXISTS Java8DateHolder",
 				"DROP TABLE IF EXISTS User",
 				"DROP TABLE IF EXISTS User2",